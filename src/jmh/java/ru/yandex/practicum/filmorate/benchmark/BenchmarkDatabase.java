@@ -0,0 +1,70 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import ru.yandex.practicum.filmorate.generator.DatasetGenerator;
+
+/**
+ * An embedded H2 database for benchmarks, created from the application schema and seeded by the
+ * {@link DatasetGenerator} with a fixed seed.
+ * <p>
+ * Films are liked by {@code likesPerFilm} users on average, the popular ones by many more, and
+ * every user has a fixed number of friends. Names of films contain their IDs, so searches match a
+ * predictable share of them.
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+
+  private static final int FRIENDS_PER_USER = 20;
+  private static final long SEED = 42;
+  private static final AtomicInteger DATABASES = new AtomicInteger();
+
+  private final SingleConnectionDataSource dataSource;
+  private final JdbcTemplate jdbc;
+
+  BenchmarkDatabase() {
+    dataSource = new SingleConnectionDataSource("jdbc:h2:mem:benchmark" + DATABASES.incrementAndGet()
+        + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL", "sa", "password", true);
+    jdbc = new JdbcTemplate(dataSource);
+    new ResourceDatabasePopulator(new ClassPathResource("schema.sql"),
+        new ClassPathResource("data.sql")).execute(dataSource);
+  }
+
+  JdbcTemplate jdbc() {
+    return jdbc;
+  }
+
+  /**
+   * Seeds the database.
+   *
+   * @param films        the number of films
+   * @param users        the number of users
+   * @param likesPerFilm the average number of likes of a film
+   */
+  void seed(final int films, final int users, final int likesPerFilm) {
+    seed(jdbc, films, users, likesPerFilm);
+  }
+
+  /**
+   * Seeds another database created from the application schema the same way.
+   *
+   * @param jdbc         the template of the database
+   * @param films        the number of films
+   * @param users        the number of users
+   * @param likesPerFilm the average number of likes of a film
+   */
+  static void seed(final JdbcTemplate jdbc, final int films, final int users,
+      final int likesPerFilm) {
+    new DatasetGenerator(jdbc, SEED).generate(new DatasetGenerator.Size(users, films,
+        Math.max(1, films / 10), (long) films * likesPerFilm, (long) users * FRIENDS_PER_USER,
+        0, 0, 0));
+  }
+
+  @Override
+  public void close() {
+    jdbc.execute("SHUTDOWN");
+    dataSource.destroy();
+  }
+}
@@ -0,0 +1,115 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.RowMapper;
+import ru.yandex.practicum.filmorate.mapper.FilmMapper;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.dao.FilmDbStorage;
+import ru.yandex.practicum.filmorate.storage.dao.GenreDbStorage;
+import ru.yandex.practicum.filmorate.storage.dao.UserDbStorage;
+import ru.yandex.practicum.filmorate.storage.rowmappers.FilmRowMapper;
+import ru.yandex.practicum.filmorate.storage.rowmappers.GenreRowMapper;
+import ru.yandex.practicum.filmorate.storage.rowmappers.UserRowMapper;
+
+/**
+ * Benchmarks of mapping result set rows to films and users, and films to DTOs.
+ * <p>
+ * The rows of the storage {@code findAll} queries are recorded once per trial, so the benchmarks
+ * measure mapping alone. The {@code PerRow} variants resolve the columns for every row, as
+ * {@link RowMapper#mapRow} of a compiled row mapper does outside of {@code BaseRepository}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+  @Param({"100", "1000"})
+  private int films;
+
+  @Param({"100", "1000"})
+  private int users;
+
+  @Param({"10", "100"})
+  private int likesPerFilm;
+
+  private final FilmRowMapper filmRowMapper = new FilmRowMapper();
+  private final UserRowMapper userRowMapper = new UserRowMapper();
+  private ResultSetSnapshot<Film> filmRows;
+  private ResultSetSnapshot<User> userRows;
+  private List<Film> filmList;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    try (BenchmarkDatabase database = new BenchmarkDatabase()) {
+      database.seed(films, users, likesPerFilm);
+      filmRows = new ResultSetSnapshot<>(filmRowMapper);
+      userRows = new ResultSetSnapshot<>(userRowMapper);
+      filmList = List.copyOf(new FilmDbStorage(database.jdbc(), filmRows,
+          new GenreDbStorage(database.jdbc(), new GenreRowMapper())).findAll());
+      new UserDbStorage(database.jdbc(), userRows).findAll();
+    }
+  }
+
+  @Benchmark
+  public void mapFilmRows(final Blackhole blackhole) throws SQLException {
+    final ResultSet rs = filmRows.rewind();
+    rs.next();
+    mapAll(rs, filmRowMapper.compile(rs), blackhole);
+  }
+
+  @Benchmark
+  public void mapFilmRowsPerRow(final Blackhole blackhole) throws SQLException {
+    final ResultSet rs = filmRows.rewind();
+    rs.next();
+    mapAll(rs, filmRowMapper, blackhole);
+  }
+
+  @Benchmark
+  public void mapUserRows(final Blackhole blackhole) throws SQLException {
+    final ResultSet rs = userRows.rewind();
+    rs.next();
+    mapAll(rs, userRowMapper.compile(rs), blackhole);
+  }
+
+  @Benchmark
+  public void mapUserRowsPerRow(final Blackhole blackhole) throws SQLException {
+    final ResultSet rs = userRows.rewind();
+    rs.next();
+    mapAll(rs, userRowMapper, blackhole);
+  }
+
+  @Benchmark
+  public void mapToFilmDto(final Blackhole blackhole) {
+    for (final Film film : filmList) {
+      blackhole.consume(FilmMapper.mapToFilmDto(film));
+    }
+  }
+
+  private static void mapAll(final ResultSet rs, final RowMapper<?> rowMapper,
+      final Blackhole blackhole) throws SQLException {
+    int rowNum = 0;
+    do {
+      blackhole.consume(rowMapper.mapRow(rs, rowNum++));
+    } while (rs.next());
+  }
+}
@@ -0,0 +1,58 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import org.h2.tools.SimpleResultSet;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * A row mapper recording the rows of a query into an in-memory {@link ResultSet}, so mapping can
+ * be benchmarked without executing the query. Array columns are copied into plain arrays.
+ *
+ * @param <T> the type of the entities mapped by the delegate mapper
+ */
+final class ResultSetSnapshot<T> implements RowMapper<T> {
+
+  private final RowMapper<T> delegate;
+  private SimpleResultSet snapshot;
+
+  ResultSetSnapshot(final RowMapper<T> delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public T mapRow(final ResultSet rs, final int rowNum) throws SQLException {
+    final ResultSetMetaData metaData = rs.getMetaData();
+    if (snapshot == null) {
+      snapshot = new SimpleResultSet();
+      snapshot.setAutoClose(false);
+      for (int column = 1; column <= metaData.getColumnCount(); column++) {
+        snapshot.addColumn(metaData.getColumnLabel(column), metaData.getColumnType(column),
+            metaData.getPrecision(column), metaData.getScale(column));
+      }
+    }
+    final Object[] row = new Object[metaData.getColumnCount()];
+    for (int column = 1; column <= row.length; column++) {
+      final Object value = rs.getObject(column);
+      row[column - 1] = value instanceof Array array ? array.getArray() : value;
+    }
+    snapshot.addRow(row);
+    return delegate.mapRow(rs, rowNum);
+  }
+
+  /**
+   * Rewinds the recorded rows.
+   *
+   * @return the recorded rows positioned before the first row
+   * @throws SQLException if no rows have been recorded
+   */
+  ResultSet rewind() throws SQLException {
+    if (snapshot == null) {
+      throw new SQLException("No rows have been recorded.");
+    }
+    snapshot.beforeFirst();
+    return snapshot;
+  }
+}
@@ -0,0 +1,98 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.SearchCriteria;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.dao.FilmDbStorage;
+import ru.yandex.practicum.filmorate.storage.dao.GenreDbStorage;
+import ru.yandex.practicum.filmorate.storage.dao.UserDbStorage;
+import ru.yandex.practicum.filmorate.storage.rowmappers.FilmRowMapper;
+import ru.yandex.practicum.filmorate.storage.rowmappers.GenreRowMapper;
+import ru.yandex.practicum.filmorate.storage.rowmappers.UserRowMapper;
+
+/**
+ * Benchmarks of the film and user storage queries against an embedded H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBenchmark {
+
+  @Param({"1000", "10000"})
+  private int films;
+
+  @Param({"1000", "10000"})
+  private int users;
+
+  @Param({"10", "100"})
+  private int likesPerFilm;
+
+  private BenchmarkDatabase database;
+  private FilmDbStorage filmStorage;
+  private UserDbStorage userStorage;
+  private long userId;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    database = new BenchmarkDatabase();
+    database.seed(films, users, likesPerFilm);
+    filmStorage = new FilmDbStorage(database.jdbc(), new FilmRowMapper(),
+        new GenreDbStorage(database.jdbc(), new GenreRowMapper()));
+    userStorage = new UserDbStorage(database.jdbc(), new UserRowMapper());
+    userId = users / 2;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    database.close();
+  }
+
+  @Benchmark
+  public List<Film> getTopFilms() {
+    return filmStorage.getTopFilms(10, null, null);
+  }
+
+  @Benchmark
+  public List<Film> getTopFilmsByGenreAndYear() {
+    return filmStorage.getTopFilms(10, 1L, 2000);
+  }
+
+  @Benchmark
+  public Collection<Film> findAllFilms() {
+    return filmStorage.findAll();
+  }
+
+  @Benchmark
+  public List<Film> searchByTitle() {
+    return filmStorage.searchBy("film 12", List.of(SearchCriteria.TITLE));
+  }
+
+  @Benchmark
+  public List<Film> searchByTitleAndDirector() {
+    return filmStorage.searchBy("12", List.of(SearchCriteria.TITLE, SearchCriteria.DIRECTOR));
+  }
+
+  @Benchmark
+  public List<User> getFriends() {
+    return userStorage.getFriends(userId);
+  }
+}
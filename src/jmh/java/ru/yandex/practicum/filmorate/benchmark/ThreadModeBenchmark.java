@@ -0,0 +1,148 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+
+/**
+ * Throughput of the application under many concurrent clients, with requests handled on the
+ * platform threads of the Tomcat pool or on virtual threads.
+ * <p>
+ * The application is started on a random port against an in-memory database seeded like
+ * {@link BenchmarkDatabase}, with a pool of {@code poolSize} connections. Every invocation sends
+ * {@code concurrency} requests at once from virtual threads of the client and waits for all of
+ * them; the {@code requests} counter is the throughput in requests per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+  private static final int FILMS = 10_000;
+  private static final int USERS = 10_000;
+  private static final int LIKES_PER_FILM = 10;
+
+  @Param({"platform", "virtual"})
+  private String threads;
+
+  @Param({"200", "2000"})
+  private int concurrency;
+
+  @Param({"10"})
+  private int poolSize;
+
+  private ConfigurableApplicationContext application;
+  private HttpClient client;
+  private String baseUrl;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    application = new SpringApplicationBuilder(FilmorateApplication.class)
+        .properties(
+            "server.port=0",
+            "spring.datasource.url=jdbc:h2:mem:threadmode;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+            "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+            "spring.threads.virtual.enabled=" + threads.equals("virtual"),
+            "spring.h2.console.enabled=false",
+            "spring.main.banner-mode=off",
+            "logging.level.root=WARN",
+            "logging.level.org.zalando.logbook=OFF")
+        .run();
+    BenchmarkDatabase.seed(application.getBean(JdbcTemplate.class), FILMS, USERS, LIKES_PER_FILM);
+    baseUrl = "http://localhost:"
+        + ((WebServerApplicationContext) application).getWebServer().getPort();
+    client = HttpClient.newBuilder()
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    client.close();
+    application.close();
+  }
+
+  /**
+   * Counts the requests, and the failed ones, of an iteration.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Requests {
+
+    public long requests;
+    public long errors;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      requests = 0;
+      errors = 0;
+    }
+  }
+
+  @Benchmark
+  public void concurrentRequests(final Requests counters) throws InterruptedException {
+    final List<Future<Integer>> responses = new ArrayList<>(concurrency);
+    try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < concurrency; i++) {
+        responses.add(senders.submit(this::send));
+      }
+    }
+    for (final Future<Integer> response : responses) {
+      try {
+        if (response.get() != 200) {
+          counters.errors++;
+        }
+      } catch (final ExecutionException e) {
+        counters.errors++;
+      }
+      counters.requests++;
+    }
+  }
+
+  private int send() throws IOException, InterruptedException {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final String path = switch (random.nextInt(4)) {
+      case 0 -> "/films/" + random.nextInt(1, FILMS + 1);
+      case 1 -> "/films/popular?count=10";
+      case 2 -> "/users/" + random.nextInt(1, USERS + 1);
+      default -> "/users/" + random.nextInt(1, USERS + 1) + "/friends";
+    };
+    return client.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(60))
+            .build(), HttpResponse.BodyHandlers.discarding())
+        .statusCode();
+  }
+}
@@ -28,31 +28,31 @@ public class DirectorController {
 
   @GetMapping
   public Collection<DirectorDto> getAllDirectors() {
-    log.info("Received GET /directors");
+    log.debug("Received GET /directors");
     return service.getAll();
   }
 
   @GetMapping("/{id}")
   public DirectorDto getDirectorsById(@PathVariable("id") @NotNull @Positive final Long id) {
-    log.info("Received GET /directors/{}", id);
+    log.debug("Received GET /directors/{}", id);
     return service.getById(id);
   }
 
   @PostMapping
   public DirectorDto save(@Validated @RequestBody final DirectorDto director) {
-    log.info("Received POST /directors - {}", director);
+    log.debug("Received POST /directors - {}", director);
     return service.save(director);
   }
 
   @PutMapping
   public DirectorDto update(@Validated @RequestBody final DirectorDto director) {
-    log.info("Received PUT /directors - {}", director);
+    log.debug("Received PUT /directors - {}", director);
     return service.update(director);
   }
 
   @DeleteMapping("/{id}")
   public void delete(@PathVariable("id") @NotNull @Positive final Long id) {
-    log.info("Received DELETE /directors/{}", id);
+    log.debug("Received DELETE /directors/{}", id);
     service.removeById(id);
   }
 }
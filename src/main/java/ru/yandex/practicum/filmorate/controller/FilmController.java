@@ -20,6 +20,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.yandex.practicum.filmorate.dto.FilmDto;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.service.FilmService;
@@ -46,9 +47,9 @@ public class FilmController {
      */
     @PostMapping
     public FilmDto save(@Valid @RequestBody final FilmDto film) {
-        log.info("Received request POST /films with body : {}", film);
+        log.debug("Received request POST /films with body : {}", film);
         final FilmDto savedFilm = filmService.save(film);
-        log.info("Film added successfully: {}", savedFilm);
+        log.debug("Film added successfully: {}", savedFilm);
         return savedFilm;
     }
 
@@ -60,9 +61,9 @@ public class FilmController {
      */
     @PutMapping
     public FilmDto update(@Valid @RequestBody final FilmDto newFilm) {
-        log.info("Received request PUT /films with body: {}.", newFilm);
+        log.debug("Received request PUT /films with body: {}.", newFilm);
         final FilmDto updatedFilm = filmService.update(newFilm);
-        log.info("Film updated successfully: {}.", updatedFilm);
+        log.debug("Film updated successfully: {}.", updatedFilm);
         return updatedFilm;
     }
 
@@ -76,32 +77,42 @@ public class FilmController {
     @PutMapping("/{id}/like/{userId}")
     public FilmDto addLike(@PathVariable("id") @NotNull final Long id,
                            @PathVariable("userId") @NotNull final Long userId) {
-        log.info("Received request PUT films/{}/like/{}.", id, userId);
+        log.debug("Received request PUT films/{}/like/{}.", id, userId);
         final FilmDto filmWithNewLike = filmService.addLike(id, userId);
-        log.info("Like was added to the film successfully: {}.", filmWithNewLike);
+        log.debug("Like was added to the film successfully: {}.", filmWithNewLike);
         return filmWithNewLike;
     }
 
     /**
-     * Handles GET requests to retrieve all films.
+     * Handles GET requests to retrieve all films. Answers with 304 when the films have not
+     * changed since the version in the {@code If-None-Match} header.
      *
+     * @param request the current request
      * @return a collection of all films
      */
     @GetMapping
-    public Collection<FilmDto> getAll() {
-        log.info("Received request GET /films.");
+    public Collection<FilmDto> getAll(final WebRequest request) {
+        log.debug("Received request GET /films.");
+        if (request.checkNotModified(VersionTags.etag(filmService.getAllVersion()))) {
+            return null;
+        }
         return filmService.getAll();
     }
 
     /**
-     * Handles GET requests to retrieve film with specified ID.
+     * Handles GET requests to retrieve film with specified ID. Answers with 304 when the film has
+     * not changed since the version in the {@code If-None-Match} header.
      *
-     * @param id The film ID to retrieve
+     * @param id      The film ID to retrieve
+     * @param request the current request
      * @return film data
      */
     @GetMapping("/{id}")
-    public FilmDto getById(@PathVariable("id") @NotNull final Long id) {
-        log.info("Received request GET /films/{}.", id);
+    public FilmDto getById(@PathVariable("id") @NotNull final Long id, final WebRequest request) {
+        log.debug("Received request GET /films/{}.", id);
+        if (request.checkNotModified(VersionTags.etag(filmService.getVersion(id)))) {
+            return null;
+        }
         return filmService.getById(id);
     }
 
@@ -118,9 +129,9 @@ public class FilmController {
             @RequestParam(defaultValue = "10") @Min(1) final Integer count,
             @RequestParam(required = false) Long genreId,
             @RequestParam(required = false) Integer year) {
-        log.info("Received request GET /films/popular?count={}", count);
+        log.debug("Received request GET /films/popular?count={}", count);
         final List<FilmDto> mostPopularFilms = filmService.getTopFilms(count, genreId, year);
-        log.info("Returning top {} films : {}", count, mostPopularFilms);
+        log.debug("Returning top {} films : {}", count, mostPopularFilms);
         return mostPopularFilms;
     }
 
@@ -134,15 +145,15 @@ public class FilmController {
     @DeleteMapping("/{id}/like/{userId}")
     public FilmDto deleteLike(@PathVariable("id") @NotNull Long id,
                               @PathVariable("userId") @NotNull Long userId) {
-        log.info("Received request DELETE /films/{}/like/{}", id, userId);
+        log.debug("Received request DELETE /films/{}/like/{}", id, userId);
         final FilmDto filmWithoutLike = filmService.removeLike(id, userId);
-        log.info("Like was removed successfully from the film {}", filmWithoutLike);
+        log.debug("Like was removed successfully from the film {}", filmWithoutLike);
         return filmWithoutLike;
     }
 
     @DeleteMapping("/{id}")
     public void deleteById(@PathVariable("id") final Long id) {
-        log.info("Received request DELETE film/{}", id);
+        log.debug("Received request DELETE film/{}", id);
         filmService.removeById(id);
     }
 
@@ -150,7 +161,7 @@ public class FilmController {
     public List<FilmDto> getDirectorFilms(
             @PathVariable("directorId") @NotNull final Long id,
             @RequestParam final String sortBy) {
-        log.info("Received request GET /director/{}?sortBy={}", id, sortBy);
+        log.debug("Received request GET /director/{}?sortBy={}", id, sortBy);
         return filmService.getDirectorFilms(id, sortBy);
     }
 
@@ -174,9 +185,9 @@ public class FilmController {
       @RequestParam(name = "query") @NotBlank final String query,
       @RequestParam(name = "by", defaultValue = "director,title")
       @ValidBy(byOptions = {"title", "director"}) final String by) {
-    log.info("Received request GET films/search?query={}&by={}", query, by);
+    log.debug("Received request GET films/search?query={}&by={}", query, by);
     final List<FilmDto> searchResult = filmService.search(query, by);
-    log.info("Request search  query={} by={} processed successfully.", query, by);
+    log.debug("Request search  query={} by={} processed successfully.", query, by);
     return searchResult;
   }
 
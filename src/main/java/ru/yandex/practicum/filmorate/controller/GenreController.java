@@ -1,9 +1,9 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.constraints.NotNull;
-import java.util.List;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,27 +16,32 @@ import ru.yandex.practicum.filmorate.service.GenreService;
  * Controller class responsible for handling requests related to genres in the Filmorate
  * Application. Provides endpoints to retrieve genre information which can be associated with films.
  * All endpoints in this controller are relative to the base path {@code "/genres'}.
+ * <p> Genres are only written by the schema scripts, so responses are serialized once and served
+ * from a {@link JsonResponseCache} with strong ETags.
  */
 @Slf4j
 @RestController
 @RequestMapping("/genres")
 @Validated
-@RequiredArgsConstructor
 public class GenreController {
 
   private final GenreService genreService;
+  private final JsonResponseCache<String> responses;
+
+  public GenreController(final GenreService genreService, final ObjectMapper objectMapper) {
+    this.genreService = genreService;
+    this.responses = new JsonResponseCache<>(objectMapper);
+  }
 
   /**
    * Retrieves a list of all available genres. Handles GET request to the base path.
    *
-   * @return a list of {@link GenreDto} representing all genres.
+   * @return a JSON list of {@link GenreDto} representing all genres.
    */
   @GetMapping
-  public List<GenreDto> getAllGenres() {
-    log.info("Received GET /genres.");
-    return genreService.getAll()
-        .stream()
-        .toList();
+  public ResponseEntity<byte[]> getAllGenres() {
+    log.debug("Received GET /genres.");
+    return responses.get("/genres", genreService::getAll);
   }
 
   /**
@@ -44,11 +49,11 @@ public class GenreController {
    * "/genres/{id}".
    *
    * @param id - The ID of the genre to retrieve.
-   * @return a {@link GenreDto} representing the genre details.
+   * @return a JSON {@link GenreDto} representing the genre details.
    */
   @GetMapping("/{id}")
-  public GenreDto getGenre(@PathVariable("id") @NotNull final Long id) {
-    log.info("Received GET /genres/{}.", id);
-    return genreService.getById(id);
+  public ResponseEntity<byte[]> getGenre(@PathVariable("id") @NotNull final Long id) {
+    log.debug("Received GET /genres/{}.", id);
+    return responses.get("/genres/" + id, () -> genreService.getById(id));
   }
 }
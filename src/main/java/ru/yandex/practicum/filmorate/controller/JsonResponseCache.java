@@ -0,0 +1,73 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import ru.yandex.practicum.filmorate.exception.InternalServerException;
+
+/**
+ * A cache of pre-serialized JSON responses with strong ETags.
+ * <p>
+ * A response body is serialized once per key with the application {@link ObjectMapper} and served
+ * as a byte array afterwards, together with an ETag computed from the bytes. Spring answers
+ * requests carrying a matching {@code If-None-Match} header with {@code 304 Not Modified}. Bodies
+ * that fail to load are not cached. The responses are dropped by {@link #clear()} when the
+ * underlying data changes.
+ *
+ * @param <K> the type of the response keys
+ */
+public final class JsonResponseCache<K> {
+
+  private final ObjectMapper objectMapper;
+  private final Map<K, Rendered> responses = new ConcurrentHashMap<>();
+
+  public JsonResponseCache(final ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Retrieves the response for the key, serializing the loaded body when it is missing.
+   *
+   * @param key    the response key
+   * @param loader loads the response body
+   * @return the response with the serialized body and its ETag
+   */
+  public ResponseEntity<byte[]> get(final K key, final Supplier<?> loader) {
+    Rendered rendered = responses.get(key);
+    if (rendered == null) {
+      final Rendered loaded = render(loader.get());
+      rendered = responses.putIfAbsent(key, loaded);
+      if (rendered == null) {
+        rendered = loaded;
+      }
+    }
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .eTag(rendered.etag())
+        .body(rendered.body());
+  }
+
+  /**
+   * Drops all cached responses.
+   */
+  public void clear() {
+    responses.clear();
+  }
+
+  private Rendered render(final Object value) {
+    try {
+      final byte[] body = objectMapper.writeValueAsBytes(value);
+      return new Rendered(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+    } catch (JsonProcessingException e) {
+      throw new InternalServerException("Failed to serialize response: " + e.getMessage());
+    }
+  }
+
+  private record Rendered(byte[] body, String etag) {
+  }
+}
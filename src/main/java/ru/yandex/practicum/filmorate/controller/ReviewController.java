@@ -32,8 +32,10 @@ public class ReviewController {
 
     @GetMapping
     public Collection<ReviewDto> getReviewsByFilmId(@RequestParam(required = false) Long filmId,
-                                                    @RequestParam(defaultValue = "10") @Positive Integer count) {
-        return reviewService.getReviewsByFilmId(filmId, count);
+                                                    @RequestParam(defaultValue = "10") @Positive Integer count,
+                                                    @RequestParam(required = false) Integer afterUseful,
+                                                    @RequestParam(required = false) @Positive Long afterId) {
+        return reviewService.getReviewsByFilmId(filmId, count, afterUseful, afterId);
     }
 
     @GetMapping("/{id}")
@@ -8,6 +8,7 @@ import java.util.List;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,8 +16,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.yandex.practicum.filmorate.dto.EventDto;
 import ru.yandex.practicum.filmorate.dto.FilmDto;
 import ru.yandex.practicum.filmorate.dto.UserDto;
@@ -43,9 +48,9 @@ public class UserController {
    */
   @PostMapping
   public UserDto save(@Valid @RequestBody final UserDto user) {
-    log.info("Received request POST /users with body: {}", user);
+    log.debug("Received request POST /users with body: {}", user);
     final UserDto savedUser = userService.save(user);
-    log.info("User successfully added: {}", savedUser);
+    log.debug("User successfully added: {}", savedUser);
     return savedUser;
   }
 
@@ -57,9 +62,9 @@ public class UserController {
    */
   @PutMapping
   public UserDto update(@Valid @RequestBody final UserDto newUser) {
-    log.info("Received request PUT /users with body: {}", newUser);
+    log.debug("Received request PUT /users with body: {}", newUser);
     final UserDto updatedUser = userService.update(newUser);
-    log.info("User updated successfully: {}", updatedUser);
+    log.debug("User updated successfully: {}", updatedUser);
     return updatedUser;
   }
 
@@ -73,32 +78,42 @@ public class UserController {
   @PutMapping("/{id}/friends/{friendId}")
   public UserDto addFriend(@PathVariable("id") @NotNull final Long id,
       @PathVariable("friendId") @NotNull final Long friendId) {
-    log.info("Received request PUT users/{}/friends/{}", id, friendId);
+    log.debug("Received request PUT users/{}/friends/{}", id, friendId);
     final UserDto user = userService.addFriend(id, friendId);
-    log.info("Adding friend to the user is successful: {}", user);
+    log.debug("Adding friend to the user is successful: {}", user);
     return user;
   }
 
   /**
-   * Handles GET requests to retrieve all users.
+   * Handles GET requests to retrieve all users. Answers with 304 when the users have not changed
+   * since the version in the {@code If-None-Match} header.
    *
+   * @param request The current request.
    * @return a collection of all users
    */
   @GetMapping
-  public Collection<UserDto> getAll() {
-    log.info("Received request GET users");
+  public Collection<UserDto> getAll(final WebRequest request) {
+    log.debug("Received request GET users");
+    if (request.checkNotModified(VersionTags.etag(userService.getAllVersion()))) {
+      return null;
+    }
     return userService.getAll();
   }
 
   /**
    * Handles GET requests to retrieve friends of a user by their ID.
    *
-   * @param id The ID of the user whose friends are to be retrieved. Must not be null.
+   * @param id      The ID of the user whose friends are to be retrieved. Must not be null.
+   * @param request The current request.
    * @return The list of friends of the user with the specified ID.
    */
   @GetMapping("/{id}/friends")
-  public List<UserDto> getFriendsByUserId(@PathVariable @NotNull final Long id) {
-    log.info("Received request GET users/{}/friends", id);
+  public List<UserDto> getFriendsByUserId(@PathVariable @NotNull final Long id,
+      final WebRequest request) {
+    log.debug("Received request GET users/{}/friends", id);
+    if (request.checkNotModified(VersionTags.etag(userService.getFriendsVersion(id)))) {
+      return null;
+    }
     return userService.getUserFriends(id);
   }
 
@@ -112,7 +127,7 @@ public class UserController {
   @GetMapping("/{id}/friends/common/{otherId}")
   public List<UserDto> getMutualFriends(@PathVariable("id") @NotNull final Long id,
       @PathVariable("otherId") @NotNull final Long otherId) {
-    log.info("Received request GET users/{}/friends/common/{}", id, otherId);
+    log.debug("Received request GET users/{}/friends/common/{}", id, otherId);
     return userService.getMutualFriends(id, otherId);
   }
 
@@ -126,7 +141,7 @@ public class UserController {
   @DeleteMapping("/{id}/friends/{friendId}")
   public UserDto deleteFriend(@PathVariable("id") @NotNull final Long id,
       @PathVariable("friendId") @NotNull final Long friendId) {
-    log.info("Received request DELETE users/{}/friends/{}", id, friendId);
+    log.debug("Received request DELETE users/{}/friends/{}", id, friendId);
     return userService.removeFriend(id, friendId);
   }
 
@@ -137,19 +152,23 @@ public class UserController {
    */
   @DeleteMapping("/{id}")
   public void deleteById(@PathVariable final Long id) {
-    log.info("Received request DELETE user/{}", id);
+    log.debug("Received request DELETE user/{}", id);
     userService.removeById(id);
   }
 
   /**
    * Handles GET requests to retrieve a user by their ID.
    *
-   * @param id The ID of the user to be retrieved.
+   * @param id      The ID of the user to be retrieved.
+   * @param request The current request.
    * @return The user with the specified ID.
    */
   @GetMapping("/{id}")
-  public UserDto getUserById(@PathVariable final long id) {
-    log.info("Received request GET user/{}", id);
+  public UserDto getUserById(@PathVariable final long id, final WebRequest request) {
+    log.debug("Received request GET user/{}", id);
+    if (request.checkNotModified(VersionTags.etag(userService.getVersion(id)))) {
+      return null;
+    }
     return userService.getById(id);
   }
 
@@ -162,7 +181,7 @@ public class UserController {
    */
   @GetMapping("/{id}/recommendations")
   public Collection<FilmDto> getUserRecommendations(@PathVariable final long id) {
-    log.info("Received request GET user/{}/recommendations", id);
+    log.debug("Received request GET user/{}/recommendations", id);
     return userService.getUserRecommendations(id);
   }
 
@@ -176,7 +195,41 @@ public class UserController {
 
   @GetMapping("/{id}/feed")
   public List<EventDto> getFeed(@PathVariable("id") @NotNull @Positive final Long id) {
-    log.info("Receiver request GET users/{}/feed", id);
+    log.debug("Receiver request GET users/{}/feed", id);
     return userService.getFeed(id);
   }
+
+  /**
+   * Handles GET requests to retrieve the friends-activity timeline for a user.
+   *
+   * @param id    the ID of the user whose timeline is to be retrieved, must be positive
+   * @param count the number of the newest events to return, defaults to 10
+   * @return a list of events of the user's friends ordered from the newest to the oldest
+   */
+  @GetMapping("/{id}/feed/friends")
+  public List<EventDto> getFriendsFeed(@PathVariable("id") @NotNull @Positive final Long id,
+      @RequestParam(defaultValue = "10") @Positive final Integer count) {
+    log.debug("Received request GET users/{}/feed/friends?count={}", id, count);
+    return userService.getFriendsFeed(id, count);
+  }
+
+  /**
+   * Handles GET requests to open a live stream of the user's new events as server-sent events.
+   * Every event is sent with its ID, so a reconnecting client resumes the stream after the last
+   * received event instead of replaying the whole feed.
+   *
+   * @param id               the ID of the user whose feed is to be streamed, must be positive
+   * @param lastEventIdParam the ID of the last event received by the client, optional
+   * @param lastEventId      the standard {@code Last-Event-ID} header sent by reconnecting
+   *                         clients, optional and used when the request parameter is absent
+   * @return the emitter streaming the user's events
+   */
+  @GetMapping(value = "/{id}/feed/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamFeed(@PathVariable("id") @NotNull @Positive final Long id,
+      @RequestParam(name = "lastEventId", required = false) final Long lastEventIdParam,
+      @RequestHeader(name = "Last-Event-ID", required = false) final Long lastEventId) {
+    log.debug("Received request GET users/{}/feed/stream, lastEventId={}", id,
+        lastEventIdParam != null ? lastEventIdParam : lastEventId);
+    return userService.streamFeed(id, lastEventIdParam != null ? lastEventIdParam : lastEventId);
+  }
 }
@@ -0,0 +1,19 @@
+package ru.yandex.practicum.filmorate.controller;
+
+/**
+ * Builds ETags from entity versions.
+ * <p>
+ * A version tag only identifies the state of the stored data, not the exact response bytes, so the
+ * tags are weak. Controllers check the tag with
+ * {@link org.springframework.web.context.request.WebRequest#checkNotModified(String)} before
+ * loading the entity and return no body when it matches.
+ */
+final class VersionTags {
+
+  private VersionTags() {
+  }
+
+  static String etag(final String version) {
+    return "W/\"" + version + "\"";
+  }
+}
@@ -55,4 +55,6 @@ public class FilmDto {
 
     private final Set<Long> likes = new HashSet<>();
     private final Set<Director> directors = new HashSet<>();
+
+    private Long version;
 }
@@ -14,4 +14,5 @@ public class ReviewDto {
     private Long userId;
     private Long filmId;
     private Integer useful;
+    private Long version;
 }
@@ -19,4 +19,5 @@ public class ReviewRequest {
     private Long userId;
     @NotNull(message = "Идентификатор фильма не должен быть пустым")
     private Long filmId;
+    private Long version;
 }
@@ -40,4 +40,6 @@ public class UserDto {
 
   private final Set<Long> friends = new HashSet<>();
 
+  private Long version;
+
 }
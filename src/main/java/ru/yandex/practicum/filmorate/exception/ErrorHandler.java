@@ -29,6 +29,12 @@ public class ErrorHandler {
     return new ErrorResponse(e.getMessage());
   }
 
+  @ExceptionHandler
+  @ResponseStatus(HttpStatus.CONFLICT)
+  public ErrorResponse handlerConflictException(final ConflictException e) {
+    return new ErrorResponse(e.getMessage());
+  }
+
   @ExceptionHandler
   @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
   public ErrorResponse handlerInternalServerException(final InternalServerException e) {
@@ -0,0 +1,208 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logger of the storage and service layers, which allocates nothing for a disabled level.
+ * <p>
+ * SLF4J defers formatting, so arguments are rendered with {@code toString()} only when the level
+ * is enabled, but calls with more than two arguments still build a varargs array and primitive
+ * arguments are boxed before the level is checked, and Logback builds an argument array for its
+ * turbo filters before checking the level too. Trace, debug and info methods of this logger check
+ * the level first, with fixed-arity methods for up to four arguments and a {@code long} method for
+ * a single identifier. Warnings and errors are always enabled and are delegated to SLF4J as is.
+ * <p>
+ * Classes declare the logger with Lombok's {@code @CustomLog}, see {@code lombok.config}.
+ */
+public final class GuardedLogger {
+
+  private final Logger logger;
+
+  GuardedLogger(final Logger logger) {
+    this.logger = logger;
+  }
+
+  /**
+   * Returns the logger named after the class.
+   *
+   * @param type the class logging
+   * @return the logger
+   */
+  public static GuardedLogger of(final Class<?> type) {
+    return new GuardedLogger(LoggerFactory.getLogger(type));
+  }
+
+  public boolean isTraceEnabled() {
+    return logger.isTraceEnabled();
+  }
+
+  public boolean isDebugEnabled() {
+    return logger.isDebugEnabled();
+  }
+
+  public boolean isInfoEnabled() {
+    return logger.isInfoEnabled();
+  }
+
+  public void trace(final String format) {
+    if (logger.isTraceEnabled()) {
+      logger.trace(format);
+    }
+  }
+
+  public void trace(final String format, final Object arg) {
+    if (logger.isTraceEnabled()) {
+      logger.trace(format, arg);
+    }
+  }
+
+  public void trace(final String format, final long arg) {
+    if (logger.isTraceEnabled()) {
+      logger.trace(format, arg);
+    }
+  }
+
+  public void trace(final String format, final Object arg1, final Object arg2) {
+    if (logger.isTraceEnabled()) {
+      logger.trace(format, arg1, arg2);
+    }
+  }
+
+  public void trace(final String format, final Object arg1, final Object arg2, final Object arg3) {
+    if (logger.isTraceEnabled()) {
+      logger.trace(format, arg1, arg2, arg3);
+    }
+  }
+
+  public void trace(final String format, final Object arg1, final Object arg2, final Object arg3,
+      final Object arg4) {
+    if (logger.isTraceEnabled()) {
+      logger.trace(format, arg1, arg2, arg3, arg4);
+    }
+  }
+
+  public void trace(final String format, final Object... args) {
+    if (logger.isTraceEnabled()) {
+      logger.trace(format, args);
+    }
+  }
+
+  public void debug(final String format) {
+    if (logger.isDebugEnabled()) {
+      logger.debug(format);
+    }
+  }
+
+  public void debug(final String format, final Object arg) {
+    if (logger.isDebugEnabled()) {
+      logger.debug(format, arg);
+    }
+  }
+
+  public void debug(final String format, final long arg) {
+    if (logger.isDebugEnabled()) {
+      logger.debug(format, arg);
+    }
+  }
+
+  public void debug(final String format, final Object arg1, final Object arg2) {
+    if (logger.isDebugEnabled()) {
+      logger.debug(format, arg1, arg2);
+    }
+  }
+
+  public void debug(final String format, final Object arg1, final Object arg2, final Object arg3) {
+    if (logger.isDebugEnabled()) {
+      logger.debug(format, arg1, arg2, arg3);
+    }
+  }
+
+  public void debug(final String format, final Object arg1, final Object arg2, final Object arg3,
+      final Object arg4) {
+    if (logger.isDebugEnabled()) {
+      logger.debug(format, arg1, arg2, arg3, arg4);
+    }
+  }
+
+  public void debug(final String format, final Object... args) {
+    if (logger.isDebugEnabled()) {
+      logger.debug(format, args);
+    }
+  }
+
+  public void info(final String format) {
+    if (logger.isInfoEnabled()) {
+      logger.info(format);
+    }
+  }
+
+  public void info(final String format, final Object arg) {
+    if (logger.isInfoEnabled()) {
+      logger.info(format, arg);
+    }
+  }
+
+  public void info(final String format, final long arg) {
+    if (logger.isInfoEnabled()) {
+      logger.info(format, arg);
+    }
+  }
+
+  public void info(final String format, final Object arg1, final Object arg2) {
+    if (logger.isInfoEnabled()) {
+      logger.info(format, arg1, arg2);
+    }
+  }
+
+  public void info(final String format, final Object arg1, final Object arg2, final Object arg3) {
+    if (logger.isInfoEnabled()) {
+      logger.info(format, arg1, arg2, arg3);
+    }
+  }
+
+  public void info(final String format, final Object arg1, final Object arg2, final Object arg3,
+      final Object arg4) {
+    if (logger.isInfoEnabled()) {
+      logger.info(format, arg1, arg2, arg3, arg4);
+    }
+  }
+
+  public void info(final String format, final Object... args) {
+    if (logger.isInfoEnabled()) {
+      logger.info(format, args);
+    }
+  }
+
+  public void warn(final String format) {
+    logger.warn(format);
+  }
+
+  public void warn(final String format, final Object arg) {
+    logger.warn(format, arg);
+  }
+
+  public void warn(final String format, final Object arg1, final Object arg2) {
+    logger.warn(format, arg1, arg2);
+  }
+
+  public void warn(final String format, final Object... args) {
+    logger.warn(format, args);
+  }
+
+  public void error(final String format) {
+    logger.error(format);
+  }
+
+  public void error(final String format, final Object arg) {
+    logger.error(format, arg);
+  }
+
+  public void error(final String format, final Object arg1, final Object arg2) {
+    logger.error(format, arg1, arg2);
+  }
+
+  public void error(final String format, final Object... args) {
+    logger.error(format, args);
+  }
+}
@@ -0,0 +1,31 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import java.util.function.Predicate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.zalando.logbook.HttpRequest;
+
+/**
+ * Configuration of HTTP traffic logging.
+ * <p>
+ * Logbook logs at {@code TRACE} level and does nothing when the level of the
+ * {@code org.zalando.logbook} logger is higher, so traffic logging is switched per profile by the
+ * log level. Excluded paths and the body size cap are set by the {@code logbook.*} properties,
+ * sampling rates by the {@code filmorate.logbook.*} ones, and log events are written by the
+ * asynchronous appender of {@code logback-spring.xml}.
+ */
+@Configuration
+public class LogbookConfiguration {
+
+  /**
+   * Replaces the default condition of Logbook, which accepts every request. Includes and
+   * excludes of the {@code logbook.predicate} properties are still applied.
+   */
+  @Bean
+  public Predicate<HttpRequest> requestCondition(
+      @Value("${filmorate.logbook.sample-rate:1.0}") final double sampleRate,
+      @Value("${filmorate.logbook.sample-rates:}") final String sampleRates) {
+    return new SampledRequestCondition(sampleRate, sampleRates);
+  }
+}
@@ -0,0 +1,74 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import org.springframework.util.AntPathMatcher;
+import org.zalando.logbook.HttpRequest;
+
+/**
+ * Samples the requests logged by Logbook.
+ * <p>
+ * A request is logged with the rate of the first path pattern it matches, or with the default
+ * rate. Requests, which are not sampled, are neither buffered nor formatted. Rates are written as
+ * {@code pattern=rate} pairs separated by commas, e.g. {@code /films/**=0.05,/users/**=0.2}, with
+ * Ant-style patterns and rates from {@code 0} to {@code 1}.
+ */
+public class SampledRequestCondition implements Predicate<HttpRequest> {
+
+  private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+  private final double defaultRate;
+  private final Map<String, Double> rates;
+
+  /**
+   * Creates the condition.
+   *
+   * @param defaultRate the rate of requests matching no pattern
+   * @param rates       the rates by path pattern, e.g. {@code /films/**=0.05,/users/**=0.2}
+   * @throws IllegalArgumentException if a rate is malformed or out of range
+   */
+  public SampledRequestCondition(final double defaultRate, final String rates) {
+    this.defaultRate = checkRate(defaultRate);
+    this.rates = parseRates(rates);
+  }
+
+  @Override
+  public boolean test(final HttpRequest request) {
+    final double rate = rateOf(request.getPath());
+    return rate >= 1 || rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+  }
+
+  double rateOf(final String path) {
+    for (final Map.Entry<String, Double> rate : rates.entrySet()) {
+      if (MATCHER.match(rate.getKey(), path)) {
+        return rate.getValue();
+      }
+    }
+    return defaultRate;
+  }
+
+  private static Map<String, Double> parseRates(final String rates) {
+    final Map<String, Double> parsed = new LinkedHashMap<>();
+    for (final String entry : rates.split(",")) {
+      if (entry.isBlank()) {
+        continue;
+      }
+      final int separator = entry.lastIndexOf('=');
+      if (separator < 0) {
+        throw new IllegalArgumentException("Expected pattern=rate, got " + entry);
+      }
+      parsed.put(entry.substring(0, separator).strip(),
+          checkRate(Double.parseDouble(entry.substring(separator + 1).strip())));
+    }
+    return parsed;
+  }
+
+  private static double checkRate(final double rate) {
+    if (rate < 0 || rate > 1) {
+      throw new IllegalArgumentException("Sample rate must be from 0 to 1, got " + rate);
+    }
+    return rate;
+  }
+}
@@ -21,6 +21,7 @@ public class FilmMapper {
         .releaseDate(filmDto.getReleaseDate())
         .duration(filmDto.getDuration())
         .mpa(filmDto.getMpa())
+        .version(filmDto.getVersion())
         .build();
     filmDto.getGenres().forEach(genreId -> film.getGenres().add(genreId));
     filmDto.getLikes().forEach(userId -> film.getLikes().add(userId));
@@ -39,6 +40,7 @@ public class FilmMapper {
         .releaseDate(film.getReleaseDate())
         .duration(film.getDuration())
         .mpa(film.getMpa())
+        .version(film.getVersion())
         .build();
     film.getGenres().forEach(genreId -> filmDto.getGenres().add(genreId));
     film.getLikes().forEach(userId -> filmDto.getLikes().add(userId));
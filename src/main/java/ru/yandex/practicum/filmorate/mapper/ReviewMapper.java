@@ -1,27 +1,28 @@
 package ru.yandex.practicum.filmorate.mapper;
 
+import lombok.CustomLog;
 import lombok.experimental.UtilityClass;
-import lombok.extern.slf4j.Slf4j;
 import ru.yandex.practicum.filmorate.dto.ReviewDto;
 import ru.yandex.practicum.filmorate.dto.ReviewRequest;
 import ru.yandex.practicum.filmorate.model.Review;
 
-@Slf4j
+@CustomLog
 @UtilityClass
 public class ReviewMapper {
     public Review mapToReview(ReviewRequest request) {
         if (request == null) {
             return null;
         }
-        log.info("ReviewRequest в маппер: {}", request);
+        log.debug("ReviewRequest в маппер: {}", request);
         Review review = Review.builder()
                 .reviewId(request.getReviewId())
                 .content(request.getContent())
                 .isPositive(request.getIsPositive())
                 .userId(request.getUserId())
                 .filmId(request.getFilmId())
+                .version(request.getVersion())
                 .build();
-        log.info("Review из маппера: {}", review);
+        log.debug("Review из маппера: {}", review);
         return review;
     }
 
@@ -29,7 +30,7 @@ public class ReviewMapper {
         if (review == null) {
             return null;
         }
-        log.info("Review в маппер: {}", review);
+        log.debug("Review в маппер: {}", review);
         ReviewDto reviewDto = ReviewDto.builder()
                 .reviewId(review.getReviewId())
                 .content(review.getContent())
@@ -37,8 +38,9 @@ public class ReviewMapper {
                 .userId(review.getUserId())
                 .filmId(review.getFilmId())
                 .useful(review.getUseful())
+                .version(review.getVersion())
                 .build();
-        log.info("ReviewDto из маппера: {}", reviewDto);
+        log.debug("ReviewDto из маппера: {}", reviewDto);
         return reviewDto;
     }
 }
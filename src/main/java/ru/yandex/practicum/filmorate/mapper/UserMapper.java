@@ -25,6 +25,7 @@ public class UserMapper {
             .email(userDto.getEmail())
             .birthday(userDto.getBirthday())
             .id(userDto.getId())
+            .version(userDto.getVersion())
             .build();
   }
 
@@ -38,6 +39,7 @@ public class UserMapper {
         .login(user.getLogin())
         .name(user.getName())
         .birthday(user.getBirthday())
+        .version(user.getVersion())
         .build();
     user.getFriends().forEach(id -> userDto.getFriends().add(id));
     return userDto;
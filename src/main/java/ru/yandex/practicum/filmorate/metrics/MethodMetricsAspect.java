@@ -0,0 +1,79 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the storages and the services.
+ * <p>
+ * Calls are recorded by the {@value #STORAGE_METRIC} and {@value #SERVICE_METRIC} timers, tagged
+ * with the class and the method, and failed calls are also counted by the {@code .errors}
+ * counters, tagged with the exception. Percentile histograms are enabled for the timers by the
+ * {@code management.metrics.distribution} properties, so latency percentiles can be aggregated
+ * across instances from the Prometheus endpoint.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "filmorate.metrics.methods.enabled", havingValue = "true",
+    matchIfMissing = true)
+public class MethodMetricsAspect {
+
+  public static final String STORAGE_METRIC = "filmorate.storage";
+  public static final String SERVICE_METRIC = "filmorate.service";
+
+  private final MeterRegistry registry;
+  private final Map<MethodKey, Timer> timers = new ConcurrentHashMap<>();
+
+  public MethodMetricsAspect(final MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Around("execution(public * ru.yandex.practicum.filmorate.storage.*Storage+.*(..))")
+  public Object timeStorage(final ProceedingJoinPoint joinPoint) throws Throwable {
+    return time(STORAGE_METRIC, joinPoint);
+  }
+
+  @Around("execution(public * ru.yandex.practicum.filmorate.service.*Service+.*(..))")
+  public Object timeService(final ProceedingJoinPoint joinPoint) throws Throwable {
+    return time(SERVICE_METRIC, joinPoint);
+  }
+
+  private Object time(final String metric, final ProceedingJoinPoint joinPoint) throws Throwable {
+    final MethodKey key = new MethodKey(joinPoint.getTarget().getClass(),
+        ((MethodSignature) joinPoint.getSignature()).getMethod());
+    final long start = System.nanoTime();
+    try {
+      return joinPoint.proceed();
+    } catch (final Throwable e) {
+      Counter.builder(metric + ".errors")
+          .description("Failed calls")
+          .tag("class", key.type().getSimpleName())
+          .tag("method", key.method().getName())
+          .tag("exception", e.getClass().getSimpleName())
+          .register(registry)
+          .increment();
+      throw e;
+    } finally {
+      timers.computeIfAbsent(key, ignored -> Timer.builder(metric)
+              .description("Calls")
+              .tag("class", key.type().getSimpleName())
+              .tag("method", key.method().getName())
+              .register(registry))
+          .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private record MethodKey(Class<?> type, Method method) {
+  }
+}
@@ -0,0 +1,123 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.InternalServerException;
+import ru.yandex.practicum.filmorate.storage.dao.EventDbStorage;
+import ru.yandex.practicum.filmorate.storage.dao.FilmDbStorage;
+import ru.yandex.practicum.filmorate.storage.dao.ReviewDbStorage;
+import ru.yandex.practicum.filmorate.storage.dao.UserDbStorage;
+
+/**
+ * Execution plans of the named queries of the DB storages.
+ * <p>
+ * The queries are the {@code static final String} constants of the storages, named
+ * {@code Storage.CONSTANT}. They are explained by the database with all parameters unbound and
+ * {@code %s} placeholders of queries built at runtime replaced by a single parameter. Constants,
+ * which are fragments of queries, cannot be explained and are reported with the error.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryPlans {
+
+  private static final List<Class<?>> STORAGES = List.of(FilmDbStorage.class,
+      UserDbStorage.class, ReviewDbStorage.class, EventDbStorage.class);
+  private static final Pattern SCANNED_TABLE =
+      Pattern.compile("\"PUBLIC\"\\.\"(\\w+)\"(?: \"?\\w+\"?)?\\s*/\\* PUBLIC\\.(\\w+)(:?)[^*]*\\*/");
+
+  private final JdbcTemplate jdbc;
+
+  /**
+   * Explains all named queries.
+   *
+   * @return the plans by query name, in the order of declaration
+   */
+  public Map<String, QueryPlan> explainAll() {
+    final Map<String, QueryPlan> plans = new LinkedHashMap<>();
+    namedQueries().forEach((name, sql) -> plans.put(name, explain(name, sql)));
+    return plans;
+  }
+
+  /**
+   * Explains a named query.
+   *
+   * @param name the name of the query, e.g. {@code FilmDbStorage.FIND_BY_ID}
+   * @return the plan, or empty if there is no such query
+   */
+  public Optional<QueryPlan> explain(final String name) {
+    return Optional.ofNullable(namedQueries().get(name)).map(sql -> explain(name, sql));
+  }
+
+  static Map<String, String> namedQueries() {
+    final Map<String, String> queries = new LinkedHashMap<>();
+    for (final Class<?> storage : STORAGES) {
+      for (final Field field : storage.getDeclaredFields()) {
+        final int modifiers = field.getModifiers();
+        if (field.getType() == String.class && Modifier.isStatic(modifiers)
+            && Modifier.isFinal(modifiers)) {
+          queries.put(storage.getSimpleName() + "." + field.getName(), read(field));
+        }
+      }
+    }
+    return queries;
+  }
+
+  private QueryPlan explain(final String name, final String sql) {
+    final String query = sql.replace("%s", "?");
+    try {
+      final String plan = jdbc.query("EXPLAIN " + query, rs -> rs.next() ? rs.getString(1) : "");
+      return new QueryPlan(name, query, plan, null, fullScans(plan));
+    } catch (DataAccessException e) {
+      return new QueryPlan(name, query, null, e.getMostSpecificCause().getMessage(), Set.of());
+    }
+  }
+
+  /**
+   * Finds the tables read without an index condition: by a table scan, or by a scan of a whole
+   * index.
+   */
+  static Set<String> fullScans(final String plan) {
+    final Set<String> tables = new LinkedHashSet<>();
+    final Matcher matcher = SCANNED_TABLE.matcher(plan);
+    while (matcher.find()) {
+      if (matcher.group(3).isEmpty()) {
+        tables.add(matcher.group(1).toLowerCase());
+      }
+    }
+    return tables;
+  }
+
+  private static String read(final Field field) {
+    try {
+      field.setAccessible(true);
+      return (String) field.get(null);
+    } catch (IllegalAccessException e) {
+      throw new InternalServerException("Cannot read the query " + field.getName() + ".");
+    }
+  }
+
+  /**
+   * The plan of a named query.
+   *
+   * @param name      the name of the query
+   * @param sql       the explained SQL
+   * @param plan      the plan, or null if the query cannot be explained
+   * @param error     the reason the query cannot be explained, or null
+   * @param fullScans the tables read without an index condition
+   */
+  public record QueryPlan(String name, String sql, String plan, String error,
+      Set<String> fullScans) {
+  }
+}
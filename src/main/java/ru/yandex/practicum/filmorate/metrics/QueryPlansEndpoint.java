@@ -0,0 +1,33 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@code queryplans} Actuator endpoint: {@code GET /actuator/queryplans} explains all named
+ * queries of the DB storages against the current data, and
+ * {@code GET /actuator/queryplans/FilmDbStorage.FIND_BY_ID} explains one of them.
+ *
+ * @see QueryPlans
+ */
+@Component
+@Endpoint(id = "queryplans")
+@RequiredArgsConstructor
+public class QueryPlansEndpoint {
+
+  private final QueryPlans queryPlans;
+
+  @ReadOperation
+  public Map<String, QueryPlans.QueryPlan> plans() {
+    return queryPlans.explainAll();
+  }
+
+  @ReadOperation
+  public QueryPlans.QueryPlan plan(@Selector final String name) {
+    return queryPlans.explain(name).orElse(null);
+  }
+}
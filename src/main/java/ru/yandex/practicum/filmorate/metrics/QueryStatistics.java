@@ -0,0 +1,142 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.BaseRepository;
+
+/**
+ * Rolling statistics of the SQL statements executed by the {@link BaseRepository} helpers.
+ * <p>
+ * Statements are grouped by their shape: the SQL with the whitespace collapsed and the lists of
+ * parameters or literals, e.g. {@code IN (?, ?, ?)}, replaced by {@code (...)}, so a query built
+ * for a varying number of IDs is counted once. For every shape the number of executions, the
+ * total and the maximum time and the number of rows returned or affected are kept. Statements
+ * slower than the threshold are logged with their bound parameters.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "filmorate.query.statistics.enabled", havingValue = "true",
+    matchIfMissing = true)
+public class QueryStatistics {
+
+  private static final Pattern VALUE_LIST =
+      Pattern.compile("\\(\\s*(?:\\?|-?\\d+)(?:\\s*,\\s*(?:\\?|-?\\d+))*\\s*\\)");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final int MAX_CACHED_QUERIES = 1000;
+
+  private final long slowThresholdNanos;
+  private final Map<String, ShapeStatistics> byShape = new ConcurrentHashMap<>();
+  private final Map<String, ShapeStatistics> byQuery = new ConcurrentHashMap<>();
+
+  public QueryStatistics(
+      @Value("${filmorate.query.slow-threshold:PT0.1S}") final Duration slowThreshold) {
+    this.slowThresholdNanos = slowThreshold.toNanos();
+  }
+
+  /**
+   * Records an executed statement.
+   *
+   * @param query  the SQL of the statement
+   * @param params the bound parameters
+   * @param nanos  the execution time in nanoseconds
+   * @param rows   the number of rows returned or affected
+   */
+  public void record(final String query, final Object[] params, final long nanos,
+      final int rows) {
+    statisticsOf(query).record(nanos, rows);
+    if (nanos >= slowThresholdNanos) {
+      log.warn("Slow query took {} ms and returned {} rows: {} with parameters: {}",
+          nanos / 1_000_000, rows, query, Arrays.toString(params));
+    }
+  }
+
+  /**
+   * Reads the statistics of all statement shapes.
+   *
+   * @return the statistics, the shapes taking the most total time first
+   */
+  public List<ShapeSnapshot> snapshot() {
+    return byShape.entrySet().stream()
+        .map(entry -> entry.getValue().snapshot(entry.getKey()))
+        .sorted(Comparator.comparingDouble(ShapeSnapshot::totalMillis).reversed())
+        .toList();
+  }
+
+  /**
+   * Drops the collected statistics.
+   */
+  public void reset() {
+    byQuery.clear();
+    byShape.clear();
+  }
+
+  static String shapeOf(final String query) {
+    return WHITESPACE.matcher(VALUE_LIST.matcher(query.strip()).replaceAll("(...)"))
+        .replaceAll(" ");
+  }
+
+  /**
+   * Finds the statistics of the query. Shapes of constant queries are cached by their SQL, so the
+   * SQL is normalized once; queries built at runtime are normalized on every execution once the
+   * cache is full.
+   */
+  private ShapeStatistics statisticsOf(final String query) {
+    final ShapeStatistics cached = byQuery.get(query);
+    if (cached != null) {
+      return cached;
+    }
+    final ShapeStatistics statistics =
+        byShape.computeIfAbsent(shapeOf(query), shape -> new ShapeStatistics());
+    if (byQuery.size() < MAX_CACHED_QUERIES) {
+      byQuery.put(query, statistics);
+    }
+    return statistics;
+  }
+
+  /**
+   * The statistics of a statement shape.
+   *
+   * @param shape       the normalized SQL
+   * @param count       the number of executions
+   * @param totalMillis the total execution time in milliseconds
+   * @param meanMillis  the mean execution time in milliseconds
+   * @param maxMillis   the maximum execution time in milliseconds
+   * @param rows        the total number of rows returned or affected
+   */
+  public record ShapeSnapshot(String shape, long count, double totalMillis, double meanMillis,
+      double maxMillis, long rows) {
+  }
+
+  private static final class ShapeStatistics {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder rows = new LongAdder();
+
+    private void record(final long nanos, final int rowCount) {
+      count.increment();
+      totalNanos.add(nanos);
+      maxNanos.accumulate(nanos);
+      rows.add(rowCount);
+    }
+
+    private ShapeSnapshot snapshot(final String shape) {
+      final long executions = count.sum();
+      final double totalMillis = totalNanos.sum() / 1e6;
+      return new ShapeSnapshot(shape, executions, totalMillis,
+          executions == 0 ? 0 : totalMillis / executions, maxNanos.get() / 1e6, rows.sum());
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@code queries} Actuator endpoint: {@code GET /actuator/queries} lists the statistics of
+ * the statement shapes, the most expensive first, and {@code DELETE} resets them.
+ *
+ * @see QueryStatistics
+ */
+@Component
+@Endpoint(id = "queries")
+@ConditionalOnProperty(name = "filmorate.query.statistics.enabled", havingValue = "true",
+    matchIfMissing = true)
+@RequiredArgsConstructor
+public class QueryStatisticsEndpoint {
+
+  private final QueryStatistics statistics;
+
+  @ReadOperation
+  public List<QueryStatistics.ShapeSnapshot> queries() {
+    return statistics.snapshot();
+  }
+
+  @DeleteOperation
+  public void reset() {
+    statistics.reset();
+  }
+}
@@ -0,0 +1,110 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Counts the SQL statements issued while handling a request.
+ * <p>
+ * The count is recorded by the {@value #METRIC} distribution summary, tagged with the method and
+ * the URI pattern, and a request issuing more statements than the threshold is logged, which
+ * points at N+1 query patterns. When enabled, e.g. outside production, the count is also sent in
+ * the {@value #HEADER} response header, set before the body is written.
+ *
+ * @see StatementCounter
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "filmorate.request.statements.enabled", havingValue = "true",
+    matchIfMissing = true)
+public class StatementCountFilter extends OncePerRequestFilter {
+
+  public static final String METRIC = "filmorate.request.statements";
+  public static final String HEADER = "X-Statement-Count";
+
+  private final MeterRegistry registry;
+  private final int warnThreshold;
+  private final boolean header;
+
+  public StatementCountFilter(final MeterRegistry registry,
+      @Value("${filmorate.request.statements.warn-threshold:20}") final int warnThreshold,
+      @Value("${filmorate.request.statements.header:true}") final boolean header) {
+    this.registry = registry;
+    this.warnThreshold = warnThreshold;
+    this.header = header;
+  }
+
+  @Override
+  protected void doFilterInternal(final HttpServletRequest request,
+      final HttpServletResponse response, final FilterChain filterChain)
+      throws ServletException, IOException {
+    StatementCounter.start();
+    try {
+      filterChain.doFilter(request, header ? new CountingResponse(response) : response);
+    } finally {
+      final int statements = StatementCounter.stop();
+      if (header && !response.isCommitted() && !response.containsHeader(HEADER)) {
+        response.setIntHeader(HEADER, statements);
+      }
+      record(request, statements);
+    }
+  }
+
+  private void record(final HttpServletRequest request, final int statements) {
+    final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    final String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+    DistributionSummary.builder(METRIC)
+        .description("SQL statements per request")
+        .tag("method", request.getMethod())
+        .tag("uri", uri)
+        .register(registry)
+        .record(statements);
+    if (statements > warnThreshold) {
+      log.warn("Request {} {} issued {} SQL statements, more than {}", request.getMethod(),
+          request.getRequestURI(), statements, warnThreshold);
+    }
+  }
+
+  /**
+   * Sets the statement count header when the body is about to be written, as the response may be
+   * committed by the time the filter chain returns.
+   */
+  private static final class CountingResponse extends HttpServletResponseWrapper {
+
+    private CountingResponse(final HttpServletResponse response) {
+      super(response);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      setCountHeader();
+      return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      setCountHeader();
+      return super.getWriter();
+    }
+
+    private void setCountHeader() {
+      if (!isCommitted()) {
+        setIntHeader(HEADER, StatementCounter.current());
+      }
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import ru.yandex.practicum.filmorate.storage.BaseRepository;
+
+/**
+ * Counts the SQL statements executed by the {@link BaseRepository} helpers on the current thread
+ * while a count is started, e.g. while a request is handled.
+ *
+ * @see StatementCountFilter
+ */
+public final class StatementCounter {
+
+  private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+  private StatementCounter() {
+  }
+
+  /**
+   * Counts a statement, if a count is started on the current thread.
+   */
+  public static void increment() {
+    final int[] count = COUNT.get();
+    if (count != null) {
+      count[0]++;
+    }
+  }
+
+  /**
+   * Reads the number of statements counted so far.
+   *
+   * @return the number of statements, or {@code 0} when no count is started
+   */
+  public static int current() {
+    final int[] count = COUNT.get();
+    return count == null ? 0 : count[0];
+  }
+
+  static void start() {
+    COUNT.set(new int[1]);
+  }
+
+  static int stop() {
+    final int count = current();
+    COUNT.remove();
+    return count;
+  }
+}
@@ -74,4 +74,6 @@ public class Film {
    */
   private final Set<Long> likes = new HashSet<>();
   private final Set<Director> directors = new HashSet<>();
+
+  private Long version;
 }
@@ -14,4 +14,13 @@ public class Review {
     private Long userId;
     private Long filmId;
     private Integer useful;
+    private Long version;
+
+    /**
+     * Возвращает рейтинг после оценки score. Если skipZero и оценка обнулила бы рейтинг, она
+     * перескакивает 0.
+     */
+    public static int addScore(int useful, int score, boolean skipZero) {
+        return skipZero && useful + score == 0 ? useful + 2 * score : useful + score;
+    }
 }
@@ -56,4 +56,6 @@ public class User {
    */
   private final Set<Long> friends = new HashSet<>();
 
+  private Long version;
+
 }
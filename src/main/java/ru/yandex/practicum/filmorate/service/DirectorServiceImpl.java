@@ -1,7 +1,7 @@
 package ru.yandex.practicum.filmorate.service;
 
 import java.util.List;
-import lombok.extern.slf4j.Slf4j;
+import lombok.CustomLog;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import ru.yandex.practicum.filmorate.dto.DirectorDto;
@@ -32,7 +32,7 @@ import ru.yandex.practicum.filmorate.storage.dao.DirectorDbStorage;
  * @see Storage
  * @see DirectorDbStorage
  */
-@Slf4j
+@CustomLog
 @Service
 public class DirectorServiceImpl implements DirectorService {
 
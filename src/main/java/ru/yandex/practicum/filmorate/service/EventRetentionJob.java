@@ -0,0 +1,146 @@
+package ru.yandex.practicum.filmorate.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.CustomLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.model.EventType;
+import ru.yandex.practicum.filmorate.model.Operation;
+import ru.yandex.practicum.filmorate.storage.EventStorage;
+
+/**
+ * A background job applying the event retention policy.
+ * <p>
+ * Events older than the configured retention period are moved from the feed to the archive in
+ * batches, so feed queries only touch the recent events. While archiving, an {@link Operation#ADD}
+ * event followed by a {@link Operation#REMOVE} event on the same entity is collapsed: both events,
+ * and the updates between them, are deleted instead of being archived. An ADD event still waiting
+ * for its REMOVE is carried over to the next batch, with its updates, so a pair split by a batch
+ * boundary is collapsed as well. At most {@code max-open-segments} of them are carried, the oldest
+ * ones are archived beyond that, and the rest are archived at the end of the run.
+ *
+ * @see EventStorage
+ */
+@Component
+@CustomLog
+@ConditionalOnProperty(name = "filmorate.event.retention.enabled", havingValue = "true")
+public class EventRetentionJob {
+
+  private final EventStorage eventStorage;
+  private final Duration retention;
+  private final int batchSize;
+  private final int maxOpenSegments;
+
+  public EventRetentionJob(final EventStorage eventStorage,
+      @Value("${filmorate.event.retention.days:90}") final int retentionDays,
+      @Value("${filmorate.event.retention.batch-size:1000}") final int batchSize,
+      @Value("${filmorate.event.retention.max-open-segments:100000}") final int maxOpenSegments) {
+    this.eventStorage = eventStorage;
+    this.retention = Duration.ofDays(retentionDays);
+    this.batchSize = batchSize;
+    this.maxOpenSegments = maxOpenSegments;
+  }
+
+  @Scheduled(initialDelayString = "${filmorate.event.retention.initial-delay:PT1M}",
+      fixedDelayString = "${filmorate.event.retention.interval:PT1H}")
+  public void archiveExpiredEvents() {
+    final long cutoff = Instant.now().minus(retention).toEpochMilli();
+    log.debug("Archiving events older than {}", cutoff);
+    final Collapser collapser = new Collapser(maxOpenSegments);
+    int archived = 0;
+    int dropped = 0;
+    long afterId = 0;
+    Collection<Event> batch;
+    do {
+      batch = eventStorage.findEventsOlderThan(cutoff, afterId, batchSize);
+      final List<Long> archivedIds = new ArrayList<>();
+      final List<Long> droppedIds = new ArrayList<>();
+      for (final Event event : batch) {
+        collapser.accept(event, archivedIds, droppedIds);
+        afterId = event.getEventId();
+      }
+      if (batch.size() < batchSize) {
+        archivedIds.addAll(collapser.release());
+      }
+      eventStorage.archiveEvents(archivedIds, droppedIds);
+      archived += archivedIds.size();
+      dropped += droppedIds.size();
+    } while (batch.size() == batchSize);
+    log.info("Event retention finished: {} events archived, {} events collapsed", archived,
+        dropped);
+  }
+
+  /**
+   * Sorts events read in the order of IDs into archived and dropped ones. The events of a segment
+   * opened by an ADD event are held back until the segment is closed by a REMOVE event, replaced
+   * by another ADD event, evicted as the oldest open one, or released.
+   */
+  static final class Collapser {
+
+    private final int maxOpenSegments;
+    private final Map<EventKey, List<Long>> openSegments = new LinkedHashMap<>();
+
+    Collapser(final int maxOpenSegments) {
+      this.maxOpenSegments = maxOpenSegments;
+    }
+
+    void accept(final Event event, final List<Long> archivedIds, final List<Long> droppedIds) {
+      final EventKey key = new EventKey(event.getUserId(), event.getEventType(),
+          event.getEntityId());
+      switch (event.getOperation()) {
+        case ADD -> {
+          final List<Long> replaced = openSegments.remove(key);
+          if (replaced != null) {
+            archivedIds.addAll(replaced);
+          }
+          openSegments.put(key, new ArrayList<>(List.of(event.getEventId())));
+          if (openSegments.size() > maxOpenSegments) {
+            final Iterator<List<Long>> oldest = openSegments.values().iterator();
+            archivedIds.addAll(oldest.next());
+            oldest.remove();
+          }
+        }
+        case UPDATE -> {
+          final List<Long> segment = openSegments.get(key);
+          if (segment != null) {
+            segment.add(event.getEventId());
+          } else {
+            archivedIds.add(event.getEventId());
+          }
+        }
+        case REMOVE -> {
+          final List<Long> segment = openSegments.remove(key);
+          if (segment != null) {
+            droppedIds.addAll(segment);
+            droppedIds.add(event.getEventId());
+          } else {
+            archivedIds.add(event.getEventId());
+          }
+        }
+      }
+    }
+
+    /**
+     * Returns the IDs of the events of the segments left open and forgets them.
+     */
+    List<Long> release() {
+      final List<Long> released = new ArrayList<>();
+      openSegments.values().forEach(released::addAll);
+      openSegments.clear();
+      return released;
+    }
+  }
+
+  private record EventKey(Long userId, EventType eventType, Long entityId) {
+  }
+}
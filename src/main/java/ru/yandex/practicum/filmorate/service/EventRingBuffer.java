@@ -0,0 +1,97 @@
+package ru.yandex.practicum.filmorate.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import ru.yandex.practicum.filmorate.model.Event;
+
+/**
+ * A fixed-capacity ring buffer holding the newest events of a single timeline. When the buffer is
+ * full, adding an event overwrites the oldest one.
+ * <p>
+ * Events are kept ordered by ID and added at most once, so an event may be added both by the
+ * fan-out and by the load of the timeline it was persisted to, and events persisted out of order
+ * take their place. A buffer created empty is filled by {@link #load(List)}, until then reads are
+ * served from the storage.
+ */
+final class EventRingBuffer {
+
+  private final Event[] events;
+  private int head;
+  private int size;
+  private volatile boolean loaded;
+
+  EventRingBuffer(final int capacity) {
+    this.events = new Event[capacity];
+  }
+
+  /**
+   * Adds the events read from the storage to the events added since the buffer was created, and
+   * marks the buffer loaded.
+   *
+   * @param newestFirst the events ordered from the newest to the oldest
+   */
+  synchronized void load(final List<Event> newestFirst) {
+    for (int i = Math.min(newestFirst.size(), events.length) - 1; i >= 0; i--) {
+      add(newestFirst.get(i));
+    }
+    loaded = true;
+  }
+
+  boolean isLoaded() {
+    return loaded;
+  }
+
+  /**
+   * Adds the event in the order of IDs, unless it is already held or the buffer is full of newer
+   * events.
+   *
+   * @param event the event to add
+   */
+  synchronized void add(final Event event) {
+    final long id = event.getEventId();
+    int newer = 0;
+    while (newer < size) {
+      final long heldId = events[slot(newer)].getEventId();
+      if (heldId == id) {
+        return;
+      }
+      if (heldId < id) {
+        break;
+      }
+      newer++;
+    }
+    if (newer == events.length) {
+      return;
+    }
+    for (int i = 0; i < newer; i++) {
+      events[(slot(i) + 1) % events.length] = events[slot(i)];
+    }
+    events[(head - newer + events.length) % events.length] = event;
+    head = (head + 1) % events.length;
+    if (size < events.length) {
+      size++;
+    }
+  }
+
+  /**
+   * Returns up to {@code count} newest events ordered from the newest to the oldest.
+   *
+   * @param count the maximum number of events to return
+   * @return a list of events
+   */
+  synchronized List<Event> latest(final int count) {
+    final int n = Math.min(count, size);
+    final List<Event> result = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      result.add(events[slot(i)]);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the slot of the event with the given number of newer events.
+   */
+  private int slot(final int newer) {
+    return (head - 1 - newer + 2 * events.length) % events.length;
+  }
+}
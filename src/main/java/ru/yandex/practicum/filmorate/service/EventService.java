@@ -1,6 +1,7 @@
 package ru.yandex.practicum.filmorate.service;
 
 import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.yandex.practicum.filmorate.dto.EventDto;
 import ru.yandex.practicum.filmorate.model.EventType;
 import ru.yandex.practicum.filmorate.model.Operation;
@@ -14,6 +15,8 @@ import ru.yandex.practicum.filmorate.model.Operation;
  *
  * <ul>
  *   <li>{@link #getFeed(Long)} - Retrieves the event feed for a specified user.</li>
+ *   <li>{@link #getFriendsFeed(Long, int)} - Retrieves the newest events of the user's friends.</li>
+ *   <li>{@link #streamFeed(Long, Long)} - Opens a live stream of new events of a specified user.</li>
  *   <li>{@link #addEvent(Long, Long, EventType, Operation)} - Adds a new event to the storage,
  *       representing a user action.</li>
  * </ul>
@@ -26,6 +29,10 @@ public interface EventService {
 
   List<EventDto> getFeed(Long userId);
 
+  List<EventDto> getFriendsFeed(Long userId, int count);
+
+  SseEmitter streamFeed(Long userId, Long lastEventId);
+
   void addEvent(Long userId, Long entityId, EventType type, Operation operation);
 
 }
@@ -2,9 +2,10 @@ package ru.yandex.practicum.filmorate.service;
 
 import java.time.Instant;
 import java.util.List;
+import lombok.CustomLog;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.yandex.practicum.filmorate.dto.EventDto;
 import ru.yandex.practicum.filmorate.mapper.EventMapper;
 import ru.yandex.practicum.filmorate.model.Event;
@@ -16,18 +17,24 @@ import ru.yandex.practicum.filmorate.storage.EventStorage;
  * A service implementation for managing user events.
  * <p>
  * This class provides concrete implementations for the methods defined in the {@link EventService}
- * interface, using an underlying {@link EventStorage} to manage event persistence.
+ * interface, using an underlying {@link EventStorage} to manage event persistence. Every added event
+ * is fanned out to the friends-activity timelines through the {@link TimelineService} and pushed to
+ * the live feed streams through the {@link FeedStreamService}.
  *
  * @see Event
  * @see EventDto
  * @see EventStorage
+ * @see TimelineService
+ * @see FeedStreamService
  */
 @Service
-@Slf4j
+@CustomLog
 @RequiredArgsConstructor
 public class EventServiceImpl implements EventService {
 
   private final EventStorage eventStorage;
+  private final TimelineService timelineService;
+  private final FeedStreamService feedStreamService;
 
   public List<EventDto> getFeed(final Long userId) {
     log.debug("Inside getFeed for user with ID {} to fetch event feed ", userId);
@@ -37,6 +44,19 @@ public class EventServiceImpl implements EventService {
         .toList();
   }
 
+  public List<EventDto> getFriendsFeed(final Long userId, final int count) {
+    log.debug("Inside getFriendsFeed for user with ID {} to fetch {} friends events", userId, count);
+    return timelineService.getTimeline(userId, count)
+        .stream()
+        .map(EventMapper::mapToEventDto)
+        .toList();
+  }
+
+  public SseEmitter streamFeed(final Long userId, final Long lastEventId) {
+    log.debug("Inside streamFeed for user with ID {} after event {}", userId, lastEventId);
+    return feedStreamService.subscribe(userId, lastEventId);
+  }
+
   public void addEvent(final Long userId, final Long entityId, final EventType type,
       final Operation operation) {
     final Event event = Event.builder()
@@ -48,6 +68,8 @@ public class EventServiceImpl implements EventService {
         .build();
 
     eventStorage.addEvent(event);
+    timelineService.fanOut(event);
+    feedStreamService.publish(event);
   }
 
 }
@@ -0,0 +1,23 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.yandex.practicum.filmorate.model.Event;
+
+/**
+ * A service interface for streaming new user events to subscribed clients as server-sent events.
+ * <ul>
+ *   <li>{@link #subscribe(Long, Long)} - Opens a stream of the user's events, optionally resuming
+ *       after the last event received by the client.</li>
+ *   <li>{@link #publish(Event)} - Pushes a new event to the streams of its user.</li>
+ * </ul>
+ *
+ * @see Event
+ * @see EventService
+ */
+public interface FeedStreamService {
+
+  SseEmitter subscribe(Long userId, Long lastEventId);
+
+  void publish(Event event);
+
+}
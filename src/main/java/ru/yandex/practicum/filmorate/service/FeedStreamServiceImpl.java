@@ -0,0 +1,143 @@
+package ru.yandex.practicum.filmorate.service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.CustomLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.yandex.practicum.filmorate.mapper.EventMapper;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.storage.EventStorage;
+
+/**
+ * A service implementation for streaming user events as server-sent events.
+ * <p>
+ * Subscriptions are kept in a registry of {@link SseEmitter}s, which do not hold a request thread
+ * while idle. Events are sent on virtual threads after the transaction that added them commits, so
+ * a slow client never blocks the write path. Every event is sent with its ID, which allows clients
+ * to resume the stream without replaying the whole feed.
+ *
+ * @see FeedStreamService
+ * @see EventStorage
+ */
+@Service
+@CustomLog
+public class FeedStreamServiceImpl implements FeedStreamService {
+
+  private final EventStorage eventStorage;
+  private final long timeout;
+  private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+  private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+  public FeedStreamServiceImpl(final EventStorage eventStorage,
+      @Value("${filmorate.feed.stream.timeout-ms:1800000}") final long timeout) {
+    this.eventStorage = eventStorage;
+    this.timeout = timeout;
+  }
+
+  @Override
+  public SseEmitter subscribe(final Long userId, final Long lastEventId) {
+    log.debug("Subscribing to the feed of user with ID {} after event {}", userId, lastEventId);
+    final Subscription subscription = new Subscription(new SseEmitter(timeout),
+        lastEventId == null ? 0L : lastEventId);
+    final Runnable unsubscribe = () -> unsubscribe(userId, subscription);
+    subscription.emitter.onCompletion(unsubscribe);
+    subscription.emitter.onTimeout(unsubscribe);
+    subscription.emitter.onError(e -> unsubscribe.run());
+
+    subscription.lock.lock();
+    try {
+      subscriptions.compute(userId, (id, userSubscriptions) -> {
+        final Set<Subscription> registered = userSubscriptions == null
+            ? ConcurrentHashMap.newKeySet() : userSubscriptions;
+        registered.add(subscription);
+        return registered;
+      });
+      if (lastEventId != null) {
+        eventStorage.findUserEventsAfter(userId, lastEventId).forEach(subscription::send);
+      }
+    } finally {
+      subscription.lock.unlock();
+    }
+    return subscription.emitter;
+  }
+
+  @Override
+  public void publish(final Event event) {
+    final Set<Subscription> userSubscriptions = subscriptions.get(event.getUserId());
+    if (userSubscriptions == null || userSubscriptions.isEmpty()) {
+      return;
+    }
+    TransactionCallbacks.afterCommit(() -> userSubscriptions.forEach(subscription ->
+        sender.execute(() -> {
+          subscription.lock.lock();
+          try {
+            subscription.send(event);
+          } finally {
+            subscription.lock.unlock();
+          }
+        })));
+  }
+
+  int subscribedUsers() {
+    return subscriptions.size();
+  }
+
+  /**
+   * Removes the subscription, and the set of subscriptions of the user once it is empty. Sets are
+   * added to and removed from the registry atomically, so a subscription is never added to a
+   * removed set.
+   */
+  private void unsubscribe(final Long userId, final Subscription subscription) {
+    subscriptions.computeIfPresent(userId, (id, userSubscriptions) -> {
+      userSubscriptions.remove(subscription);
+      return userSubscriptions.isEmpty() ? null : userSubscriptions;
+    });
+  }
+
+  @PreDestroy
+  void shutdown() {
+    sender.shutdown();
+    subscriptions.values().forEach(userSubscriptions ->
+        userSubscriptions.forEach(subscription -> subscription.emitter.complete()));
+  }
+
+  /**
+   * A single client connection, which remembers the ID of the last sent event to skip events
+   * already delivered by the resume replay. Sends are serialized by a lock rather than a monitor,
+   * so virtual threads blocked on the client or on the replay query do not pin their carriers.
+   */
+  private static final class Subscription {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final SseEmitter emitter;
+    private long lastSentId;
+
+    private Subscription(final SseEmitter emitter, final long lastSentId) {
+      this.emitter = emitter;
+      this.lastSentId = lastSentId;
+    }
+
+    private void send(final Event event) {
+      if (event.getEventId() <= lastSentId) {
+        return;
+      }
+      try {
+        emitter.send(SseEmitter.event()
+            .id(String.valueOf(event.getEventId()))
+            .data(EventMapper.mapToEventDto(event)));
+        lastSentId = event.getEventId();
+      } catch (IOException | IllegalStateException e) {
+        log.debug("Failed to send event {} to the feed stream, closing it", event.getEventId());
+        emitter.completeWithError(e);
+      }
+    }
+  }
+}
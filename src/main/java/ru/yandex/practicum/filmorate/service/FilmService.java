@@ -23,6 +23,8 @@ import ru.yandex.practicum.filmorate.storage.MpaRatingStorage;
  * <li>{@link #getCommonFilms(Long, Long)}: Retrieves common films for two users sorted by its popularity.</li>
  * <li>{@link #search(String, String)}: Serches for films based on the specified query and search criteria.</li>
  * <li>{@link #getTopFilms(int, Long, Integer)}: Retrieves the top-rated films based on the number of likes.</li>
+ * <li>{@link #getVersion(Long)}: Retrieves the version of a film without loading it.</li>
+ * <li>{@link #getAllVersion()}: Retrieves the version stamp of all films.</li>
  * </ul>
  *
  * @see CrudService
@@ -48,4 +50,8 @@ public interface FilmService extends CrudService<FilmDto> {
 
   List<FilmDto> getTopFilms(int count, Long genreId, Integer year);
 
+  String getVersion(Long id);
+
+  String getAllVersion();
+
 }
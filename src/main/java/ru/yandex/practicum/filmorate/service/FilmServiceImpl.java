@@ -5,9 +5,10 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
-import lombok.extern.slf4j.Slf4j;
+import lombok.CustomLog;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.dto.FilmDto;
 import ru.yandex.practicum.filmorate.exception.InvalidDataException;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
@@ -30,6 +31,8 @@ import ru.yandex.practicum.filmorate.storage.MpaRatingStorage;
  * management, and {@link EventService} for event saving. It also interacts with
  * {@link DirectorService} for director-related operations.
  * <p>
+ * Saving and updating a film with its genres and directors, as well as a like with its event, run
+ * in a single transaction, so they share one connection and one commit.
  *
  * @see FilmService
  * @see FilmDto
@@ -41,7 +44,7 @@ import ru.yandex.practicum.filmorate.storage.MpaRatingStorage;
  * @see DirectorService
  */
 @Service
-@Slf4j
+@CustomLog
 public class FilmServiceImpl implements FilmService {
 
   private final FilmStorage filmStorage;
@@ -66,6 +69,7 @@ public class FilmServiceImpl implements FilmService {
   }
 
   @Override
+  @Transactional
   public FilmDto save(final FilmDto film) {
     log.debug("Inside save Film method");
     validateMpa(film.getMpa());
@@ -75,6 +79,7 @@ public class FilmServiceImpl implements FilmService {
   }
 
   @Override
+  @Transactional
   public FilmDto update(final FilmDto film) {
     log.debug("Inside update Film method");
     final Long id = film.getId();
@@ -99,6 +104,18 @@ public class FilmServiceImpl implements FilmService {
     return FilmMapper.mapToFilmDto(getFilmOrThrow(id));
   }
 
+  @Override
+  public String getVersion(final Long id) {
+    return filmStorage.findVersion(id)
+        .map(String::valueOf)
+        .orElseThrow(() -> new NotFoundException("Film with Id = " + id + " not found."));
+  }
+
+  @Override
+  public String getAllVersion() {
+    return filmStorage.getVersionStamp();
+  }
+
   @Override
   public void removeById(Long id) {
     log.debug("Deleting film with ID {} ", id);
@@ -107,6 +124,7 @@ public class FilmServiceImpl implements FilmService {
 
 
   @Override
+  @Transactional
   public FilmDto addLike(final Long filmId, final Long userId) {
     log.debug("Inside the addLike method, user with ID {} likes the film with ID {} ", userId,
         filmId);
@@ -123,6 +141,7 @@ public class FilmServiceImpl implements FilmService {
   }
 
   @Override
+  @Transactional
   public FilmDto removeLike(final Long filmId, final Long userId) {
     validateFilmId(filmId);
     validateUserExist(userId);
@@ -175,7 +194,7 @@ public class FilmServiceImpl implements FilmService {
   private Film getFilmOrThrow(final Long id) {
     log.debug("Getting a film instance for ID {} from the {}}", id, filmStorage);
     return filmStorage.findById(id)
-        .orElseThrow(() -> new NotFoundException("Film with Id = " + id + "not found."));
+        .orElseThrow(() -> new NotFoundException("Film with Id = " + id + " not found."));
   }
 
   private void validateFilmId(final Long id) {
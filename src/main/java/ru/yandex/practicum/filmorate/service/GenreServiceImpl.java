@@ -1,8 +1,8 @@
 package ru.yandex.practicum.filmorate.service;
 
 import java.util.List;
+import lombok.CustomLog;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.yandex.practicum.filmorate.dto.GenreDto;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
@@ -12,7 +12,7 @@ import ru.yandex.practicum.filmorate.storage.GenreStorage;
 
 @Service
 @RequiredArgsConstructor
-@Slf4j
+@CustomLog
 public class GenreServiceImpl implements GenreService {
 
   private final GenreStorage genreStorage;
@@ -0,0 +1,147 @@
+package ru.yandex.practicum.filmorate.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import lombok.CustomLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.dto.ReviewDto;
+
+/**
+ * A cache of the most useful reviews of recently requested films.
+ * <p>
+ * For every cached film the top reviews are held as an immutable snapshot ordered like the storage
+ * query, by useful score from the highest and then by ID. Snapshots are replaced, never modified:
+ * created, updated and deleted reviews invalidate the snapshot of their film, and score changes
+ * are applied to a copy of it. The least recently requested films are evicted once the number of
+ * cached films exceeds the limit. Snapshots also expire after a fixed time, which covers reviews
+ * deleted together with their films or users.
+ *
+ * @see ReviewServiceImpl
+ */
+@Component
+@CustomLog
+public class ReviewCache {
+
+  private static final Comparator<ReviewDto> ORDER = Comparator
+      .comparing(ReviewDto::getUseful, Comparator.reverseOrder())
+      .thenComparing(ReviewDto::getReviewId);
+
+  private final int topSize;
+  private final long ttlMillis;
+  private final Map<Long, Snapshot> snapshots;
+  private long generation;
+
+  public ReviewCache(@Value("${filmorate.review.cache.top-size:10}") final int topSize,
+      @Value("${filmorate.review.cache.max-films:1000}") final int maxFilms,
+      @Value("${filmorate.review.cache.ttl:PT1M}") final Duration ttl) {
+    this.topSize = topSize;
+    this.ttlMillis = ttl.toMillis();
+    this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Long, Snapshot> eldest) {
+        return size() > maxFilms;
+      }
+    };
+  }
+
+  /**
+   * Retrieves the most useful reviews of the film from the snapshot, loading it when it is missing.
+   * Requests for more reviews than a snapshot holds are passed to the loader directly.
+   *
+   * @param filmId the ID of the film
+   * @param count  the number of reviews to return
+   * @param loader loads the specified number of the most useful reviews of the film
+   * @return the reviews ordered by useful score
+   */
+  public List<ReviewDto> get(final Long filmId, final int count,
+      final IntFunction<List<ReviewDto>> loader) {
+    if (count > topSize) {
+      return loader.apply(count);
+    }
+    final long loadedGeneration;
+    synchronized (this) {
+      final Snapshot snapshot = snapshots.get(filmId);
+      if (snapshot != null && snapshot.expiresAt() > System.currentTimeMillis()) {
+        return head(snapshot.reviews(), count);
+      }
+      loadedGeneration = generation;
+    }
+    final List<ReviewDto> reviews = List.copyOf(loader.apply(topSize));
+    synchronized (this) {
+      if (generation == loadedGeneration) {
+        snapshots.put(filmId, new Snapshot(reviews, reviews.size() < topSize,
+            System.currentTimeMillis() + ttlMillis));
+      }
+    }
+    log.debug("Loaded top {} reviews of film with ID {}", reviews.size(), filmId);
+    return head(reviews, count);
+  }
+
+  /**
+   * Drops the snapshot of the film, after a review of it has been created, updated or deleted.
+   *
+   * @param filmId the ID of the film
+   */
+  public synchronized void invalidate(final Long filmId) {
+    generation++;
+    snapshots.remove(filmId);
+  }
+
+  /**
+   * Applies the score change of the review to the snapshot of its film. The delta is added to the
+   * cached score, so concurrent votes are not lost; a review missing from the snapshot is taken
+   * with its own score. When the review moves to the end of a snapshot, which does not hold all
+   * reviews of the film, another review may precede it, so the snapshot is dropped.
+   *
+   * @param changed the review with the new score
+   * @param delta   the score change
+   */
+  public synchronized void onScoreChanged(final ReviewDto changed, final int delta) {
+    generation++;
+    final Snapshot snapshot = snapshots.get(changed.getFilmId());
+    if (snapshot == null) {
+      return;
+    }
+    final List<ReviewDto> reviews = new ArrayList<>(snapshot.reviews());
+    final ReviewDto previous = reviews.stream()
+        .filter(cached -> cached.getReviewId().equals(changed.getReviewId()))
+        .findFirst()
+        .orElse(null);
+    final ReviewDto review = previous == null ? changed : ReviewDto.builder()
+        .reviewId(previous.getReviewId())
+        .content(previous.getContent())
+        .isPositive(previous.getIsPositive())
+        .userId(previous.getUserId())
+        .filmId(previous.getFilmId())
+        .useful(previous.getUseful() + delta)
+        .version(previous.getVersion())
+        .build();
+    reviews.remove(previous);
+    reviews.add(review);
+    reviews.sort(ORDER);
+    if (previous != null && !snapshot.complete() && ORDER.compare(review, previous) > 0
+        && reviews.getLast() == review) {
+      snapshots.remove(review.getFilmId());
+      return;
+    }
+    final boolean complete = snapshot.complete() && reviews.size() <= topSize;
+    snapshots.put(review.getFilmId(), new Snapshot(List.copyOf(head(reviews, topSize)), complete,
+        snapshot.expiresAt()));
+  }
+
+  private static List<ReviewDto> head(final List<ReviewDto> reviews, final int count) {
+    return reviews.size() <= count ? reviews : reviews.subList(0, count);
+  }
+
+  /**
+   * The top reviews of a film; {@code complete} means the film has no other reviews.
+   */
+  private record Snapshot(List<ReviewDto> reviews, boolean complete, long expiresAt) {
+  }
+}
@@ -12,7 +12,7 @@ import ru.yandex.practicum.filmorate.model.Operation;
  * This service provides methods for creating, updating, deleting, and retrieving reviews, as well
  * as managing user interactions such as likes and dislikes for each review.
  * <ul>
- *   <li>{@link #getReviewsByFilmId(Long, Integer)} - Retrieves a collection of reviews for a specified film.</li>
+ *   <li>{@link #getReviewsByFilmId(Long, Integer, Integer, Long)} - Retrieves a page of the most useful reviews for a specified film.</li>
  *   <li>{@link #getReviewById(Long)} - Retrieves a review by its ID.</li>
  *   <li>{@link #saveReview(ReviewRequest)} - Saves a new review to the storage.</li>
  *   <li>{@link #updateReview(ReviewRequest)} - Updates an existing review in the storage.</li>
@@ -30,7 +30,8 @@ import ru.yandex.practicum.filmorate.model.Operation;
  */
 public interface ReviewService {
 
-  Collection<ReviewDto> getReviewsByFilmId(Long filmId, Integer count);
+  Collection<ReviewDto> getReviewsByFilmId(Long filmId, Integer count, Integer afterUseful,
+      Long afterReviewId);
 
   ReviewDto getReviewById(Long reviewId);
 
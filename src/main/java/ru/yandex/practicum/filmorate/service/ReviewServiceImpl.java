@@ -1,9 +1,11 @@
 package ru.yandex.practicum.filmorate.service;
 
-import lombok.extern.slf4j.Slf4j;
+import lombok.CustomLog;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.dto.ReviewDto;
 import ru.yandex.practicum.filmorate.dto.ReviewRequest;
 import ru.yandex.practicum.filmorate.exception.DuplicatedDataException;
@@ -19,17 +21,26 @@ import ru.yandex.practicum.filmorate.storage.UserStorage;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Implementation of {@link ReviewService} for managing reviews, likes, and dislikes.
  * <p>
- * Handles CRUD operations for reviews and user interactions.
+ * Handles CRUD operations for reviews and user interactions. A vote changes the score by one, and
+ * a vote which would bring the score to zero skips it. By default the score is changed together
+ * with the vote. With {@code filmorate.review.useful.buffered} votes are accumulated in the
+ * {@link ReviewUsefulBuffer} and included in every returned review and list; until the buffer is
+ * flushed the order of the next page, after the afterUseful and afterId of the last review of a
+ * page, is the stored one. The first
+ * page of the most useful reviews of a film is served from the {@link ReviewCache}. Write
+ * operations run in a single transaction together with their events; the buffer and the cache
+ * are updated only after the transaction commits.
  * </p>
  *
  * @see ReviewService
  * @see ReviewStorage
  */
-@Slf4j
+@CustomLog
 @Service
 public class ReviewServiceImpl implements ReviewService {
 
@@ -37,51 +48,70 @@ public class ReviewServiceImpl implements ReviewService {
   private final UserStorage userStorage;
   private final FilmStorage filmStorage;
   private final EventService eventService;
+  private final ReviewUsefulBuffer usefulBuffer;
+  private final ReviewCache reviewCache;
+  private final boolean usefulBuffered;
 
   @Autowired
   public ReviewServiceImpl(ReviewStorage reviewStorage,
       @Qualifier("userDbStorage") UserStorage userStorage,
       @Qualifier("filmDbStorage") FilmStorage filmStorage,
-      EventService eventService) {
+      EventService eventService,
+      ReviewUsefulBuffer usefulBuffer,
+      ReviewCache reviewCache,
+      @Value("${filmorate.review.useful.buffered:false}") boolean usefulBuffered) {
     this.reviewStorage = reviewStorage;
     this.userStorage = userStorage;
     this.filmStorage = filmStorage;
     this.eventService = eventService;
+    this.usefulBuffer = usefulBuffer;
+    this.reviewCache = reviewCache;
+    this.usefulBuffered = usefulBuffered;
   }
 
   @Override
-  public Collection<ReviewDto> getReviewsByFilmId(Long filmId, Integer count) {
-    List<ReviewDto> reviews = reviewStorage.findAllByFilmId(filmId, count)
-        .stream()
-        .map(ReviewMapper::mapToReviewDto)
-        .toList();
-    log.info("Список отзывов {} для фильма {} в количестве {}", reviews, filmId, count);
+  public Collection<ReviewDto> getReviewsByFilmId(Long filmId, Integer count, Integer afterUseful,
+      Long afterReviewId) {
+    if ((afterUseful == null) != (afterReviewId == null)) {
+      log.error("Для следующей страницы отзывов переданы не все параметры: afterUseful = {}, "
+          + "afterId = {}", afterUseful, afterReviewId);
+      throw new InvalidDataException("Параметры afterUseful и afterId передаются вместе");
+    }
+    List<ReviewDto> reviews = filmId != null && afterReviewId == null
+        ? reviewCache.get(filmId, count, limit -> findReviews(filmId, limit, null, null))
+        : findReviews(filmId, count, afterUseful, afterReviewId);
+    log.debug("Список отзывов {} для фильма {} в количестве {}", reviews, filmId, count);
     return reviews;
   }
 
   @Override
   public ReviewDto getReviewById(Long reviewId) {
-    ReviewDto reviewDto = ReviewMapper.mapToReviewDto(getReview(reviewId));
-    log.info("Отзыв с id {} = {}", reviewId, reviewDto);
+    Review review = usefulBuffer.read(() -> getReview(reviewId));
+    ReviewDto reviewDto = ReviewMapper.mapToReviewDto(review);
+    log.debug("Отзыв с id {} = {}", reviewId, reviewDto);
     return reviewDto;
   }
 
   @Override
+  @Transactional
   public ReviewDto saveReview(ReviewRequest request) {
-    log.info("Запрос на сохранение отзыва: {}", request);
+    log.debug("Запрос на сохранение отзыва: {}", request);
     Review newReview = ReviewMapper.mapToReview(request);
     validateFilmId(newReview.getFilmId());
     validateUserId(request.getUserId());
     newReview = reviewStorage.save(newReview);
-    log.info("Отзыв сохранен: {}", newReview);
+    log.debug("Отзыв сохранен: {}", newReview);
+    Long filmId = newReview.getFilmId();
+    TransactionCallbacks.afterCommit(() -> reviewCache.invalidate(filmId));
     eventService.addEvent(newReview.getUserId(), newReview.getReviewId(), EventType.REVIEW,
         Operation.ADD);
     return ReviewMapper.mapToReviewDto(newReview);
   }
 
   @Override
+  @Transactional
   public ReviewDto updateReview(ReviewRequest request) {
-    log.info("Запрос на обновление отзыва: {}", request);
+    log.debug("Запрос на обновление отзыва: {}", request);
     Review newReview = ReviewMapper.mapToReview(request);
     if (newReview.getReviewId() == null) {
       log.error("Отсутствует идентификатор отзыва при обновлении");
@@ -97,67 +127,141 @@ public class ReviewServiceImpl implements ReviewService {
     newReview.setUserId(oldReview.getUserId());
     newReview.setFilmId(oldReview.getFilmId());
     newReview = reviewStorage.update(newReview);
-    log.info("Отзыв обновлен: {}", newReview);
+    Review updated = newReview;
+    TransactionCallbacks.afterCommit(() -> {
+      usefulBuffer.discard(updated.getReviewId());
+      reviewCache.invalidate(updated.getFilmId());
+    });
+    log.debug("Отзыв обновлен: {}", newReview);
     eventService.addEvent(newReview.getUserId(), newReview.getReviewId(), EventType.REVIEW,
         Operation.UPDATE);
     return ReviewMapper.mapToReviewDto(newReview);
   }
 
   @Override
+  @Transactional
   public void removeReview(Long reviewId) {
-    log.info("Запрос на удаление отзыва с id: {}", reviewId);
+    log.debug("Запрос на удаление отзыва с id: {}", reviewId);
     Review current = getReview(reviewId);
     reviewStorage.delete(current.getReviewId());
+    TransactionCallbacks.afterCommit(() -> {
+      usefulBuffer.discard(current.getReviewId());
+      reviewCache.invalidate(current.getFilmId());
+    });
     eventService.addEvent(current.getUserId(), current.getReviewId(), EventType.REVIEW,
         Operation.REMOVE);
   }
 
   @Override
+  @Transactional
   public ReviewDto addReviewLike(Long reviewId, Long userId) {
     return addReviewReaction(reviewId, userId, Boolean.TRUE);
   }
 
   @Override
+  @Transactional
   public ReviewDto addReviewDislike(Long reviewId, Long userId) {
     return addReviewReaction(reviewId, userId, Boolean.FALSE);
   }
 
   @Override
+  @Transactional
   public void removeLike(Long reviewId, Long userId) {
     removeReaction(reviewId, userId, Boolean.TRUE);
   }
 
   @Override
+  @Transactional
   public void removeDislike(Long reviewId, Long userId) {
     removeReaction(reviewId, userId, Boolean.FALSE);
   }
 
   private ReviewDto addReviewReaction(Long reviewId, Long userId, Boolean isLike) {
-    log.info("Запрос на добавление оценки isLike = {} отзыву с id {} от пользователя {}", isLike,
+    log.debug("Запрос на добавление оценки isLike = {} отзыву с id {} от пользователя {}", isLike,
         reviewId, userId);
-    getReview(reviewId);
     validateUserId(userId);
-    checkLikeDuplicate(reviewId, userId, isLike);
-    if (isLike) {
-      reviewStorage.addLike(reviewId, userId);
+    Optional<Review> voted;
+    if (usefulBuffered) {
+      voted = reviewStorage.saveVote(reviewId, userId, isLike)
+          ? Optional.of(bufferVote(reviewId, isLike ? 1 : -1, true))
+          : Optional.empty();
     } else {
-      reviewStorage.addDislike(reviewId, userId);
+      voted = isLike
+          ? reviewStorage.addLike(reviewId, userId)
+          : reviewStorage.addDislike(reviewId, userId);
+    }
+    if (voted.isEmpty()) {
+      getReview(reviewId);
+      log.error("Попытка пользователем {} оценить отзыв {} повторно", userId, reviewId);
+      throw new DuplicatedDataException("Нельзя добавить оценку отзыву второй раз");
     }
-    Review review = getReview(reviewId);
-    log.info("Отзыву {} добавлена оценка isLike = {} от пользователя {}", review, isLike, userId);
-    return ReviewMapper.mapToReviewDto(review);
+    ReviewDto review = ReviewMapper.mapToReviewDto(onVoted(voted.get()));
+    log.debug("Отзыву {} добавлена оценка isLike = {} от пользователя {}", review, isLike, userId);
+    return review;
   }
 
   private void removeReaction(Long reviewId, Long userId, Boolean isLike) {
-    log.info("Запрос на удаление оценки для отзыва {} от пользователя {}", reviewId, userId);
-    getReview(reviewId);
+    log.debug("Запрос на удаление оценки для отзыва {} от пользователя {}", reviewId, userId);
     validateUserId(userId);
-    checkEmptyLike(reviewId, userId);
-    if (isLike) {
-      reviewStorage.removeLike(reviewId, userId);
+    Optional<Review> removed;
+    if (usefulBuffered) {
+      removed = reviewStorage.deleteVote(reviewId, userId)
+          ? Optional.of(bufferVote(reviewId, isLike ? -1 : 1, false))
+          : Optional.empty();
     } else {
-      reviewStorage.removeDislike(reviewId, userId);
+      removed = isLike
+          ? reviewStorage.removeLike(reviewId, userId)
+          : reviewStorage.removeDislike(reviewId, userId);
+    }
+    if (removed.isEmpty()) {
+      getReview(reviewId);
+      log.error("Попытка пользователем {} удалить несуществующую оценку отзыва {}", userId,
+          reviewId);
+      throw new DuplicatedDataException("Нельзя удалить пустую оценку");
     }
+    onVoted(removed.get());
+  }
+
+  /**
+   * Writes a vote to the journal of pending votes in the buffered mode and buffers it after the
+   * commit. The journal applies the votes in order, skipping zero by the score left by the
+   * previous ones; the returned score is the one expected from the votes buffered so far.
+   *
+   * @return the review with its score after the vote
+   */
+  private Review bufferVote(Long reviewId, int score, boolean skipZero) {
+    Review review = usefulBuffer.read(() -> getReview(reviewId));
+    int useful = review.getUseful();
+    review.setUseful(Review.addScore(useful, score, skipZero));
+    int delta = review.getUseful() - useful;
+    Long journalId = reviewStorage.addPendingUseful(reviewId, score, skipZero);
+    ReviewDto reviewDto = ReviewMapper.mapToReviewDto(review);
+    TransactionCallbacks.afterCommit(() -> {
+      usefulBuffer.add(reviewId, journalId, score, skipZero);
+      reviewCache.onScoreChanged(reviewDto, delta);
+    });
+    return review;
+  }
+
+  /**
+   * Drops the cached reviews of the film after the commit, when the storage has written the score
+   * of the voted review; the buffered votes update the cache themselves.
+   */
+  private Review onVoted(Review review) {
+    if (!usefulBuffered) {
+      Long filmId = review.getFilmId();
+      TransactionCallbacks.afterCommit(() -> reviewCache.invalidate(filmId));
+    }
+    return review;
+  }
+
+  private List<ReviewDto> findReviews(Long filmId, Integer count, Integer afterUseful,
+      Long afterReviewId) {
+    return usefulBuffer
+        .readAll(() -> reviewStorage.findAllByFilmId(filmId, count, afterUseful, afterReviewId))
+        .stream()
+        .map(ReviewMapper::mapToReviewDto)
+        .toList();
   }
 
   private Review getReview(Long id) {
@@ -168,7 +272,7 @@ public class ReviewServiceImpl implements ReviewService {
   }
 
   private void validateFilmId(Long id) {
-    log.info("Проверка, есть ли фильм с id {}", id);
+    log.debug("Проверка, есть ли фильм с id {}", id);
     if (id == null || !filmStorage.isExist(id)) {
       log.error("Фильма с id = {} не существует", id);
       throw new NotFoundException(String.format("Фильма с идентификатором = '%s' не найдено", id));
@@ -176,25 +280,11 @@ public class ReviewServiceImpl implements ReviewService {
   }
 
   private void validateUserId(Long id) {
-    log.info("Проверка, есть ли пользователь с id {}", id);
+    log.debug("Проверка, есть ли пользователь с id {}", id);
     if (id == null || !userStorage.isExist(id)) {
       log.error("Пользователя с id = {} не существует", id);
       throw new NotFoundException(
           String.format("Пользователя с идентификатором = '%s' не найдено", id));
     }
   }
-
-  private void checkLikeDuplicate(Long reviewId, Long userId, Boolean isUseful) {
-    if (reviewStorage.isLikeAndUsefulExist(reviewId, userId, isUseful)) {
-      log.error("Попытка пользователем {} оценить отзыв {} повторно", userId, reviewId);
-      throw new DuplicatedDataException("Нельзя добавить оценку отзыву второй раз");
-    }
-  }
-
-  private void checkEmptyLike(Long reviewId, Long userId) {
-    if (!reviewStorage.isLikeExist(reviewId, userId)) {
-      log.error("Попытка пользователем {} удалить несуществующий отзыв {}", userId, reviewId);
-      throw new DuplicatedDataException("Нельзя удалить пустую оценку");
-    }
-  }
 }
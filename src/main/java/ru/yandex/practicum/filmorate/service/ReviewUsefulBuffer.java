@@ -0,0 +1,199 @@
+package ru.yandex.practicum.filmorate.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import lombok.CustomLog;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Review;
+import ru.yandex.practicum.filmorate.storage.ReviewStorage;
+
+/**
+ * A write-combining buffer for the useful score of reviews.
+ * <p>
+ * Votes write their scores to the journal of pending votes in the {@link ReviewStorage} and, once
+ * committed, add them to the pending votes of the review instead of updating the review row, so
+ * concurrent votes on a popular review do not queue on its row lock. The journal is applied to the
+ * scores periodically in a single batch, and once on startup, which recovers the votes left by a
+ * crash. The votes are applied one by one in the order of the journal, so a vote skipping zero
+ * sees the score left by the previous votes, however many of them were concurrent. Reads combine
+ * the persisted score with the pending votes in the same order; a flush is never interleaved with
+ * a read, so a vote is not counted twice. Lists ordered by score are read as persisted and
+ * reordered by the combined scores: a pending vote may move a review into or out of a page, which
+ * a read of that page alone cannot see, until the next flush.
+ *
+ * @see ReviewServiceImpl
+ */
+@Component
+@CustomLog
+public class ReviewUsefulBuffer {
+
+  private static final Comparator<Review> ORDER = Comparator.comparing(Review::getUseful)
+      .reversed()
+      .thenComparing(Review::getReviewId);
+
+  private final ReviewStorage reviewStorage;
+  private final Map<Long, NavigableMap<Long, PendingScore>> pending = new ConcurrentHashMap<>();
+  private final Set<Long> applied = ConcurrentHashMap.newKeySet();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  public ReviewUsefulBuffer(final ReviewStorage reviewStorage) {
+    this.reviewStorage = reviewStorage;
+  }
+
+  /**
+   * Adds a committed vote to the pending votes of the review, unless the journal has already been
+   * applied with it.
+   *
+   * @param reviewId  the ID of the review
+   * @param journalId the ID of the vote in the journal
+   * @param score     the score of the vote
+   * @param skipZero  whether the vote skips zero
+   */
+  public void add(final Long reviewId, final Long journalId, final int score,
+      final boolean skipZero) {
+    lock.readLock().lock();
+    try {
+      if (!applied.remove(journalId)) {
+        pending.computeIfAbsent(reviewId, id -> new ConcurrentSkipListMap<>())
+            .put(journalId, new PendingScore(score, skipZero));
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Drops the pending votes of the review, after its score has been reset or the review deleted.
+   *
+   * @param reviewId the ID of the review
+   */
+  public void discard(final Long reviewId) {
+    lock.writeLock().lock();
+    try {
+      pending.remove(reviewId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Reads a review and applies the pending votes to its score.
+   *
+   * @param reader the persisted review reader
+   * @return the review with the current score
+   */
+  public Review read(final Supplier<Review> reader) {
+    lock.readLock().lock();
+    try {
+      return applyPending(reader.get());
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Reads reviews ordered by score, applies the pending votes to their scores and orders them by
+   * the current scores. The pending votes are not flushed.
+   *
+   * @param reader the persisted reviews reader
+   * @return the reviews with the current scores, ordered by score
+   */
+  public List<Review> readAll(final Supplier<Collection<Review>> reader) {
+    lock.readLock().lock();
+    try {
+      return reader.get().stream()
+          .map(this::applyPending)
+          .sorted(ORDER)
+          .toList();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Applies the journal of pending votes left by the previous run.
+   */
+  @PostConstruct
+  public void recover() {
+    lock.writeLock().lock();
+    try {
+      final int recovered = flushPending();
+      if (recovered > 0) {
+        log.info("Recovered pending useful score votes of {} reviews", recovered);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Applies the pending votes to the scores in a single batch. A failed flush keeps the votes for
+   * the next attempt.
+   */
+  @Scheduled(fixedDelayString = "${filmorate.review.useful.flush-interval:PT1S}")
+  @PreDestroy
+  public void flush() {
+    lock.writeLock().lock();
+    try {
+      flushPending();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Applies the journal and drops the applied votes. A vote committed to the journal, but not yet
+   * added, is remembered as applied and skipped when it is added.
+   *
+   * @return the number of reviews, whose scores have been changed
+   */
+  private int flushPending() {
+    final Map<Long, List<Long>> flushed;
+    try {
+      flushed = reviewStorage.applyPendingUseful();
+    } catch (RuntimeException e) {
+      log.warn("Failed to flush useful score votes of {} reviews", pending.size(), e);
+      return 0;
+    }
+    flushed.forEach((reviewId, journalIds) -> {
+      final NavigableMap<Long, PendingScore> scores = pending.get(reviewId);
+      journalIds.stream()
+          .filter(journalId -> scores == null || scores.remove(journalId) == null)
+          .forEach(applied::add);
+      if (scores != null && scores.isEmpty()) {
+        pending.remove(reviewId);
+      }
+    });
+    if (!flushed.isEmpty()) {
+      log.debug("Flushed useful score votes of {} reviews", flushed.size());
+    }
+    return flushed.size();
+  }
+
+  private Review applyPending(final Review review) {
+    final NavigableMap<Long, PendingScore> scores = pending.get(review.getReviewId());
+    if (scores != null) {
+      int useful = review.getUseful();
+      for (final PendingScore score : scores.values()) {
+        useful = Review.addScore(useful, score.score(), score.skipZero());
+      }
+      review.setUseful(useful);
+    }
+    return review;
+  }
+
+  private record PendingScore(int score, boolean skipZero) {
+  }
+}
@@ -0,0 +1,25 @@
+package ru.yandex.practicum.filmorate.service;
+
+import java.util.List;
+import ru.yandex.practicum.filmorate.model.Event;
+
+/**
+ * A service interface for managing friends-activity timelines.
+ * <p>
+ * Events of regular users are fanned out on write to the timelines of their followers. Events of
+ * users with too many followers are pulled on read instead.
+ * <ul>
+ *   <li>{@link #fanOut(Event)} - Delivers a new event to the timelines of the author's followers.</li>
+ *   <li>{@link #getTimeline(Long, int)} - Retrieves the newest events of the user's friends.</li>
+ * </ul>
+ *
+ * @see Event
+ * @see EventService
+ */
+public interface TimelineService {
+
+  void fanOut(Event event);
+
+  List<Event> getTimeline(Long userId, int count);
+
+}
@@ -0,0 +1,244 @@
+package ru.yandex.practicum.filmorate.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.CustomLog;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.model.EventType;
+import ru.yandex.practicum.filmorate.storage.EventStorage;
+import ru.yandex.practicum.filmorate.storage.TimelineStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+/**
+ * A service implementation for managing friends-activity timelines.
+ * <p>
+ * The newest events of recently read timelines are kept in bounded per-user ring buffers, so a
+ * timeline page is served from memory. Fanned out events are persisted to the
+ * {@link TimelineStorage} asynchronously, in one batch per event, and only then appended to the
+ * warm buffers. A buffer is registered before its timeline is read from the storage, so an event is
+ * either read with the timeline or appended to the buffer. Failed batches are retried with a
+ * growing delay, and the least recently read buffer is evicted, once there are too many of them.
+ * Authors with more followers than the fan-out limit are skipped on write; their events are merged
+ * into the timeline on read with a query limited by the page size. These popular authors are kept
+ * in memory: they are loaded on startup and updated by the friend events, so a read looks up only
+ * them in the friend list of the reader. An author left popular after followers are deleted is
+ * both pushed and pulled, and the merge drops the duplicates.
+ *
+ * @see TimelineService
+ * @see TimelineStorage
+ * @see EventStorage
+ */
+@Service
+@CustomLog
+public class TimelineServiceImpl implements TimelineService {
+
+  private final TimelineStorage timelineStorage;
+  private final EventStorage eventStorage;
+  private final UserStorage userStorage;
+  private final int capacity;
+  private final int maxTimelines;
+  private final int fanOutLimit;
+  private final int persistAttempts;
+  private final long retryDelayMillis;
+  private final Set<Long> popularAuthorIds = ConcurrentHashMap.newKeySet();
+  private final Map<Long, EventRingBuffer> timelines = new ConcurrentHashMap<>();
+  // the registered buffers from the least to the most recently read, guarded by itself
+  private final Map<Long, EventRingBuffer> readOrder = new LinkedHashMap<>(16, 0.75f, true);
+  private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(
+      Thread.ofPlatform().name("timeline-writer").daemon().factory());
+
+  public TimelineServiceImpl(final TimelineStorage timelineStorage,
+      final EventStorage eventStorage,
+      @Qualifier("userDbStorage") final UserStorage userStorage,
+      @Value("${filmorate.timeline.capacity:200}") final int capacity,
+      @Value("${filmorate.timeline.max-timelines:10000}") final int maxTimelines,
+      @Value("${filmorate.timeline.fan-out-limit:1000}") final int fanOutLimit,
+      @Value("${filmorate.timeline.persist-attempts:5}") final int persistAttempts,
+      @Value("${filmorate.timeline.persist-retry-delay:PT1S}") final Duration retryDelay) {
+    this.timelineStorage = timelineStorage;
+    this.eventStorage = eventStorage;
+    this.userStorage = userStorage;
+    this.capacity = capacity;
+    this.maxTimelines = maxTimelines;
+    this.fanOutLimit = fanOutLimit;
+    this.persistAttempts = persistAttempts;
+    this.retryDelayMillis = retryDelay.toMillis();
+  }
+
+  @PostConstruct
+  void loadPopularAuthors() {
+    popularAuthorIds.addAll(userStorage.getPopularUserIds(fanOutLimit));
+    log.info("Loaded {} authors exceeding the fan-out limit", popularAuthorIds.size());
+  }
+
+  @Override
+  public void fanOut(final Event event) {
+    if (event.getEventType() == EventType.FRIEND) {
+      updatePopularity(event.getEntityId());
+    }
+    final List<Long> followerIds = userStorage.getFollowerIds(event.getUserId(), fanOutLimit + 1);
+    if (followerIds.size() > fanOutLimit) {
+      log.debug("User with ID {} exceeds fan-out limit, event {} is pulled on read",
+          event.getUserId(), event.getEventId());
+      return;
+    }
+    if (followerIds.isEmpty()) {
+      return;
+    }
+    TransactionCallbacks.afterCommit(() -> writer.execute(() -> publish(followerIds, event, 1)));
+  }
+
+  @Override
+  public List<Event> getTimeline(final Long userId, final int count) {
+    log.debug("Getting {} timeline events for user with ID {}", count, userId);
+    final List<Event> pushed = count > capacity
+        ? timelineStorage.findTimeline(userId, count)
+        : readBuffer(userId, count);
+    if (popularAuthorIds.isEmpty()) {
+      return pushed;
+    }
+    final List<Long> popularFriendIds =
+        userStorage.getFriendIdsAmong(userId, List.copyOf(popularAuthorIds));
+    if (popularFriendIds.isEmpty()) {
+      return pushed;
+    }
+    return merge(pushed, eventStorage.findLatestEventsOfUsers(popularFriendIds, count), count);
+  }
+
+  /**
+   * Checks whether the followed or unfollowed user still exceeds the fan-out limit, and updates
+   * the popular authors once the friendship change commits.
+   */
+  private void updatePopularity(final Long authorId) {
+    final boolean popular =
+        userStorage.getFollowerIds(authorId, fanOutLimit + 1).size() > fanOutLimit;
+    TransactionCallbacks.afterCommit(() -> {
+      if (popular) {
+        popularAuthorIds.add(authorId);
+      } else {
+        popularAuthorIds.remove(authorId);
+      }
+    });
+  }
+
+  @PreDestroy
+  void shutdown() {
+    writer.shutdown();
+  }
+
+  /**
+   * Reads the buffer of the timeline, registering and loading it first when it is cold. Until a
+   * registered buffer is loaded, the timeline is read from the storage.
+   */
+  private List<Event> readBuffer(final Long userId, final int count) {
+    final EventRingBuffer buffer = timelines.get(userId);
+    if (buffer != null) {
+      touch(userId);
+      return buffer.isLoaded() ? buffer.latest(count) : timelineStorage.findTimeline(userId, count);
+    }
+    final EventRingBuffer registered = new EventRingBuffer(capacity);
+    final EventRingBuffer existing = timelines.putIfAbsent(userId, registered);
+    if (existing != null) {
+      touch(userId);
+      return existing.isLoaded()
+          ? existing.latest(count) : timelineStorage.findTimeline(userId, count);
+    }
+    track(userId, registered);
+    try {
+      registered.load(timelineStorage.findTimeline(userId, capacity));
+    } catch (RuntimeException e) {
+      synchronized (readOrder) {
+        readOrder.remove(userId, registered);
+      }
+      timelines.remove(userId, registered);
+      throw e;
+    }
+    return registered.latest(count);
+  }
+
+  private void touch(final Long userId) {
+    synchronized (readOrder) {
+      readOrder.get(userId);
+    }
+  }
+
+  /**
+   * Adds the registered buffer as the most recently read one and evicts the least recently read
+   * buffers beyond the limit.
+   */
+  private void track(final Long userId, final EventRingBuffer registered) {
+    synchronized (readOrder) {
+      readOrder.put(userId, registered);
+      final Iterator<Map.Entry<Long, EventRingBuffer>> eldest = readOrder.entrySet().iterator();
+      while (readOrder.size() > maxTimelines) {
+        final Map.Entry<Long, EventRingBuffer> entry = eldest.next();
+        eldest.remove();
+        timelines.remove(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Persists the event to the timelines of the followers, then appends it to their warm buffers.
+   * A failed batch is retried, as the insert is idempotent.
+   */
+  private void publish(final List<Long> followerIds, final Event event, final int attempt) {
+    try {
+      timelineStorage.addToTimelines(followerIds, event);
+    } catch (RuntimeException e) {
+      if (attempt >= persistAttempts) {
+        log.error("Failed to persist event {} to {} timelines after {} attempts",
+            event.getEventId(), followerIds.size(), attempt, e);
+        return;
+      }
+      log.warn("Failed to persist event {} to {} timelines, retrying", event.getEventId(),
+          followerIds.size(), e);
+      writer.schedule(() -> publish(followerIds, event, attempt + 1),
+          retryDelayMillis << (attempt - 1), TimeUnit.MILLISECONDS);
+      return;
+    }
+    followerIds.forEach(followerId -> {
+      final EventRingBuffer buffer = timelines.get(followerId);
+      if (buffer != null) {
+        buffer.add(event);
+      }
+    });
+  }
+
+  private static List<Event> merge(final List<Event> first, final List<Event> second,
+      final int count) {
+    if (second.isEmpty()) {
+      return first;
+    }
+    final List<Event> result = new ArrayList<>(Math.min(count, first.size() + second.size()));
+    int i = 0;
+    int j = 0;
+    while (result.size() < count && (i < first.size() || j < second.size())) {
+      final Event next;
+      if (j >= second.size()
+          || i < first.size() && first.get(i).getEventId() >= second.get(j).getEventId()) {
+        next = first.get(i++);
+      } else {
+        next = second.get(j++);
+      }
+      if (result.isEmpty() || !result.getLast().getEventId().equals(next.getEventId())) {
+        result.add(next);
+      }
+    }
+    return result;
+  }
+}
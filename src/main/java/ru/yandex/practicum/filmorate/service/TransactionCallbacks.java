@@ -0,0 +1,32 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utility class for deferring side effects, which must not be observed for rolled back data, until
+ * the surrounding transaction commits.
+ */
+@UtilityClass
+class TransactionCallbacks {
+
+  /**
+   * Runs the action after the current transaction commits, or immediately when no transaction is
+   * active.
+   *
+   * @param action the action to run
+   */
+  void afterCommit(final Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+}
@@ -2,6 +2,7 @@ package ru.yandex.practicum.filmorate.service;
 
 import java.util.Collection;
 import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.yandex.practicum.filmorate.dto.EventDto;
 import ru.yandex.practicum.filmorate.dto.FilmDto;
 import ru.yandex.practicum.filmorate.dto.UserDto;
@@ -22,6 +23,11 @@ import ru.yandex.practicum.filmorate.storage.UserStorage;
  *   <li>{@link #removeFriend(Long, Long)}: Removes a friend from the user’s friend list.</li>
  *   <li>{@link #getUserRecommendations(long)}: Retrieves recommendations for a user based on their preferences and interactions.</li>
  *   <li>{@link #getFeed(Long)}: Retrieves a list of events related to a specified user.</li>
+ *   <li>{@link #getFriendsFeed(Long, int)}: Retrieves a list of the newest events of the user's friends.</li>
+ *   <li>{@link #streamFeed(Long, Long)}: Opens a live stream of new events related to a specified user.</li>
+ *   <li>{@link #getVersion(Long)}: Retrieves the version of a user without loading them.</li>
+ *   <li>{@link #getAllVersion()}: Retrieves the version stamp of all users.</li>
+ *   <li>{@link #getFriendsVersion(Long)}: Retrieves the version stamp of a user's friend list.</li>
  *   <li>{@link #validateUserId(Long)}: Validates if a user with the given ID exists in the storage, throwing an exception if not.</li>
  * </ul>
  *
@@ -45,6 +51,16 @@ public interface UserService extends CrudService<UserDto> {
 
   List<EventDto> getFeed(Long id);
 
+  List<EventDto> getFriendsFeed(Long id, int count);
+
+  SseEmitter streamFeed(Long id, Long lastEventId);
+
+  String getVersion(Long id);
+
+  String getAllVersion();
+
+  String getFriendsVersion(Long id);
+
   void validateUserId(Long id);
 
 
@@ -5,9 +5,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
-import lombok.extern.slf4j.Slf4j;
+import lombok.CustomLog;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.yandex.practicum.filmorate.dto.EventDto;
 import ru.yandex.practicum.filmorate.dto.FilmDto;
 import ru.yandex.practicum.filmorate.dto.UserDto;
@@ -35,7 +37,7 @@ import ru.yandex.practicum.filmorate.storage.UserStorage;
  * @see EventService
  */
 @Service
-@Slf4j
+@CustomLog
 public class UserServiceImpl implements UserService {
 
   private final UserStorage userStorage;
@@ -81,6 +83,24 @@ public class UserServiceImpl implements UserService {
     return UserMapper.mapToUserDto(getUserByIdOrThrow(id));
   }
 
+  @Override
+  public String getVersion(final Long id) {
+    return userStorage.findVersion(id)
+        .map(String::valueOf)
+        .orElseThrow(() -> new NotFoundException("User with ID = " + id + " not found."));
+  }
+
+  @Override
+  public String getAllVersion() {
+    return userStorage.getVersionStamp();
+  }
+
+  @Override
+  public String getFriendsVersion(final Long id) {
+    return userStorage.getFriendsVersionStamp(id)
+        .orElseThrow(() -> new NotFoundException("User with ID = " + id + " not found."));
+  }
+
   @Override
   public void removeById(final Long userId) {
     log.debug("Deleting user with ID {} ", userId);
@@ -89,6 +109,7 @@ public class UserServiceImpl implements UserService {
   }
 
   @Override
+  @Transactional
   public UserDto addFriend(final Long userId, final Long newFriendId) {
     log.debug("Inside 'addFriend' method: user with id = {} is adding a friend with id = {}",
         userId, newFriendId);
@@ -133,6 +154,7 @@ public class UserServiceImpl implements UserService {
   }
 
   @Override
+  @Transactional
   public UserDto removeFriend(final Long userId, final Long friendToRemoveId) {
     log.debug("Inside removeFriend to remove from user with ID {} a friend with ID {} ", userId,
         friendToRemoveId);
@@ -155,6 +177,20 @@ public class UserServiceImpl implements UserService {
     return eventService.getFeed(userId);
   }
 
+  @Override
+  public List<EventDto> getFriendsFeed(final Long userId, final int count) {
+    log.debug("Inside getFriendsFeed for user with ID {} to fetch {} friends events", userId, count);
+    validateUserId(userId);
+    return eventService.getFriendsFeed(userId, count);
+  }
+
+  @Override
+  public SseEmitter streamFeed(final Long userId, final Long lastEventId) {
+    log.debug("Inside streamFeed for user with ID {} after event {}", userId, lastEventId);
+    validateUserId(userId);
+    return eventService.streamFeed(userId, lastEventId);
+  }
+
   @Override
   public void validateUserId(final Long id) {
     log.debug("Validating user id {} is not null and exist in DB", id);
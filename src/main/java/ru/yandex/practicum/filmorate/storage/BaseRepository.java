@@ -2,17 +2,31 @@ package ru.yandex.practicum.filmorate.storage;
 
 import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import lombok.CustomLog;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.support.DataAccessUtils;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
 import ru.yandex.practicum.filmorate.exception.InternalServerException;
+import ru.yandex.practicum.filmorate.metrics.QueryStatistics;
+import ru.yandex.practicum.filmorate.metrics.StatementCounter;
 import ru.yandex.practicum.filmorate.storage.dao.UserDbStorage;
+import ru.yandex.practicum.filmorate.storage.rowmappers.CompiledRowMapper;
 import ru.yandex.practicum.filmorate.storage.rowmappers.UserRowMapper;
 
 /**
@@ -22,21 +36,36 @@ import ru.yandex.practicum.filmorate.storage.rowmappers.UserRowMapper;
  *   <li>{@link #insert(String, Object...)}: Inserts a new record and returns the generated key.</li>
  *   <li>{@link #insertCompositePk(String, Object...)}: Inserts a new record into a table with a composite primary key and validates key generation.</li>
  *   <li>{@link #update(String, Object...)}: Updates an existing record based on the given query and parameters, and validated that at least one row was affected by the update operation.</li>
+ *   <li>{@link #updateVersioned(String, Long, Object...)}: Updates a versioned record, rejecting the update when the record has been changed since the expected version.</li>
  *   <li>{@link #findMany(String, Object...)}: Retrieves multiple records based on the given query and parameters.</li>
  *   <li>{@link #findOne(String, Object...)}: Retrieves a single record based on the given query and parameters.</li>
+ *   <li>{@link #updateRows(String, Object...)}: Executes an update, which may affect no rows, and returns the number of affected rows.</li>
+ *   <li>{@link #findValues(String, Class, Object...)} and {@link #findValue(String, Class, Object...)}: Retrieve the values of a single column.</li>
+ *   <li>{@link #findRows(String, RowMapper, Object...)}: Retrieves rows, which are not records of the entity, mapped by the given mapper.</li>
+ *   <li>{@link #batchUpdate(String, Collection, ParameterizedPreparedStatementSetter)}: Executes a statement for each item in a single JDBC batch.</li>
  *   <li>{@link #delete(String, Object...)}: Deletes a record based on the given query and identifier. Returns {@code true} in case of success of deleting operation.</li>
+ *   <li>{@link #batchUpdateLinks(String, Long, Collection)}: Executes a statement for each link of an owner in a single JDBC batch.</li>
+ *   <li>{@link #syncLinks(String, String, String, Long, Collection)}: Brings the links of an owner to the given set by applying only the difference in batches.</li>
  * </ul>
+ * Every statement executed by these methods is counted by the {@link StatementCounter}, and timed
+ * and recorded in the {@link QueryStatistics}, when they are enabled.
  *
  * @param <T> The type of the entity managed by this repository.
  * @see UserDbStorage
  * @see UserRowMapper
  */
-@Slf4j
+@CustomLog
 @RequiredArgsConstructor
 public abstract class BaseRepository<T> {
 
   protected final JdbcTemplate jdbc;
   protected final RowMapper<T> mapper;
+  private QueryStatistics statistics;
+
+  @Autowired(required = false)
+  protected void setQueryStatistics(final QueryStatistics statistics) {
+    this.statistics = statistics;
+  }
 
   protected long insert(final String query, Object... params) {
     log.debug("Executing insert with query: {} and parameters: {}", query, params);
@@ -62,23 +91,61 @@ public abstract class BaseRepository<T> {
 
   protected void update(final String query, Object... params) {
     log.debug("Executing update with query: {} and parameters: {}", query, params);
-    final int rowUpdated = jdbc.update(query, params);
+    final int rowUpdated = execute(query, params, () -> jdbc.update(query, params));
     if (rowUpdated == 0) {
       log.warn("Update failed: No rows affected for query: {} with parameters: {}", query, params);
       throw new InternalServerException("Data update failed: No rows affected.");
     }
   }
 
+  /**
+   * Executes an update, which may affect no rows.
+   *
+   * @return the number of affected rows
+   */
+  protected int updateRows(final String query, Object... params) {
+    log.debug("Executing update with query: {} and parameters: {}", query, params);
+    return execute(query, params, () -> jdbc.update(query, params));
+  }
+
+  /**
+   * Executes an update of a versioned row. The query takes the expected version as the last
+   * parameter and updates the row with any version when it is null, so a client that has read an
+   * older version of the row does not overwrite a newer one.
+   *
+   * @param query           the update query
+   * @param expectedVersion the version of the row read by the client, or null
+   * @param params          the query parameters before the version
+   * @throws ConflictException if the row has been changed since the expected version
+   */
+  protected void updateVersioned(final String query, final Long expectedVersion,
+      Object... params) {
+    final Object[] versionedParams = Arrays.copyOf(params, params.length + 1);
+    versionedParams[params.length] = expectedVersion;
+    log.debug("Executing versioned update with query: {} and parameters: {}", query,
+        versionedParams);
+    if (execute(query, versionedParams, () -> jdbc.update(query, versionedParams)) > 0) {
+      return;
+    }
+    if (expectedVersion != null) {
+      log.warn("Update conflict: version {} is outdated for query: {} with parameters: {}",
+          expectedVersion, query, params);
+      throw new ConflictException("Data update failed: the data has been changed since version "
+          + expectedVersion + ".");
+    }
+    log.warn("Update failed: No rows affected for query: {} with parameters: {}", query, params);
+    throw new InternalServerException("Data update failed: No rows affected.");
+  }
+
   protected Collection<T> findMany(final String query, Object... params) {
     log.debug("Executing findMany with query: {} and parameters: {}", query, params);
-    Collection<T> c = jdbc.query(query, mapper, params);
-    return c;
+    return query(query, params);
   }
 
   protected Optional<T> findOne(final String query, Object... params) {
     log.debug("Executing findOne with query: {} and parameters: {}", query, params);
     try {
-      final T result = jdbc.queryForObject(query, mapper, params);
+      final T result = DataAccessUtils.nullableSingleResult(query(query, params));
       log.debug("FindOne returned result: {}", result);
       return Optional.ofNullable(result);
     } catch (EmptyResultDataAccessException ignored) {
@@ -87,32 +154,182 @@ public abstract class BaseRepository<T> {
     }
   }
 
+  /**
+   * Retrieves the values of the single column returned by the query.
+   *
+   * @param type the type of the values
+   */
+  protected <R> List<R> findValues(final String query, final Class<R> type, Object... params) {
+    log.debug("Executing findValues with query: {} and parameters: {}", query, params);
+    return execute(query, params, () -> jdbc.queryForList(query, type, params), List::size);
+  }
+
+  /**
+   * Retrieves the value of the single column of the first row returned by the query.
+   *
+   * @param type the type of the value
+   */
+  protected <R> Optional<R> findValue(final String query, final Class<R> type, Object... params) {
+    return findValues(query, type, params).stream().findFirst();
+  }
+
+  /**
+   * Retrieves the rows returned by the query, which are not records of the entity.
+   *
+   * @param rowMapper the mapper of the rows
+   */
+  protected <R> List<R> findRows(final String query, final RowMapper<R> rowMapper,
+      Object... params) {
+    log.debug("Executing findRows with query: {} and parameters: {}", query, params);
+    return execute(query, params, () -> jdbc.query(query, rowMapper, params), List::size);
+  }
+
+  /**
+   * Runs the query and maps its rows. A {@link CompiledRowMapper} is compiled once for the result
+   * set, so its column indexes are not resolved again for every row.
+   */
+  private List<T> query(final String query, final Object... params) {
+    return execute(query, params, () -> mapRows(query, params), List::size);
+  }
+
+  private List<T> mapRows(final String query, final Object... params) {
+    if (!(mapper instanceof CompiledRowMapper<T> compiledRowMapper)) {
+      return jdbc.query(query, mapper, params);
+    }
+    return jdbc.query(query, rs -> {
+      final List<T> rows = new ArrayList<>();
+      if (!rs.next()) {
+        return rows;
+      }
+      final RowMapper<T> rowMapper = compiledRowMapper.compile(rs);
+      int rowNum = 0;
+      do {
+        rows.add(rowMapper.mapRow(rs, rowNum++));
+      } while (rs.next());
+      return rows;
+    }, params);
+  }
+
   protected boolean delete(final String query, Object... ids) {
     log.debug("Executing delete with query: {} and id: {}", query, ids);
-    final int rowDeleted = jdbc.update(query, ids);
+    final int rowDeleted = execute(query, ids, () -> jdbc.update(query, ids));
     log.debug("Rows affected after deleting: {}", rowDeleted);
     return rowDeleted > 0;
   }
 
   protected boolean checkExistence(final String query, Object... params) {
     try {
-      return Boolean.TRUE.equals(jdbc.queryForObject(query, Boolean.class, params));
+      return Boolean.TRUE.equals(execute(query, params,
+          () -> jdbc.queryForObject(query, Boolean.class, params), exists -> 1));
     } catch (EmptyResultDataAccessException ignored) {
       return false;
     }
   }
 
+  /**
+   * Executes the query once for every linked ID in a single JDBC batch. The query takes the owner
+   * ID as the first parameter and the linked ID as the second one.
+   *
+   * @param query     the insert or delete query
+   * @param ownerId   the ID of the owner of the links
+   * @param linkedIds the linked IDs
+   */
+  protected void batchUpdateLinks(final String query, final Long ownerId,
+      final Collection<Long> linkedIds) {
+    if (linkedIds.isEmpty()) {
+      return;
+    }
+    log.debug("Executing batch with query: {} for owner {} and linked IDs: {}", query, ownerId,
+        linkedIds);
+    batchUpdate(query, linkedIds, (ps, linkedId) -> {
+      ps.setLong(1, ownerId);
+      ps.setLong(2, linkedId);
+    });
+  }
+
+  /**
+   * Executes the query once for every item in a single JDBC batch.
+   *
+   * @param query  the insert, update or delete query
+   * @param items  the items
+   * @param setter the setter of the query parameters of an item
+   * @return the numbers of rows affected by the query for every item, in the order of the items
+   */
+  protected <E> int[] batchUpdate(final String query, final Collection<E> items,
+      final ParameterizedPreparedStatementSetter<E> setter) {
+    if (items.isEmpty()) {
+      return new int[0];
+    }
+    final int[][] counts = execute(query, new Object[] {items},
+        () -> jdbc.batchUpdate(query, items, items.size(), setter),
+        rows -> Arrays.stream(rows).flatMapToInt(Arrays::stream)
+            .map(count -> Math.max(count, 0)).sum());
+    return Arrays.stream(counts).flatMapToInt(Arrays::stream).toArray();
+  }
+
+  /**
+   * Replaces the links of the owner with the given linked IDs. The current links are read with the
+   * find query, then the links missing from the given IDs are deleted and the new ones inserted,
+   * one batch per statement. Unchanged links are not touched.
+   *
+   * @param findQuery   the query returning the currently linked IDs of the owner
+   * @param insertQuery the query inserting a link, see {@link #batchUpdateLinks}
+   * @param deleteQuery the query deleting a link, see {@link #batchUpdateLinks}
+   * @param ownerId     the ID of the owner of the links
+   * @param linkedIds   the IDs, which should be linked to the owner
+   */
+  protected void syncLinks(final String findQuery, final String insertQuery,
+      final String deleteQuery, final Long ownerId, final Collection<Long> linkedIds) {
+    final Set<Long> current = new HashSet<>(execute(findQuery, new Object[] {ownerId},
+        () -> jdbc.queryForList(findQuery, Long.class, ownerId), List::size));
+    final Set<Long> target = new HashSet<>(linkedIds);
+    final List<Long> removed = current.stream()
+        .filter(id -> !target.contains(id))
+        .toList();
+    final List<Long> added = target.stream()
+        .filter(id -> !current.contains(id))
+        .toList();
+    log.debug("Syncing links of owner {}: removing {}, adding {}", ownerId, removed, added);
+    batchUpdateLinks(deleteQuery, ownerId, removed);
+    batchUpdateLinks(insertQuery, ownerId, added);
+  }
+
   private GeneratedKeyHolder insertData(final String query, Object... params) {
     final GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
-    jdbc.update(connection -> {
+    execute(query, params, () -> jdbc.update(connection -> {
       PreparedStatement ps = connection.prepareStatement(
           query, Statement.RETURN_GENERATED_KEYS);
       for (int idx = 0; idx < params.length; idx++) {
         ps.setObject(idx + 1, params[idx]);
       }
       return ps;
-    }, keyHolder);
+    }, keyHolder));
     return keyHolder;
   }
 
+  private int execute(final String query, final Object[] params, final Supplier<Integer> statement) {
+    return execute(query, params, statement, Integer::intValue);
+  }
+
+  /**
+   * Executes the statement, counts it and records its time and the number of rows it returned or
+   * affected. Failed statements are recorded with no rows.
+   */
+  private <R> R execute(final String query, final Object[] params, final Supplier<R> statement,
+      final ToIntFunction<R> rows) {
+    StatementCounter.increment();
+    if (statistics == null) {
+      return statement.get();
+    }
+    final long start = System.nanoTime();
+    R result = null;
+    try {
+      result = statement.get();
+      return result;
+    } finally {
+      statistics.record(query, params, System.nanoTime() - start,
+          result == null ? 0 : rows.applyAsInt(result));
+    }
+  }
+
 }
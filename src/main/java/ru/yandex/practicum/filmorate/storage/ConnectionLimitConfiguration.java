@@ -0,0 +1,44 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the connection limit in the virtual thread mode.
+ * <p>
+ * The mode is switched on by {@code spring.threads.virtual.enabled}, which runs requests, and the
+ * storage calls made by them, on virtual threads. Connections are then limited by
+ * {@link ConnectionLimitingDataSource} to {@code filmorate.jdbc.connection-limit}, the size of the
+ * pool by default. With platform threads the request thread pool bounds them already.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ConnectionLimitConfiguration {
+
+  /**
+   * Wraps the data source before it is used by the SQL initialization, templates and transaction
+   * managers.
+   */
+  @Bean
+  public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+      @Value("${filmorate.jdbc.connection-limit:${spring.datasource.hikari.maximum-pool-size:10}}")
+      final int connectionLimit,
+      @Value("${filmorate.jdbc.acquire-timeout:PT30S}") final Duration acquireTimeout) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (bean instanceof DataSource dataSource
+            && !(bean instanceof ConnectionLimitingDataSource)) {
+          return new ConnectionLimitingDataSource(dataSource, connectionLimit, acquireTimeout);
+        }
+        return bean;
+      }
+    };
+  }
+}
@@ -0,0 +1,120 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * A data source, which bounds the number of connections in use.
+ * <p>
+ * With virtual threads every request may block on a connection at once, and thousands of threads
+ * spinning in the handoff of the connection pool only slow down those holding connections. A fair
+ * semaphore with no more permits than the pool has connections queues them in arrival order
+ * instead. A permit is taken before a connection is obtained and given back when it is closed; a
+ * request, which waits longer than the acquire timeout, fails like one timed out by the pool.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+  private final Semaphore permits;
+  private final long acquireTimeoutNanos;
+
+  /**
+   * Creates the data source.
+   *
+   * @param target         the data source to obtain connections from
+   * @param maxConnections the number of connections in use at once
+   * @param acquireTimeout the time to wait for a connection
+   */
+  public ConnectionLimitingDataSource(final DataSource target, final int maxConnections,
+      final Duration acquireTimeout) {
+    super(target);
+    if (maxConnections < 1) {
+      throw new IllegalArgumentException("At least one connection is required, got "
+          + maxConnections);
+    }
+    this.permits = new Semaphore(maxConnections, true);
+    this.acquireTimeoutNanos = acquireTimeout.toNanos();
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    try {
+      return limited(obtainTargetDataSource().getConnection());
+    } catch (final SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public Connection getConnection(final String username, final String password)
+      throws SQLException {
+    acquire();
+    try {
+      return limited(obtainTargetDataSource().getConnection(username, password));
+    } catch (final SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  int availablePermits() {
+    return permits.availablePermits();
+  }
+
+  private void acquire() throws SQLException {
+    try {
+      if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+        throw new SQLTransientConnectionException("Connection is not available, request timed out "
+            + "after " + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos) + "ms.");
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a connection.", e);
+    }
+  }
+
+  /**
+   * Wraps the connection to give the permit back once, when the connection is closed.
+   */
+  private Connection limited(final Connection target) {
+    final AtomicBoolean released = new AtomicBoolean();
+    return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+        new Class<?>[] {ConnectionProxy.class},
+        (proxy, method, args) -> switch (method.getName()) {
+          case "equals" -> proxy == args[0];
+          case "hashCode" -> System.identityHashCode(proxy);
+          case "getTargetConnection" -> target;
+          case "close" -> {
+            try {
+              yield invoke(target, method, args);
+            } finally {
+              if (released.compareAndSet(false, true)) {
+                permits.release();
+              }
+            }
+          }
+          default -> invoke(target, method, args);
+        });
+  }
+
+  private static Object invoke(final Connection target, final Method method, final Object[] args)
+      throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (final InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+}
@@ -1,14 +1,20 @@
 package ru.yandex.practicum.filmorate.storage;
 
 import java.util.Collection;
+import java.util.List;
 import ru.yandex.practicum.filmorate.model.Event;
 import ru.yandex.practicum.filmorate.storage.dao.EventDbStorage;
+import ru.yandex.practicum.filmorate.storage.file.MappedEventStorage;
 
 
 /**
  * EventStorage interface for managing event data in the storage system.
+ * <p>
+ * The implementation is selected with the {@code filmorate.event.storage} property: {@code db}
+ * (default) for the relational tables, {@code mmap} for the memory-mapped event log.
  *
  * @see EventDbStorage
+ * @see MappedEventStorage
  */
 public interface EventStorage {
 
@@ -26,4 +32,54 @@ public interface EventStorage {
    * @return a collection of events associated with the specified user
    */
   Collection<Event> findUserEvents(Long userId);
+
+  /**
+   * Retrieves events associated with a specific user, which were added after the specified event.
+   *
+   * @param userId      the ID of the user whose events are to be retrieved, must not be null
+   * @param lastEventId the ID of the last event already known to the caller, must not be null
+   * @return a collection of events ordered by ID
+   */
+  Collection<Event> findUserEventsAfter(Long userId, Long lastEventId);
+
+  /**
+   * Retrieves the newest events associated with any of the specified users.
+   *
+   * @param userIds the IDs of the users whose events are to be retrieved, must not be empty
+   * @param count   the maximum number of events to return
+   * @return a list of events ordered from the newest to the oldest
+   */
+  List<Event> findLatestEventsOfUsers(Collection<Long> userIds, int count);
+
+  /**
+   * Retrieves the oldest events, which occurred before the specified moment.
+   *
+   * @param timestamp the moment in epoch milliseconds, must not be null
+   * @param limit     the maximum number of events to return
+   * @return a collection of events ordered by ID
+   */
+  default Collection<Event> findEventsOlderThan(Long timestamp, int limit) {
+    return findEventsOlderThan(timestamp, 0L, limit);
+  }
+
+  /**
+   * Retrieves the oldest events with IDs greater than the given one, which occurred before the
+   * specified moment. Used to read the old events page by page, when some of them are left in the
+   * feed.
+   *
+   * @param timestamp the moment in epoch milliseconds, must not be null
+   * @param afterId   the ID of the last event of the previous page, {@code 0} for the first page
+   * @param limit     the maximum number of events to return
+   * @return a collection of events ordered by ID
+   */
+  Collection<Event> findEventsOlderThan(Long timestamp, Long afterId, int limit);
+
+  /**
+   * Removes events from the feed in a single transaction. Archived events are moved to the
+   * archive, dropped events are deleted without archiving.
+   *
+   * @param archivedIds the IDs of the events to be moved to the archive
+   * @param droppedIds  the IDs of the events to be deleted
+   */
+  void archiveEvents(Collection<Long> archivedIds, Collection<Long> droppedIds);
 }
@@ -2,6 +2,7 @@ package ru.yandex.practicum.filmorate.storage;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.model.Film;
@@ -19,6 +20,23 @@ import ru.yandex.practicum.filmorate.storage.in_memory.InMemoryFilmStorage;
  */
 public interface FilmStorage extends Storage<Film> {
 
+  /**
+   * Retrieves the version of a film, which is incremented whenever the film, its likes or its
+   * directors change.
+   *
+   * @param id the ID of the film.
+   * @return the version, or empty if the film does not exist.
+   */
+  Optional<Long> findVersion(Long id);
+
+  /**
+   * Retrieves a stamp of the versions of all films, which changes whenever a film is added,
+   * changed or deleted.
+   *
+   * @return the version stamp of all films.
+   */
+  String getVersionStamp();
+
   /**
    * Retrieves a list of the top-rated films based on the number of likes.
    *
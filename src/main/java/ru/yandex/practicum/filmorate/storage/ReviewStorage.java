@@ -3,22 +3,66 @@ package ru.yandex.practicum.filmorate.storage;
 import ru.yandex.practicum.filmorate.model.Review;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
+/**
+ * Оценки отзывов ({@link #addLike}, {@link #addDislike}, {@link #removeLike}, {@link #removeDislike})
+ * сохраняют оценку пользователя и сразу меняют рейтинг отзыва на 1, перескакивая 0 при добавлении
+ * оценки, и возвращают отзыв с новым рейтингом. Добавление возвращает пустой результат, если отзыва
+ * нет или такая оценка уже поставлена, удаление - если оценки пользователя не было; рейтинг тогда
+ * не меняется.
+ * <p>
+ * {@link #saveVote} и {@link #deleteVote} меняют только оценку пользователя, не блокируя строку
+ * отзыва. Оценка тогда записывается в журнал через {@link #addPendingUseful} в той же транзакции,
+ * а {@link #applyPendingUseful()} применяет накопленные оценки пакетом, по порядку записи в журнал,
+ * так что 0 перескакивается по актуальному рейтингу. Журнал переживает перезапуск, поэтому
+ * неприменённые оценки не теряются.
+ * <p>
+ * Версия отзыва увеличивается при каждом изменении его текста. Рейтинг версию не меняет: он
+ * складывается из оценок, а не перезаписывается, поэтому оценки не конфликтуют с правками отзыва.
+ */
 public interface ReviewStorage extends Storage<Review> {
 
-    boolean isLikeAndUsefulExist(Long reviewId, Long userId, Boolean isUseful);
-
     boolean isLikeExist(Long reviewId, Long userId);
 
-    void addLike(Long reviewId, Long userId);
+    Optional<Review> addLike(Long reviewId, Long userId);
 
-    void addDislike(Long reviewId, Long userId);
+    Optional<Review> addDislike(Long reviewId, Long userId);
 
     void removeLikes(Long reviewId);
 
-    void removeLike(Long reviewId, Long userId);
+    Optional<Review> removeLike(Long reviewId, Long userId);
+
+    Optional<Review> removeDislike(Long reviewId, Long userId);
+
+    boolean saveVote(Long reviewId, Long userId, Boolean isUseful);
+
+    boolean deleteVote(Long reviewId, Long userId);
 
-    void removeDislike(Long reviewId, Long userId);
+    /**
+     * Записывает оценку в журнал неприменённых оценок.
+     *
+     * @return идентификатор записи журнала
+     */
+    Long addPendingUseful(Long reviewId, int score, boolean skipZero);
+
+    /**
+     * Применяет оценки из журнала и удаляет их из него.
+     *
+     * @return идентификаторы примененных записей журнала по идентификаторам отзывов
+     */
+    Map<Long, List<Long>> applyPendingUseful();
+
+    Optional<Long> findVersion(Long reviewId);
 
     Collection<Review> findAllByFilmId(Long filmId, Integer count);
+
+    /**
+     * Возвращает страницу отзывов фильма (или всех отзывов, если filmId не задан), упорядоченных по
+     * (useful DESC, review_id). Страница начинается после отзыва afterReviewId с оценкой afterUseful,
+     * либо с начала, если afterReviewId не задан.
+     */
+    Collection<Review> findAllByFilmId(Long filmId, Integer count, Integer afterUseful, Long afterReviewId);
 }
@@ -0,0 +1,35 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.Collection;
+import java.util.List;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.storage.dao.TimelineDbStorage;
+
+/**
+ * TimelineStorage interface for managing the persisted friends-activity timelines.
+ * <p>
+ * A timeline entry is a copy of an event delivered to a reader (a user who has the event author in
+ * the friend list). Entries are written when an event is fanned out and read back newest first,
+ * independently of the {@link EventStorage} implementation.
+ *
+ * @see TimelineDbStorage
+ */
+public interface TimelineStorage {
+
+  /**
+   * Adds the event to the timelines of all the given users in a single batch.
+   *
+   * @param userIds the IDs of the users whose timelines receive the event
+   * @param event   the event to be added, must have an ID
+   */
+  void addToTimelines(Collection<Long> userIds, Event event);
+
+  /**
+   * Retrieves the newest events from the timeline of the specified user.
+   *
+   * @param userId the ID of the timeline owner, must not be null
+   * @param count  the maximum number of events to return
+   * @return a list of events ordered from the newest to the oldest
+   */
+  List<Event> findTimeline(Long userId, int count);
+}
@@ -1,6 +1,8 @@
 package ru.yandex.practicum.filmorate.storage;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.model.User;
@@ -45,5 +47,58 @@ public interface UserStorage extends Storage<User> {
      */
     List<User> getFriends(Long id);
 
+    /**
+     * Retrieves the IDs of the users who have the specified user in their friend list.
+     *
+     * @param id    The ID of the user whose followers are being retrieved.
+     * @param limit The maximum number of IDs to return.
+     * @return A list of follower IDs, not longer than the limit.
+     */
+    List<Long> getFollowerIds(Long id, int limit);
+
+    /**
+     * Retrieves the IDs of the users, who are followed by more users than the limit.
+     *
+     * @param followerLimit The number of followers a user must exceed.
+     * @return A list of IDs of the popular users.
+     */
+    List<Long> getPopularUserIds(int followerLimit);
+
+    /**
+     * Retrieves the IDs of the user's friends among the given users, looking each of them up in the
+     * friend list, so the cost does not depend on the number of friends.
+     *
+     * @param id      The ID of the user whose friends are being retrieved.
+     * @param userIds The IDs of the users to look up.
+     * @return A list of IDs of the given users, who are friends of the user.
+     */
+    List<Long> getFriendIdsAmong(Long id, Collection<Long> userIds);
+
     Long getSimilarUser(Long userId);
+
+    /**
+     * Retrieves the version of a user, which is incremented whenever the user or their friend
+     * list changes.
+     *
+     * @param id The ID of the user.
+     * @return The version, or empty if the user does not exist.
+     */
+    Optional<Long> findVersion(Long id);
+
+    /**
+     * Retrieves a stamp of the versions of all users, which changes whenever a user is added,
+     * changed or deleted.
+     *
+     * @return The version stamp of all users.
+     */
+    String getVersionStamp();
+
+    /**
+     * Retrieves a stamp of the versions of the user and their friends, which changes whenever the
+     * friend list or one of the friends changes.
+     *
+     * @param id The ID of the user.
+     * @return The version stamp, or empty if the user does not exist.
+     */
+    Optional<String> getFriendsVersionStamp(Long id);
 }
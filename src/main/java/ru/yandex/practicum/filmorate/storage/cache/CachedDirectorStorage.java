@@ -0,0 +1,73 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import java.util.Collection;
+import java.util.Optional;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import ru.yandex.practicum.filmorate.model.Director;
+import ru.yandex.practicum.filmorate.storage.DirectorStorage;
+import ru.yandex.practicum.filmorate.storage.dao.DirectorDbStorage;
+
+/**
+ * Read-through cache of the {@link DirectorStorage}.
+ * <p>
+ * Reads are answered from an in-memory copy of the director table. Writes go to the database and
+ * then drop the copy, so the next read loads the changed table. The cached directors are shared
+ * and must not be modified.
+ *
+ * @see DirectorDbStorage
+ */
+@Repository
+@Primary
+public class CachedDirectorStorage implements DirectorStorage {
+
+  private final DirectorDbStorage directorStorage;
+  private final ReferenceDataCache<Director> cache;
+
+  public CachedDirectorStorage(final DirectorDbStorage directorStorage) {
+    this.directorStorage = directorStorage;
+    this.cache = new ReferenceDataCache<>(directorStorage::findAll, Director::getId);
+  }
+
+  @Override
+  public Collection<Director> findAll() {
+    return cache.findAll();
+  }
+
+  @Override
+  public Optional<Director> findById(final Long id) {
+    return cache.findById(id);
+  }
+
+  @Override
+  public boolean isExist(final Long id) {
+    return cache.contains(id);
+  }
+
+  @Override
+  public Director save(final Director director) {
+    try {
+      return directorStorage.save(director);
+    } finally {
+      cache.invalidate();
+    }
+  }
+
+  @Override
+  public Director update(final Director director) {
+    try {
+      return directorStorage.update(director);
+    } finally {
+      cache.invalidate();
+    }
+  }
+
+  @Override
+  public void delete(final Long id) {
+    try {
+      directorStorage.delete(id);
+    } finally {
+      cache.invalidate();
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.storage.GenreStorage;
+import ru.yandex.practicum.filmorate.storage.dao.GenreDbStorage;
+
+/**
+ * Read-through cache of the {@link GenreStorage}.
+ * <p>
+ * Genres are static reference data, so the table is read once and lookups, existence checks and
+ * genre validation are answered from memory. Genres of a film are read from the database.
+ * The cached genres are shared and must not be modified.
+ *
+ * @see GenreDbStorage
+ */
+@Repository
+@Primary
+public class CachedGenreStorage implements GenreStorage {
+
+  private final GenreDbStorage genreStorage;
+  private final ReferenceDataCache<Genre> cache;
+
+  public CachedGenreStorage(final GenreDbStorage genreStorage) {
+    this.genreStorage = genreStorage;
+    this.cache = new ReferenceDataCache<>(genreStorage::findAll, Genre::getId);
+  }
+
+  @Override
+  public Collection<Genre> findAll() {
+    return cache.findAll();
+  }
+
+  @Override
+  public Optional<Genre> findById(final Long id) {
+    return cache.findById(id);
+  }
+
+  @Override
+  public boolean isExist(final Long id) {
+    return cache.contains(id);
+  }
+
+  @Override
+  public Collection<Genre> getGenresForFilm(final Long filmId) {
+    return genreStorage.getGenresForFilm(filmId);
+  }
+
+  @Override
+  public Integer countExistedIds(final Set<Long> genreIds) {
+    return cache.countContained(genreIds);
+  }
+}
@@ -0,0 +1,43 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import java.util.Collection;
+import java.util.Optional;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import ru.yandex.practicum.filmorate.model.MpaRating;
+import ru.yandex.practicum.filmorate.storage.MpaRatingStorage;
+import ru.yandex.practicum.filmorate.storage.dao.MpaRatingDbStorage;
+
+/**
+ * Read-through cache of the {@link MpaRatingStorage}.
+ * <p>
+ * MPA ratings are static reference data, so the table is read once and all lookups are answered
+ * from memory. The cached ratings are shared and must not be modified.
+ *
+ * @see MpaRatingDbStorage
+ */
+@Repository
+@Primary
+public class CachedMpaRatingStorage implements MpaRatingStorage {
+
+  private final ReferenceDataCache<MpaRating> cache;
+
+  public CachedMpaRatingStorage(final MpaRatingDbStorage mpaRatingStorage) {
+    this.cache = new ReferenceDataCache<>(mpaRatingStorage::findAll, MpaRating::getId);
+  }
+
+  @Override
+  public Collection<MpaRating> findAll() {
+    return cache.findAll();
+  }
+
+  @Override
+  public Optional<MpaRating> findById(final Long id) {
+    return cache.findById(id);
+  }
+
+  @Override
+  public boolean isExist(final Long id) {
+    return cache.contains(id);
+  }
+}
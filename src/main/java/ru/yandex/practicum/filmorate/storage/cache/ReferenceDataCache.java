@@ -0,0 +1,100 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * An in-memory copy of a small reference table.
+ * <p>
+ * The table is read in full on the first access and held as an immutable map ordered like the
+ * loading query, so lookups afterwards do not touch the database. Invalidation drops the map, and
+ * the next access reads the table again. Loading and invalidation are serialized, so a map read
+ * before a write is never published after it; a write inside a transaction drops the map once more
+ * on completion, as the table may have been read again before the commit. They are serialized by a
+ * lock rather than a monitor, so a virtual thread loading the table does not pin its carrier.
+ *
+ * @param <T> the type of the cached entities
+ */
+final class ReferenceDataCache<T> {
+
+  private final Supplier<Collection<T>> loader;
+  private final Function<T, Long> idExtractor;
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile Map<Long, T> entries;
+
+  ReferenceDataCache(final Supplier<Collection<T>> loader, final Function<T, Long> idExtractor) {
+    this.loader = loader;
+    this.idExtractor = idExtractor;
+  }
+
+  Collection<T> findAll() {
+    return entries().values();
+  }
+
+  Optional<T> findById(final Long id) {
+    return Optional.ofNullable(entries().get(id));
+  }
+
+  boolean contains(final Long id) {
+    return entries().containsKey(id);
+  }
+
+  int countContained(final Set<Long> ids) {
+    final Map<Long, T> current = entries();
+    int count = 0;
+    for (final Long id : ids) {
+      if (current.containsKey(id)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  void invalidate() {
+    clear();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(final int status) {
+          clear();
+        }
+      });
+    }
+  }
+
+  private void clear() {
+    lock.lock();
+    try {
+      entries = null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Map<Long, T> entries() {
+    final Map<Long, T> current = entries;
+    if (current != null) {
+      return current;
+    }
+    lock.lock();
+    try {
+      if (entries == null) {
+        final Map<Long, T> loaded = new LinkedHashMap<>();
+        loader.get().forEach(entity -> loaded.put(idExtractor.apply(entity), entity));
+        entries = Collections.unmodifiableMap(loaded);
+      }
+      return entries;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -1,6 +1,6 @@
 package ru.yandex.practicum.filmorate.storage.dao;
 
-import lombok.extern.slf4j.Slf4j;
+import lombok.CustomLog;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -26,7 +26,7 @@ import java.util.Optional;
  * @see JdbcTemplate
  */
 @Repository
-@Slf4j
+@CustomLog
 public class DirectorDbStorage extends BaseRepository<Director> implements DirectorStorage {
 
     private static final String SELECT_ALL_QUERY = "SELECT * FROM director GROUP BY id";
@@ -36,6 +36,10 @@ public class DirectorDbStorage extends BaseRepository<Director> implements Direc
     private static final String UPDATE_DIRECTOR_QUERY = "UPDATE director SET name = ? WHERE id = ?";
     private static final String DELETE_DIRECTOR_QUERY = "DELETE FROM director WHERE id = ?";
     private static final String SELECT_DIRECTOR_BY_NAME = "SELECT * FROM director WHERE name =?";
+    private static final String INCREMENT_FILM_VERSIONS_QUERY = """
+            UPDATE film SET version = version + 1
+            WHERE id IN (SELECT film_id FROM director_film WHERE director_id = ?)
+            """;
 
     @Autowired
     public DirectorDbStorage(JdbcTemplate jdbc, RowMapper<Director> mapper) {
@@ -72,11 +76,13 @@ public class DirectorDbStorage extends BaseRepository<Director> implements Direc
         findById(director.getId())
                 .orElseThrow(() -> new NotFoundException("Genre by ID = " + director.getId() + " not found"));
         update(UPDATE_DIRECTOR_QUERY, director.getName(), director.getId());
+        updateRows(INCREMENT_FILM_VERSIONS_QUERY, director.getId());
         return director;
     }
 
     @Override
     public void delete(Long id) {
+        updateRows(INCREMENT_FILM_VERSIONS_QUERY, id);
         delete(DELETE_DIRECTOR_QUERY, id);
     }
 }
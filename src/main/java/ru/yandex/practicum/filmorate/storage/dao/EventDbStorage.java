@@ -1,12 +1,16 @@
 package ru.yandex.practicum.filmorate.storage.dao;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Collection;
-import lombok.extern.slf4j.Slf4j;
+import java.util.List;
+import lombok.CustomLog;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.model.Event;
 import ru.yandex.practicum.filmorate.storage.BaseRepository;
 import ru.yandex.practicum.filmorate.storage.EventStorage;
@@ -22,7 +26,8 @@ import ru.yandex.practicum.filmorate.storage.EventStorage;
  * @see BaseRepository
  */
 @Repository
-@Slf4j
+@ConditionalOnProperty(name = "filmorate.event.storage", havingValue = "db", matchIfMissing = true)
+@CustomLog
 public class EventDbStorage extends BaseRepository<Event> implements EventStorage {
 
   private static final String INSERT_QUERY = """
@@ -42,6 +47,54 @@ public class EventDbStorage extends BaseRepository<Event> implements EventStorag
       WHERE e.USER_ID = ?
       """;
 
+  private static final String FIND_USER_EVENTS_AFTER_QUERY = """
+      SELECT e.*,
+       et.TYPE AS event_type,
+       o.NAME AS operation
+      FROM EVENT e
+      LEFT JOIN EVENT_TYPE et ON e.EVENT_TYPE_ID = et.ID
+      LEFT JOIN OPERATION o ON e.OPERATION_ID = o.ID
+      WHERE e.USER_ID = ? AND e.ID > ?
+      ORDER BY e.ID
+      """;
+
+  private static final String FIND_LATEST_EVENTS_OF_USERS_QUERY = """
+      SELECT e.*,
+       et.TYPE AS event_type,
+       o.NAME AS operation
+      FROM EVENT e
+      LEFT JOIN EVENT_TYPE et ON e.EVENT_TYPE_ID = et.ID
+      LEFT JOIN OPERATION o ON e.OPERATION_ID = o.ID
+      WHERE e.USER_ID = ANY(?)
+      ORDER BY e.ID DESC
+      LIMIT ?
+      """;
+
+  private static final String FIND_OLDER_THAN_QUERY = """
+      SELECT e.*,
+       et.TYPE AS event_type,
+       o.NAME AS operation
+      FROM EVENT e
+      LEFT JOIN EVENT_TYPE et ON e.EVENT_TYPE_ID = et.ID
+      LEFT JOIN OPERATION o ON e.OPERATION_ID = o.ID
+      WHERE e.TIMESTAMP < ?
+        AND e.ID > ?
+        AND e.ID < COALESCE((SELECT n.ID FROM EVENT n WHERE n.TIMESTAMP >= ?
+                             ORDER BY n.TIMESTAMP LIMIT 1), 9223372036854775807)
+      ORDER BY e.ID
+      LIMIT ?
+      """;
+
+  private static final String ARCHIVE_QUERY = """
+      INSERT INTO event_archive (id, event_type_id, operation_id, timestamp, user_id, entity_id)
+      SELECT id, event_type_id, operation_id, timestamp, user_id, entity_id
+      FROM event
+      WHERE id = ?
+      """;
+
+  private static final String DELETE_TIMELINE_ENTRIES_QUERY = "DELETE FROM timeline WHERE event_id = ?";
+  private static final String DELETE_QUERY = "DELETE FROM event WHERE id = ?";
+
   @Autowired
   public EventDbStorage(final JdbcTemplate jdbc, final RowMapper<Event> mapper) {
     super(jdbc, mapper);
@@ -65,4 +118,50 @@ public class EventDbStorage extends BaseRepository<Event> implements EventStorag
     log.debug("Inside 'findUSerEvents' method to get feed for user with id {}", userId);
     return findMany(FIND_ALL_USER_EVENTS_QUERY, userId);
   }
+
+  @Override
+  public Collection<Event> findUserEventsAfter(final Long userId, final Long lastEventId) {
+    log.debug("Inside 'findUserEventsAfter' to get events for user with id {} after event {}",
+        userId, lastEventId);
+    return findMany(FIND_USER_EVENTS_AFTER_QUERY, userId, lastEventId);
+  }
+
+  @Override
+  public List<Event> findLatestEventsOfUsers(final Collection<Long> userIds, final int count) {
+    log.debug("Inside 'findLatestEventsOfUsers' to get {} events of users {}", count, userIds);
+    return findMany(FIND_LATEST_EVENTS_OF_USERS_QUERY, userIds.toArray(Long[]::new), count)
+        .stream()
+        .toList();
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Events are added in chronological order, so the scan of the primary key stops at the first
+   * event, which is not older than the specified moment, found by the timestamp index.
+   */
+  @Override
+  public Collection<Event> findEventsOlderThan(final Long timestamp, final Long afterId,
+      final int limit) {
+    log.debug("Inside 'findEventsOlderThan' to get {} events older than {} after event {}", limit,
+        timestamp, afterId);
+    final Timestamp moment = new Timestamp(timestamp);
+    return findMany(FIND_OLDER_THAN_QUERY, moment, afterId, moment, limit);
+  }
+
+  @Override
+  @Transactional
+  public void archiveEvents(final Collection<Long> archivedIds, final Collection<Long> droppedIds) {
+    log.debug("Inside 'archiveEvents' to archive {} and drop {} events", archivedIds.size(),
+        droppedIds.size());
+    final List<Long> removedIds = new ArrayList<>(archivedIds);
+    removedIds.addAll(droppedIds);
+    batchUpdateIds(ARCHIVE_QUERY, archivedIds);
+    batchUpdateIds(DELETE_TIMELINE_ENTRIES_QUERY, removedIds);
+    batchUpdateIds(DELETE_QUERY, removedIds);
+  }
+
+  private void batchUpdateIds(final String query, final Collection<Long> ids) {
+    batchUpdate(query, ids, (ps, id) -> ps.setLong(1, id));
+  }
 }
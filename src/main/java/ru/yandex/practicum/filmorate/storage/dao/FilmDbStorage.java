@@ -5,16 +5,19 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import lombok.extern.slf4j.Slf4j;
+import lombok.CustomLog;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Director;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
 import ru.yandex.practicum.filmorate.model.SearchCriteria;
 import ru.yandex.practicum.filmorate.storage.BaseRepository;
 import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.GenreStorage;
 import ru.yandex.practicum.filmorate.storage.Storage;
 
 /**
@@ -28,7 +31,7 @@ import ru.yandex.practicum.filmorate.storage.Storage;
  * @see BaseRepository
  */
 @Repository("filmDbStorage")
-@Slf4j
+@CustomLog
 public class FilmDbStorage extends BaseRepository<Film> implements FilmStorage {
 
   private static final String INSERT_QUERY = """
@@ -49,8 +52,9 @@ public class FilmDbStorage extends BaseRepository<Film> implements FilmStorage {
       description = ?,
       release_date = ?,
       duration =? ,
-      mpa_rating_id = ?
-      WHERE id = ?
+      mpa_rating_id = ?,
+      version = version + 1
+      WHERE id = ? AND version = COALESCE(?, version)
       """;
   private static final String FIND_BY_ID = """
       SELECT f.*,
@@ -108,10 +112,19 @@ public class FilmDbStorage extends BaseRepository<Film> implements FilmStorage {
       GROUP BY f.ID, mr.NAME
       """;
   private static final String EXIST_QUERY = "SELECT EXISTS(SELECT 1 FROM film WHERE id = ?)";
+  private static final String FIND_VERSION_QUERY = "SELECT version FROM film WHERE id = ?";
+  private static final String FIND_VERSION_STAMP_QUERY = """
+      SELECT COUNT(*), COALESCE(MAX(id), 0), COALESCE(SUM(version), 0)
+      FROM film
+      """;
+  private static final String INCREMENT_VERSION_QUERY = "UPDATE film SET version = version + 1 WHERE id = ?";
   private static final String DELETE_BY_ID_QUERY = "DELETE FROM film WHERE id =?";
-  private static final String REMOVE_GENRES_QUERY = "DELETE from film_genre WHERE film_id = ?";
+  private static final String FIND_GENRE_IDS_QUERY = "SELECT genre_id FROM film_genre WHERE film_id = ?";
+  private static final String REMOVE_GENRE_QUERY = "DELETE FROM film_genre WHERE film_id = ? AND genre_id = ?";
   private static final String REMOVE_LIKE_QUERY = "DELETE FROM user_like WHERE film_id = ? AND user_id = ?";
-  private static final String INSERT_DIRECTOR_QUERY = "INSERT INTO director_film (director_id, film_id) VALUES (?, ?)";
+  private static final String INSERT_DIRECTOR_QUERY = "INSERT INTO director_film (film_id, director_id) VALUES (?, ?)";
+  private static final String FIND_DIRECTOR_IDS_QUERY = "SELECT director_id FROM director_film WHERE film_id = ?";
+  private static final String REMOVE_DIRECTOR_QUERY = "DELETE FROM director_film WHERE film_id = ? AND director_id = ?";
   private static final String SELECT_ALL_DIRECTORS_FILM_BY_LIKE = """
       SELECT f.*,
              mr.NAME AS mpa_name,
@@ -151,7 +164,6 @@ public class FilmDbStorage extends BaseRepository<Film> implements FilmStorage {
       GROUP BY f.ID, mr.NAME
       ORDER BY f.release_date
       """;
-  private static final String REMOVE_DIRECTOR_QUERY = "DELETE from director_film WHERE film_id = ?";
   private static final String SEARCH_BY_ONE_CRITERIA_START = """
       SELECT f.*,
       	     mr.NAME AS mpa_name,
@@ -174,11 +186,11 @@ public class FilmDbStorage extends BaseRepository<Film> implements FilmStorage {
       ORDER BY count(ul.USER_ID) desc
       """;
 
-  private final GenreDbStorage genreStorage;
+  private final GenreStorage genreStorage;
 
   @Autowired
   public FilmDbStorage(final JdbcTemplate jdbc, final RowMapper<Film> mapper,
-      GenreDbStorage genreStorage) {
+      GenreStorage genreStorage) {
     super(jdbc, mapper);
     this.genreStorage = genreStorage;
   }
@@ -196,6 +208,7 @@ public class FilmDbStorage extends BaseRepository<Film> implements FilmStorage {
         film.getMpa().getId()
     );
     film.setId(id);
+    film.setVersion(0L);
     insertGenresToDb(film);
     insertDirectorToDb(film);
     log.debug("Film saved with ID: {}.", id);
@@ -205,7 +218,8 @@ public class FilmDbStorage extends BaseRepository<Film> implements FilmStorage {
   @Override
   public Film update(final Film film) {
     log.debug("Inside 'update' method to change a film record with data: {}", film);
-    update(UPDATE_FILM_QUERY,
+    updateVersioned(UPDATE_FILM_QUERY,
+        film.getVersion(),
         film.getName(),
         film.getDescription(),
         Date.valueOf(film.getReleaseDate()),
@@ -215,6 +229,7 @@ public class FilmDbStorage extends BaseRepository<Film> implements FilmStorage {
     );
     updateGenres(film);
     updateDirector(film);
+    film.setVersion(findVersion(film.getId()).orElseThrow());
     log.debug("Film updated.");
     return film;
   }
@@ -241,12 +256,23 @@ public class FilmDbStorage extends BaseRepository<Film> implements FilmStorage {
     return checkExistence(EXIST_QUERY, id);
   }
 
+  @Override
+  public Optional<Long> findVersion(final Long id) {
+    return findValue(FIND_VERSION_QUERY, Long.class, id);
+  }
+
+  @Override
+  public String getVersionStamp() {
+    return findRows(FIND_VERSION_STAMP_QUERY, (rs, rowNum) ->
+        rs.getLong(1) + "-" + rs.getLong(2) + "-" + rs.getLong(3)).getFirst();
+  }
+
   @Override
   public List<Film> getTopFilms(final int count, final Long genreId, final Integer year) {
     log.debug("Getting top {} liked films.", count);
+    final Genre genre = genreId == null ? null : genreStorage.findById(genreId).orElse(null);
     return findMany(GET_TOP_LIKED_FILMS_QUERY, count).stream()
-        .filter(film -> genreId == null || film.getGenres()
-            .contains(genreStorage.findById(genreId).orElse(null)))
+        .filter(film -> genreId == null || film.getGenres().contains(genre))
         .filter(film -> year == null || film.getReleaseDate().getYear() == year)
         .toList();
   }
@@ -255,56 +281,56 @@ public class FilmDbStorage extends BaseRepository<Film> implements FilmStorage {
   public Film addLike(final Long filmId, final Long userId) {
     log.debug("Inside 'addLike' method to save like from user {} for the film {}.", userId, filmId);
     insertCompositePk(ADD_LIKE_QUERY, filmId, userId);
+    updateRows(INCREMENT_VERSION_QUERY, filmId);
     return findById(filmId).orElseThrow(
         () -> new NotFoundException("Film with Id = " + filmId + "not found."));
   }
 
   @Override
   public Film removeLike(final Long filmId, final Long userId) {
-    delete(REMOVE_LIKE_QUERY, filmId, userId);
+    if (delete(REMOVE_LIKE_QUERY, filmId, userId)) {
+      updateRows(INCREMENT_VERSION_QUERY, filmId);
+    }
     return findById(filmId).orElseThrow(
         () -> new NotFoundException("Film with Id = " + filmId + "not found."));
   }
 
   private void insertGenresToDb(final Film film) {
-    if (film.getGenres().isEmpty()) {
-      return;
-    }
-    film.getGenres().forEach(genre ->
-        insertCompositePk(INSERT_GENRE_QUERY, film.getId(), genre.getId()));
+    batchUpdateLinks(INSERT_GENRE_QUERY, film.getId(), genreIds(film));
   }
 
-
   private void updateGenres(final Film film) {
     log.debug("Updating genres for film {}.", film);
-    delete(REMOVE_GENRES_QUERY, film.getId());
-    if (film.getGenres().isEmpty()) {
-      return;
-    }
-    insertGenresToDb(film);
+    syncLinks(FIND_GENRE_IDS_QUERY, INSERT_GENRE_QUERY, REMOVE_GENRE_QUERY, film.getId(),
+        genreIds(film));
   }
 
   private void insertDirectorToDb(final Film film) {
     log.debug("insert director for film {}.", film);
-    if (film.getDirectors().isEmpty()) {
-      return;
-    }
-    film.getDirectors().forEach(director ->
-        insertCompositePk(INSERT_DIRECTOR_QUERY, director.getId(), film.getId()));
+    batchUpdateLinks(INSERT_DIRECTOR_QUERY, film.getId(), directorIds(film));
   }
 
   private void updateDirector(final Film film) {
-    log.info("Updating director for film {}.", film);
-    delete(REMOVE_DIRECTOR_QUERY, film.getId());
-    if (film.getDirectors().isEmpty()) {
-      return;
-    }
-    insertDirectorToDb(film);
+    log.debug("Updating director for film {}.", film);
+    syncLinks(FIND_DIRECTOR_IDS_QUERY, INSERT_DIRECTOR_QUERY, REMOVE_DIRECTOR_QUERY, film.getId(),
+        directorIds(film));
+  }
+
+  private static List<Long> genreIds(final Film film) {
+    return film.getGenres().stream()
+        .map(Genre::getId)
+        .toList();
+  }
+
+  private static List<Long> directorIds(final Film film) {
+    return film.getDirectors().stream()
+        .map(Director::getId)
+        .toList();
   }
 
   @Override
   public List<Film> getDirectorFilms(final Long id, final String sortBy) {
-    log.info("Get director's film with ID - {}, sorted by - {}", id, sortBy);
+    log.debug("Get director's film with ID - {}, sorted by - {}", id, sortBy);
     return switch (sortBy) {
       case "likes" -> findMany(SELECT_ALL_DIRECTORS_FILM_BY_LIKE, id).stream().toList();
       case "year" -> findMany(SELECT_ALL_DIRECTORS_FILM_BY_YEAR, id).stream().toList();
@@ -368,7 +394,7 @@ public class FilmDbStorage extends BaseRepository<Film> implements FilmStorage {
 
   @Override
   public List<Film> searchBy(final String query, final List<SearchCriteria> searchCriterias) {
-    log.info("Searching films by query{} and criteria list {}.", query, searchCriterias);
+    log.debug("Searching films by query{} and criteria list {}.", query, searchCriterias);
 
     final String whereClause = searchCriterias.stream()
         .map(sc -> buildWhereClause(sc, query))
@@ -4,7 +4,7 @@ import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
-import lombok.extern.slf4j.Slf4j;
+import lombok.CustomLog;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -23,7 +23,7 @@ import ru.yandex.practicum.filmorate.storage.ReadOnlyStorage;
  * @see GenreStorage
  */
 @Repository
-@Slf4j
+@CustomLog
 public class GenreDbStorage extends BaseRepository<Genre> implements GenreStorage {
 
   private static final String FIND_ALL_QUERY = "SELECT * FROM genre ORDER BY id ASC";
@@ -68,6 +68,6 @@ public class GenreDbStorage extends BaseRepository<Genre> implements GenreStorag
         + genreIds.stream()
         .map(String::valueOf)
         .collect(Collectors.joining(",")) + ")";
-    return jdbc.queryForObject(sql, Integer.class);
+    return findValue(sql, Integer.class).orElseThrow();
   }
 }
@@ -2,7 +2,7 @@ package ru.yandex.practicum.filmorate.storage.dao;
 
 import java.util.Collection;
 import java.util.Optional;
-import lombok.extern.slf4j.Slf4j;
+import lombok.CustomLog;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -23,7 +23,7 @@ import ru.yandex.practicum.filmorate.storage.ReadOnlyStorage;
  * @see BaseRepository
  */
 @Repository
-@Slf4j
+@CustomLog
 public class MpaRatingDbStorage extends BaseRepository<MpaRating> implements MpaRatingStorage {
 
   private static final String FIND_ALL_QUERY = "SELECT * FROM mpa_rating ORDER BY id";
@@ -1,35 +1,111 @@
 package ru.yandex.practicum.filmorate.storage.dao;
 
-import lombok.extern.slf4j.Slf4j;
+import lombok.CustomLog;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.model.Review;
 import ru.yandex.practicum.filmorate.storage.BaseRepository;
 import ru.yandex.practicum.filmorate.storage.ReviewStorage;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
-@Slf4j
+@CustomLog
 @Repository
 public class ReviewDbStorage extends BaseRepository<Review> implements ReviewStorage {
 
     /**
      * Особенность CHANGE_USEFUL_MARK - если при добавлении лайка граничное значение равно 0,
-     * то вычитаем/добавляем значение 2, чтоб перескочить 0, в противном случае вычитаем/добавляем 1
+     * то вычитаем/добавляем значение 2, чтоб перескочить 0, в противном случае вычитаем/добавляем 1.
+     * Рейтинг меняется только вместе с оценкой пользователя, в одной транзакции; повторная такая же
+     * оценка рейтинг не меняет. Запрос возвращает отзыв с новым рейтингом, без повторного чтения.
      * */
 
-    private static final String ADD_LIKE = "MERGE INTO review_likes(review_id, user_id, is_useful) VALUES(?, ?, ?)";
-    private static final String REMOVE_LIKE = "DELETE FROM review_likes WHERE review_id = ? AND user_id = ?";
+    /**
+     * SAVE_VOTE_QUERY добавляет оценку или меняет ее на противоположную одним запросом и меняет
+     * строку, только если отзыв существует и оценка отличается от сохраненной.
+     */
+    private static final String SAVE_VOTE_QUERY = """
+            MERGE INTO review_likes l
+            USING (SELECT review_id, CAST(? AS BIGINT) AS user_id, CAST(? AS BOOLEAN) AS is_useful
+                   FROM reviews WHERE review_id = ?) v
+            ON l.review_id = v.review_id AND l.user_id = v.user_id
+            WHEN MATCHED AND l.is_useful <> v.is_useful THEN UPDATE SET is_useful = v.is_useful
+            WHEN NOT MATCHED THEN INSERT(review_id, user_id, is_useful)
+                VALUES(v.review_id, v.user_id, v.is_useful)
+            """;
+    private static final String REMOVE_VOTE_QUERY = "DELETE FROM review_likes WHERE review_id = ? AND user_id = ?";
     private static final String CHANGE_USEFUL_MARK = """
-            UPDATE reviews
-            SET useful = CASE
-                            WHEN useful + %d = 0 THEN useful + %d
-                            ELSE useful + %d
-                         END
-            WHERE review_id = ?
+            SELECT * FROM FINAL TABLE (
+                UPDATE reviews
+                SET useful = CASE
+                                WHEN useful + ? = 0 THEN useful + ?
+                                ELSE useful + ?
+                             END
+                WHERE review_id = ?
+            )
+            """;
+    /**
+     * Запросы списка отзывов читают индексы idx_reviews_film_useful и idx_reviews_useful в порядке
+     * (useful DESC, review_id) и останавливаются после LIMIT строк, без сортировки всех отзывов.
+     * Следующая страница начинается после последнего отзыва предыдущей (keyset-пагинация).
+     * film_id в ORDER BY и условие useful <= ? нужны H2, чтобы распознать порядок индекса.
+     */
+    private static final String FIND_TOP_QUERY = """
+            SELECT * FROM reviews
+            ORDER BY useful DESC, review_id
+            LIMIT ?
+            """;
+    private static final String FIND_TOP_AFTER_QUERY = """
+            SELECT * FROM reviews
+            WHERE useful <= ? AND (useful < ? OR review_id > ?)
+            ORDER BY useful DESC, review_id
+            LIMIT ?
+            """;
+    private static final String FIND_TOP_BY_FILM_QUERY = """
+            SELECT * FROM reviews
+            WHERE film_id = ?
+            ORDER BY film_id, useful DESC, review_id
+            LIMIT ?
+            """;
+    private static final String FIND_TOP_BY_FILM_AFTER_QUERY = """
+            SELECT * FROM reviews
+            WHERE film_id = ? AND useful <= ? AND (useful < ? OR review_id > ?)
+            ORDER BY film_id, useful DESC, review_id
+            LIMIT ?
+            """;
+    private static final String UPDATE_QUERY = """
+            UPDATE reviews SET content = ?, is_positive = ?, useful = ?, version = version + 1
+            WHERE review_id = ? AND version = COALESCE(?, version)
+            """;
+    private static final String FIND_VERSION_QUERY = "SELECT version FROM reviews WHERE review_id = ?";
+    /**
+     * Журнал review_useful_delta хранит оценки, еще не примененные к reviews.useful. Оценки
+     * применяются по порядку записи в журнал к заблокированным строкам отзывов, поэтому 0
+     * перескакивается по актуальному рейтингу, как и при оценке с изменением рейтинга.
+     * Применяются только записи, удаленные из журнала самим применением: оценки, сброшенные вместе
+     * с рейтингом при изменении отзыва, не применяются, а закоммиченные во время применения
+     * остаются до следующего раза.
+     */
+    private static final String ADD_PENDING_USEFUL_QUERY = """
+            INSERT INTO review_useful_delta(review_id, score, skip_zero) VALUES(?, ?, ?)
             """;
+    private static final String FIND_PENDING_USEFUL_QUERY = """
+            SELECT id, review_id, score, skip_zero FROM review_useful_delta ORDER BY id
+            """;
+    private static final String LOCK_USEFUL_QUERY = """
+            SELECT review_id, useful FROM reviews WHERE review_id = ANY(?) FOR UPDATE
+            """;
+    private static final String SET_USEFUL_QUERY = "UPDATE reviews SET useful = ? WHERE review_id = ?";
+    private static final String REMOVE_PENDING_USEFUL_QUERY = "DELETE FROM review_useful_delta WHERE id = ?";
+    private static final String REMOVE_REVIEW_PENDING_USEFUL_QUERY = "DELETE FROM review_useful_delta WHERE review_id = ?";
 
     public ReviewDbStorage(JdbcTemplate jdbcTemplate, RowMapper<Review> mapper) {
         super(jdbcTemplate, mapper);
@@ -37,7 +113,7 @@ public class ReviewDbStorage extends BaseRepository<Review> implements ReviewSto
 
     @Override
     public Review save(Review review) {
-        log.info("Отзыв для сохранения в БД: {}", review);
+        log.debug("Отзыв для сохранения в БД: {}", review);
         String query = "INSERT INTO reviews(content, is_positive, user_id, film_id) VALUES(?, ?, ?, ?)";
         Long id = insert(
                 query,
@@ -46,24 +122,32 @@ public class ReviewDbStorage extends BaseRepository<Review> implements ReviewSto
                 review.getUserId(),
                 review.getFilmId());
         review.setReviewId(id);
-        log.info("Сохраненный отзыв: {}", review);
+        review.setVersion(0L);
+        log.debug("Сохраненный отзыв: {}", review);
         return review;
     }
 
     @Override
     public Review update(Review review) {
-        String query = "UPDATE reviews SET content = ?, is_positive = ?, useful = ? WHERE review_id = ?";
-        update(
-                query,
+        updateVersioned(
+                UPDATE_QUERY,
+                review.getVersion(),
                 review.getContent(),
                 review.getIsPositive(),
                 review.getUseful(),
                 review.getReviewId()
         );
         removeLikes(review.getReviewId());
+        updateRows(REMOVE_REVIEW_PENDING_USEFUL_QUERY, review.getReviewId());
+        review.setVersion(findVersion(review.getReviewId()).orElseThrow());
         return review;
     }
 
+    @Override
+    public Optional<Long> findVersion(Long reviewId) {
+        return findValue(FIND_VERSION_QUERY, Long.class, reviewId);
+    }
+
     @Override
     public void delete(Long id) {
         String query = "DELETE FROM reviews WHERE review_id = ?";
@@ -72,36 +156,47 @@ public class ReviewDbStorage extends BaseRepository<Review> implements ReviewSto
 
     @Override
     public Optional<Review> findById(Long id) {
-        log.info("Поиск отзыва с id {}", id);
+        log.debug("Поиск отзыва с id {}", id);
         String query = "SELECT * FROM reviews WHERE review_id = ?";
         return findOne(query, id);
     }
 
     @Override
     public Collection<Review> findAll() {
-        log.info("Поиск всех существующих отзывов");
+        log.debug("Поиск всех существующих отзывов");
         String query = "SELECT * FROM reviews";
         return findMany(query);
     }
 
     @Override
     public Collection<Review> findAllByFilmId(Long filmId, Integer count) {
-        log.info("Поиск отзывов по фильму: {} в количестве: {}", filmId, count);
-        String queryByFilmId = "SELECT * FROM reviews WHERE film_id = ? ORDER BY useful DESC LIMIT ?";
-        String queryAll = "SELECT * FROM reviews ORDER BY useful DESC LIMIT ? ";
-        return filmId == null ? findMany(queryAll, count) : findMany(queryByFilmId, filmId, count);
+        return findAllByFilmId(filmId, count, null, null);
     }
 
     @Override
-    public void addLike(Long reviewId, Long userId) {
-        insertCompositePk(ADD_LIKE, reviewId, userId, Boolean.TRUE);
-        update(String.format(CHANGE_USEFUL_MARK, 1, 2, 1), reviewId);
+    public Collection<Review> findAllByFilmId(Long filmId, Integer count, Integer afterUseful, Long afterReviewId) {
+        log.debug("Поиск отзывов по фильму: {} в количестве: {} после отзыва {} с оценкой {}",
+                filmId, count, afterReviewId, afterUseful);
+        if (afterReviewId == null) {
+            return filmId == null
+                    ? findMany(FIND_TOP_QUERY, count)
+                    : findMany(FIND_TOP_BY_FILM_QUERY, filmId, count);
+        }
+        return filmId == null
+                ? findMany(FIND_TOP_AFTER_QUERY, afterUseful, afterUseful, afterReviewId, count)
+                : findMany(FIND_TOP_BY_FILM_AFTER_QUERY, filmId, afterUseful, afterUseful, afterReviewId, count);
     }
 
     @Override
-    public void addDislike(Long reviewId, Long userId) {
-        insertCompositePk(ADD_LIKE, reviewId, userId, Boolean.FALSE);
-        update(String.format(CHANGE_USEFUL_MARK, -1, -2, -1), reviewId);
+    @Transactional
+    public Optional<Review> addLike(Long reviewId, Long userId) {
+        return saveVote(reviewId, userId, Boolean.TRUE) ? changeUseful(reviewId, 1, 2) : Optional.empty();
+    }
+
+    @Override
+    @Transactional
+    public Optional<Review> addDislike(Long reviewId, Long userId) {
+        return saveVote(reviewId, userId, Boolean.FALSE) ? changeUseful(reviewId, -1, -2) : Optional.empty();
     }
 
     @Override
@@ -111,32 +206,71 @@ public class ReviewDbStorage extends BaseRepository<Review> implements ReviewSto
     }
 
     @Override
-    public void removeLike(Long reviewId, Long userId) {
-        delete(REMOVE_LIKE, reviewId, userId);
-        update(String.format(CHANGE_USEFUL_MARK, -1, -1, -1), reviewId);
+    @Transactional
+    public Optional<Review> removeLike(Long reviewId, Long userId) {
+        return deleteVote(reviewId, userId) ? changeUseful(reviewId, -1, -1) : Optional.empty();
     }
 
     @Override
-    public void removeDislike(Long reviewId, Long userId) {
-        delete(REMOVE_LIKE, reviewId, userId);
-        update(String.format(CHANGE_USEFUL_MARK, 1, 1, 1), reviewId);
+    @Transactional
+    public Optional<Review> removeDislike(Long reviewId, Long userId) {
+        return deleteVote(reviewId, userId) ? changeUseful(reviewId, 1, 1) : Optional.empty();
     }
 
     @Override
-    public boolean isExist(Long id) {
-        String query = "SELECT EXISTS(SELECT 1 FROM reviews WHERE review_id = ?)";
-        return checkExistence(query, id);
+    public boolean saveVote(Long reviewId, Long userId, Boolean isUseful) {
+        log.debug("Оценка isLike = {} отзыву {} от пользователя {}", isUseful, reviewId, userId);
+        return updateRows(SAVE_VOTE_QUERY, userId, isUseful, reviewId) > 0;
     }
 
     @Override
-    public boolean isLikeAndUsefulExist(Long reviewId, Long userId, Boolean isUseful) {
-        String query = """
-                SELECT EXISTS(SELECT 1 FROM review_likes
-                WHERE review_id = ?
-                AND user_id = ?
-                AND is_useful = ?)
-                """;
-        return checkExistence(query, reviewId, userId, isUseful);
+    public boolean deleteVote(Long reviewId, Long userId) {
+        log.debug("Удаление оценки отзыва {} от пользователя {}", reviewId, userId);
+        return delete(REMOVE_VOTE_QUERY, reviewId, userId);
+    }
+
+    @Override
+    public Long addPendingUseful(Long reviewId, int score, boolean skipZero) {
+        return insert(ADD_PENDING_USEFUL_QUERY, reviewId, score, skipZero);
+    }
+
+    @Override
+    @Transactional
+    public Map<Long, List<Long>> applyPendingUseful() {
+        List<PendingScore> scores = findRows(FIND_PENDING_USEFUL_QUERY, (rs, rowNum) -> new PendingScore(
+                rs.getLong("id"), rs.getLong("review_id"), rs.getInt("score"), rs.getBoolean("skip_zero")));
+        if (scores.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Integer> useful = findRows(LOCK_USEFUL_QUERY,
+                (rs, rowNum) -> Map.entry(rs.getLong("review_id"), rs.getInt("useful")),
+                (Object) scores.stream().map(PendingScore::reviewId).distinct().toArray(Long[]::new))
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (first, second) -> first,
+                        HashMap::new));
+        int[] removed = batchUpdate(REMOVE_PENDING_USEFUL_QUERY, scores, (ps, score) -> ps.setLong(1, score.id()));
+        Map<Long, List<Long>> applied = new HashMap<>();
+        for (int i = 0; i < scores.size(); i++) {
+            PendingScore score = scores.get(i);
+            if (removed[i] > 0 && useful.containsKey(score.reviewId())) {
+                useful.compute(score.reviewId(),
+                        (id, current) -> Review.addScore(current, score.score(), score.skipZero()));
+                applied.computeIfAbsent(score.reviewId(), id -> new ArrayList<>()).add(score.id());
+            }
+        }
+        log.debug("Применение оценок для {} отзывов", applied.size());
+        List<Long> reviewIds = List.copyOf(applied.keySet());
+        batchUpdate(SET_USEFUL_QUERY, reviewIds, (ps, reviewId) -> {
+            ps.setInt(1, useful.get(reviewId));
+            ps.setLong(2, reviewId);
+        });
+        return applied;
+    }
+
+    @Override
+    public boolean isExist(Long id) {
+        String query = "SELECT EXISTS(SELECT 1 FROM reviews WHERE review_id = ?)";
+        return checkExistence(query, id);
     }
 
     @Override
@@ -148,4 +282,11 @@ public class ReviewDbStorage extends BaseRepository<Review> implements ReviewSto
                 """;
         return checkExistence(query, reviewId, userId);
     }
+
+    private Optional<Review> changeUseful(Long reviewId, int score, int skippedScore) {
+        return findOne(CHANGE_USEFUL_MARK, score, skippedScore, score, reviewId);
+    }
+
+    private record PendingScore(long id, long reviewId, int score, boolean skipZero) {
+    }
 }
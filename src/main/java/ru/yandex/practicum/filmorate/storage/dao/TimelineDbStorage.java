@@ -0,0 +1,76 @@
+package ru.yandex.practicum.filmorate.storage.dao;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import lombok.CustomLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.storage.BaseRepository;
+import ru.yandex.practicum.filmorate.storage.TimelineStorage;
+
+/**
+ * Implementation of {@link TimelineStorage} for managing friends-activity timelines in the
+ * database.
+ * <p>
+ * Timeline rows are keyed by {@code (user_id, event_id)} and hold a copy of the event, so reading a
+ * page of a timeline is a range scan of the primary key limited by the page size, without joins.
+ *
+ * @see TimelineStorage
+ * @see BaseRepository
+ */
+@Repository
+@CustomLog
+public class TimelineDbStorage extends BaseRepository<Event> implements TimelineStorage {
+
+  private static final String INSERT_QUERY = """
+      MERGE INTO timeline (user_id, event_id, author_id, event_type, operation, entity_id, timestamp)
+      VALUES (?, ?, ?, ?, ?, ?, ?)
+      """;
+
+  private static final String FIND_TIMELINE_QUERY = """
+      SELECT t.EVENT_ID AS id,
+       t.TIMESTAMP,
+       t.AUTHOR_ID AS user_id,
+       t.EVENT_TYPE,
+       t.OPERATION,
+       t.ENTITY_ID
+      FROM TIMELINE t
+      WHERE t.USER_ID = ?
+      ORDER BY t.EVENT_ID DESC
+      LIMIT ?
+      """;
+
+  @Autowired
+  public TimelineDbStorage(final JdbcTemplate jdbc, final RowMapper<Event> mapper) {
+    super(jdbc, mapper);
+  }
+
+  @Override
+  public void addToTimelines(final Collection<Long> userIds, final Event event) {
+    log.debug("Inside 'addToTimelines' to add event {} to {} timelines", event.getEventId(),
+        userIds.size());
+    if (userIds.isEmpty()) {
+      return;
+    }
+    final Timestamp timestamp = new Timestamp(event.getTimestamp());
+    batchUpdate(INSERT_QUERY, userIds, (ps, userId) -> {
+      ps.setLong(1, userId);
+      ps.setLong(2, event.getEventId());
+      ps.setLong(3, event.getUserId());
+      ps.setString(4, event.getEventType().name());
+      ps.setString(5, event.getOperation().name());
+      ps.setLong(6, event.getEntityId());
+      ps.setTimestamp(7, timestamp);
+    });
+  }
+
+  @Override
+  public List<Event> findTimeline(final Long userId, final int count) {
+    log.debug("Inside 'findTimeline' to get {} timeline events for user with id {}", count, userId);
+    return findMany(FIND_TIMELINE_QUERY, userId, count).stream().toList();
+  }
+}
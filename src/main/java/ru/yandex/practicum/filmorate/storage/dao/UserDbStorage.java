@@ -5,7 +5,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-import lombok.extern.slf4j.Slf4j;
+import lombok.CustomLog;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -27,7 +27,7 @@ import ru.yandex.practicum.filmorate.storage.UserStorage;
  * @see BaseRepository
  */
 @Repository("userDbStorage")
-@Slf4j
+@CustomLog
 public class UserDbStorage extends BaseRepository<User> implements UserStorage {
 
     private static final String INSERT_QUERY = """
@@ -39,8 +39,9 @@ public class UserDbStorage extends BaseRepository<User> implements UserStorage {
             login = ?,
             name = ?,
             email = ?,
-            birthday = ?
-            WHERE id = ?
+            birthday = ?,
+            version = version + 1
+            WHERE id = ? AND version = COALESCE(?, version)
             """;
     private static final String FIND_ALL_QUERY = """
             SELECT u.*,
@@ -70,7 +71,43 @@ public class UserDbStorage extends BaseRepository<User> implements UserStorage {
                     Group BY u.id
                     """;
     private static final String REMOVE_FRIEND_QUERY = "DELETE FROM friendship WHERE id = ? AND friend_id = ?";
+    private static final String GET_FOLLOWER_IDS_QUERY =
+            "SELECT id FROM friendship WHERE friend_id = ? LIMIT ?";
+    private static final String GET_POPULAR_USER_IDS_QUERY = """
+            SELECT friend_id
+            FROM friendship
+            GROUP BY friend_id
+            HAVING COUNT(*) > ?
+            """;
+    private static final String GET_FRIEND_IDS_AMONG_QUERY = """
+            SELECT f.friend_id
+            FROM UNNEST(CAST(? AS BIGINT ARRAY)) AS u(id)
+            JOIN friendship f ON f.id = ? AND f.friend_id = u.id
+            """;
     private static final String EXIST_QUERY = "SELECT EXISTS(SELECT 1 FROM \"user\" WHERE id = ?)";
+    private static final String FIND_VERSION_QUERY = "SELECT version FROM \"user\" WHERE id = ?";
+    private static final String FIND_VERSION_STAMP_QUERY = """
+            SELECT COUNT(*), COALESCE(MAX(id), 0), COALESCE(SUM(version), 0)
+            FROM "user"
+            """;
+    private static final String FIND_FRIENDS_VERSION_STAMP_QUERY = """
+            SELECT u.version, COALESCE(SUM(fu.version), 0)
+            FROM "user" u
+            LEFT JOIN friendship f ON f.id = u.id
+            LEFT JOIN "user" fu ON fu.id = f.friend_id
+            WHERE u.id = ?
+            GROUP BY u.id, u.version
+            """;
+    private static final String INCREMENT_VERSION_QUERY =
+            "UPDATE \"user\" SET version = version + 1 WHERE id = ?";
+    private static final String INCREMENT_FOLLOWER_VERSIONS_QUERY = """
+            UPDATE "user" SET version = version + 1
+            WHERE id IN (SELECT id FROM friendship WHERE friend_id = ?)
+            """;
+    private static final String INCREMENT_LIKED_FILM_VERSIONS_QUERY = """
+            UPDATE film SET version = version + 1
+            WHERE id IN (SELECT film_id FROM user_like WHERE user_id = ?)
+            """;
 
     @Autowired
     public UserDbStorage(final JdbcTemplate jdbc, final RowMapper<User> mapper) {
@@ -88,6 +125,7 @@ public class UserDbStorage extends BaseRepository<User> implements UserStorage {
                 Date.valueOf(user.getBirthday())
         );
         user.setId(id);
+        user.setVersion(0L);
         log.debug("User saved with ID: {}", id);
         return user;
     }
@@ -95,14 +133,16 @@ public class UserDbStorage extends BaseRepository<User> implements UserStorage {
     @Override
     public User update(final User user) {
         log.debug("Inside 'update' to update a user with data: {}", user);
-        update(
+        updateVersioned(
                 UPDATE_QUERY,
+                user.getVersion(),
                 user.getLogin(),
                 user.getName(),
                 user.getEmail(),
                 Date.valueOf(user.getBirthday()),
                 user.getId()
         );
+        user.setVersion(findVersion(user.getId()).orElseThrow());
         log.debug("User updated.");
         return user;
     }
@@ -119,6 +159,7 @@ public class UserDbStorage extends BaseRepository<User> implements UserStorage {
 
     @Override
     public void delete(final Long id) {
+        incrementDependentVersions(id);
         delete(DELETE_BY_ID_QUERY, id);
     }
 
@@ -128,6 +169,7 @@ public class UserDbStorage extends BaseRepository<User> implements UserStorage {
                 "Inside 'addFriend' method: user with id = {} is adding a friend with id = {}", id,
                 friendId);
         insertCompositePk(ADD_FRIEND_QUERY, id, friendId);
+        updateRows(INCREMENT_VERSION_QUERY, id);
         return findById(id).orElseThrow(
                 () -> new NotFoundException("User not found with ID: " + id));
     }
@@ -137,11 +179,31 @@ public class UserDbStorage extends BaseRepository<User> implements UserStorage {
         return findMany(GET_FRIENDS_QUERY, id).stream().toList();
     }
 
+    @Override
+    public List<Long> getFollowerIds(Long id, int limit) {
+        return findValues(GET_FOLLOWER_IDS_QUERY, Long.class, id, limit);
+    }
+
+    @Override
+    public List<Long> getPopularUserIds(int followerLimit) {
+        return findValues(GET_POPULAR_USER_IDS_QUERY, Long.class, followerLimit);
+    }
+
+    @Override
+    public List<Long> getFriendIdsAmong(Long id, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return findValues(GET_FRIEND_IDS_AMONG_QUERY, Long.class, userIds.toArray(Long[]::new), id);
+    }
+
     @Override
     public void removeFriend(Long id, Long friendId) {
         log.debug("Inside 'removeFriend' method: user with id = {} is removing a friend with id = {}",
                 id, friendId);
-        delete(REMOVE_FRIEND_QUERY, id, friendId);
+        if (delete(REMOVE_FRIEND_QUERY, id, friendId)) {
+            updateRows(INCREMENT_VERSION_QUERY, id);
+        }
     }
 
     @Override
@@ -151,9 +213,36 @@ public class UserDbStorage extends BaseRepository<User> implements UserStorage {
 
     public void removeById(final Long id) {
         log.debug("Inside 'removeById' method: removing user with id = {}", id);
+        incrementDependentVersions(id);
         delete(DELETE_BY_ID_QUERY, id);
     }
 
+    @Override
+    public Optional<Long> findVersion(final Long id) {
+        return findValue(FIND_VERSION_QUERY, Long.class, id);
+    }
+
+    @Override
+    public String getVersionStamp() {
+        return findRows(FIND_VERSION_STAMP_QUERY, (rs, rowNum) ->
+                rs.getLong(1) + "-" + rs.getLong(2) + "-" + rs.getLong(3)).getFirst();
+    }
+
+    @Override
+    public Optional<String> getFriendsVersionStamp(final Long id) {
+        return findRows(FIND_FRIENDS_VERSION_STAMP_QUERY, (rs, rowNum) ->
+                rs.getLong(1) + "-" + rs.getLong(2), id).stream().findFirst();
+    }
+
+    /**
+     * Increments the versions of the users and films, whose friend lists and likes refer to the
+     * user, as they are cascade deleted together with the user.
+     */
+    private void incrementDependentVersions(final Long id) {
+        updateRows(INCREMENT_FOLLOWER_VERSIONS_QUERY, id);
+        updateRows(INCREMENT_LIKED_FILM_VERSIONS_QUERY, id);
+    }
+
     @Override
     public Long getSimilarUser(Long userId) {
         Optional<User> similarUser = findOne(
@@ -0,0 +1,447 @@
+package ru.yandex.practicum.filmorate.storage.file;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.CustomLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.practicum.filmorate.exception.InternalServerException;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.model.EventType;
+import ru.yandex.practicum.filmorate.model.Operation;
+import ru.yandex.practicum.filmorate.storage.EventStorage;
+
+/**
+ * Implementation of {@link EventStorage} backed by an append-only log of memory-mapped files.
+ * <p>
+ * Every event is stored as a fixed-size binary record, so the ID of an event is its record number
+ * plus one and the offset of any event is computed from the ID. Records are appended to segment
+ * files of a fixed size, which are mapped into memory once. The ID is written last and serves as a
+ * commit marker: on startup the segments are scanned up to the first empty record, and the per-user
+ * index of event IDs is rebuilt.
+ * <p>
+ * Record layout ({@value #RECORD_SIZE} bytes):
+ * <ul>
+ *   <li>{@code 0} - event ID, {@code long}</li>
+ *   <li>{@code 8} - timestamp in epoch milliseconds, {@code long}</li>
+ *   <li>{@code 16} - user ID, {@code long}</li>
+ *   <li>{@code 24} - entity ID, {@code long}</li>
+ *   <li>{@code 32} - event type ordinal plus one, {@code byte}</li>
+ *   <li>{@code 33} - operation ordinal plus one, {@code byte}</li>
+ *   <li>{@code 34} - flags, {@code byte}; {@link #ARCHIVED} marks an event removed from the feed</li>
+ *   <li>{@code 35} - reserved</li>
+ * </ul>
+ * Archived events are not copied anywhere: the record is flagged and dropped from the index, so the
+ * log itself serves as the archive.
+ * <p>
+ * An event added inside a transaction is appended, and gets its ID, only after the transaction
+ * commits, so the log never holds events of rolled back changes. Writes reach the page cache at
+ * once and are forced to disk according to the {@link ForcePolicy}.
+ *
+ * @see EventStorage
+ */
+@Repository
+@ConditionalOnProperty(name = "filmorate.event.storage", havingValue = "mmap")
+@CustomLog
+public class MappedEventStorage implements EventStorage {
+
+  static final int RECORD_SIZE = 48;
+  static final byte ARCHIVED = 1;
+
+  private static final int ID_OFFSET = 0;
+  private static final int TIMESTAMP_OFFSET = 8;
+  private static final int USER_ID_OFFSET = 16;
+  private static final int ENTITY_ID_OFFSET = 24;
+  private static final int TYPE_OFFSET = 32;
+  private static final int OPERATION_OFFSET = 33;
+  private static final int FLAGS_OFFSET = 34;
+  private static final EventType[] EVENT_TYPES = EventType.values();
+  private static final Operation[] OPERATIONS = Operation.values();
+
+  private final Path directory;
+  private final int recordsPerSegment;
+  private final ForcePolicy forcePolicy;
+  private final List<MappedByteBuffer> segments = new ArrayList<>();
+  private final Map<Long, UserIndex> index = new HashMap<>();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private long nextId = 1;
+  private long oldestLiveId = 1;
+  private int firstDirtySegment = Integer.MAX_VALUE;
+
+  public MappedEventStorage(
+      @Value("${filmorate.event.storage.mmap.directory:./db/events}") final String directory,
+      @Value("${filmorate.event.storage.mmap.segment-size:67108864}") final int segmentSize,
+      @Value("${filmorate.event.storage.mmap.force:interval}") final ForcePolicy forcePolicy) {
+    this.directory = Path.of(directory);
+    this.recordsPerSegment = segmentSize / RECORD_SIZE;
+    this.forcePolicy = forcePolicy;
+    if (recordsPerSegment == 0) {
+      throw new IllegalArgumentException("Segment size must hold at least one event record");
+    }
+    recover();
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Inside a transaction the event is appended after the commit, and its ID is assigned then.
+   */
+  @Override
+  public void addEvent(final Event event) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      append(event);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        append(event);
+      }
+    });
+  }
+
+  private void append(final Event event) {
+    final MappedByteBuffer written;
+    final int writtenOffset;
+    lock.writeLock().lock();
+    try {
+      final long id = nextId;
+      final MappedByteBuffer segment = segmentOf(id);
+      final int offset = offsetOf(id);
+      segment.putLong(offset + TIMESTAMP_OFFSET, event.getTimestamp());
+      segment.putLong(offset + USER_ID_OFFSET, event.getUserId());
+      segment.putLong(offset + ENTITY_ID_OFFSET, event.getEntityId());
+      segment.put(offset + TYPE_OFFSET, (byte) (event.getEventType().ordinal() + 1));
+      segment.put(offset + OPERATION_OFFSET, (byte) (event.getOperation().ordinal() + 1));
+      segment.put(offset + FLAGS_OFFSET, (byte) 0);
+      segment.putLong(offset + ID_OFFSET, id);
+      index.computeIfAbsent(event.getUserId(), userId -> new UserIndex()).add(id);
+      nextId = id + 1;
+      event.setEventId(id);
+      markDirty(id);
+      written = segment;
+      writtenOffset = offset;
+    } finally {
+      lock.writeLock().unlock();
+    }
+    if (forcePolicy == ForcePolicy.WRITE) {
+      written.force(writtenOffset, RECORD_SIZE);
+    }
+    log.debug("Event added with generated ID: {}", event.getEventId());
+  }
+
+  @Override
+  public Collection<Event> findUserEvents(final Long userId) {
+    log.debug("Inside 'findUserEvents' method to get feed for user with id {}", userId);
+    lock.readLock().lock();
+    try {
+      final UserIndex userIndex = index.get(userId);
+      return userIndex == null ? List.of() : readAll(userIndex, 0);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Collection<Event> findUserEventsAfter(final Long userId, final Long lastEventId) {
+    log.debug("Inside 'findUserEventsAfter' to get events for user with id {} after event {}",
+        userId, lastEventId);
+    lock.readLock().lock();
+    try {
+      final UserIndex userIndex = index.get(userId);
+      if (userIndex == null) {
+        return List.of();
+      }
+      final int position = userIndex.search(lastEventId);
+      return readAll(userIndex, position < 0 ? -position - 1 : position + 1);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public List<Event> findLatestEventsOfUsers(final Collection<Long> userIds, final int count) {
+    log.debug("Inside 'findLatestEventsOfUsers' to get {} events of users {}", count, userIds);
+    lock.readLock().lock();
+    try {
+      final List<UserIndex> indexes = new ArrayList<>(userIds.size());
+      for (Long userId : userIds) {
+        final UserIndex userIndex = index.get(userId);
+        if (userIndex != null && userIndex.size > 0) {
+          indexes.add(userIndex);
+        }
+      }
+      final int[] cursors = new int[indexes.size()];
+      for (int i = 0; i < cursors.length; i++) {
+        cursors[i] = indexes.get(i).size - 1;
+      }
+      final List<Event> result = new ArrayList<>();
+      while (result.size() < count) {
+        int newest = -1;
+        for (int i = 0; i < cursors.length; i++) {
+          if (cursors[i] >= 0 && (newest < 0
+              || indexes.get(i).ids[cursors[i]] > indexes.get(newest).ids[cursors[newest]])) {
+            newest = i;
+          }
+        }
+        if (newest < 0) {
+          break;
+        }
+        result.add(read(indexes.get(newest).ids[cursors[newest]--]));
+      }
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Events are appended in chronological order, so the scan starts at the oldest event still in the
+   * feed and stops at the first one, which is not older than the specified moment.
+   */
+  @Override
+  public Collection<Event> findEventsOlderThan(final Long timestamp, final Long afterId,
+      final int limit) {
+    log.debug("Inside 'findEventsOlderThan' to get {} events older than {} after event {}", limit,
+        timestamp, afterId);
+    lock.readLock().lock();
+    try {
+      final List<Event> result = new ArrayList<>();
+      for (long id = Math.max(oldestLiveId, afterId + 1); id < nextId && result.size() < limit; id++) {
+        final MappedByteBuffer segment = segmentOf(id);
+        final int offset = offsetOf(id);
+        if (segment.get(offset + FLAGS_OFFSET) == ARCHIVED) {
+          continue;
+        }
+        if (segment.getLong(offset + TIMESTAMP_OFFSET) >= timestamp) {
+          break;
+        }
+        result.add(read(id));
+      }
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Both archived and dropped events are flagged in the log and removed from the index. Timeline
+   * entries, which hold their own copies of the events, are left to the timeline storage.
+   */
+  @Override
+  public void archiveEvents(final Collection<Long> archivedIds, final Collection<Long> droppedIds) {
+    log.debug("Inside 'archiveEvents' to archive {} and drop {} events", archivedIds.size(),
+        droppedIds.size());
+    lock.writeLock().lock();
+    try {
+      archivedIds.forEach(this::archive);
+      droppedIds.forEach(this::archive);
+      while (oldestLiveId < nextId
+          && segmentOf(oldestLiveId).get(offsetOf(oldestLiveId) + FLAGS_OFFSET) == ARCHIVED) {
+        oldestLiveId++;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+    if (forcePolicy == ForcePolicy.WRITE) {
+      force();
+    }
+  }
+
+  /**
+   * Forces the segments written since the previous call to disk, when the policy is
+   * {@link ForcePolicy#INTERVAL}.
+   */
+  @Scheduled(fixedDelayString = "${filmorate.event.storage.mmap.force-interval:PT1S}")
+  public void forcePeriodically() {
+    if (forcePolicy == ForcePolicy.INTERVAL) {
+      force();
+    }
+  }
+
+  @PreDestroy
+  void close() {
+    force();
+  }
+
+  /**
+   * Forces the segments written since the previous call to disk. Writers are not blocked while the
+   * pages are being written out.
+   */
+  void force() {
+    final List<MappedByteBuffer> dirty;
+    lock.writeLock().lock();
+    try {
+      if (firstDirtySegment >= segments.size()) {
+        return;
+      }
+      dirty = List.copyOf(segments.subList(firstDirtySegment, segments.size()));
+      firstDirtySegment = Integer.MAX_VALUE;
+    } finally {
+      lock.writeLock().unlock();
+    }
+    dirty.forEach(MappedByteBuffer::force);
+  }
+
+  private void markDirty(final long id) {
+    firstDirtySegment = Math.min(firstDirtySegment, (int) ((id - 1) / recordsPerSegment));
+  }
+
+  private void archive(final Long id) {
+    if (id < 1 || id >= nextId) {
+      return;
+    }
+    final MappedByteBuffer segment = segmentOf(id);
+    final int offset = offsetOf(id);
+    if (segment.get(offset + FLAGS_OFFSET) == ARCHIVED) {
+      return;
+    }
+    segment.put(offset + FLAGS_OFFSET, ARCHIVED);
+    markDirty(id);
+    final UserIndex userIndex = index.get(segment.getLong(offset + USER_ID_OFFSET));
+    if (userIndex != null) {
+      userIndex.remove(id);
+    }
+  }
+
+  private void recover() {
+    try {
+      Files.createDirectories(directory);
+      boolean live = false;
+      while (true) {
+        final long id = nextId;
+        final MappedByteBuffer segment = segmentOf(id);
+        final int offset = offsetOf(id);
+        if (segment.getLong(offset + ID_OFFSET) != id) {
+          break;
+        }
+        if (segment.get(offset + FLAGS_OFFSET) != ARCHIVED) {
+          index.computeIfAbsent(segment.getLong(offset + USER_ID_OFFSET), userId -> new UserIndex())
+              .add(id);
+          live = true;
+        } else if (!live) {
+          oldestLiveId = id + 1;
+        }
+        nextId = id + 1;
+      }
+    } catch (IOException e) {
+      throw new InternalServerException("Failed to open event log in " + directory);
+    }
+    log.info("Event log in {} opened with {} events", directory, nextId - 1);
+  }
+
+  private MappedByteBuffer segmentOf(final long id) {
+    final int number = (int) ((id - 1) / recordsPerSegment);
+    while (segments.size() <= number) {
+      segments.add(map(segments.size()));
+    }
+    return segments.get(number);
+  }
+
+  private int offsetOf(final long id) {
+    return (int) ((id - 1) % recordsPerSegment) * RECORD_SIZE;
+  }
+
+  private MappedByteBuffer map(final int number) {
+    final Path path = directory.resolve(String.format("segment-%06d.log", number));
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0,
+          (long) recordsPerSegment * RECORD_SIZE);
+    } catch (IOException e) {
+      throw new InternalServerException("Failed to map event log segment " + path);
+    }
+  }
+
+  private List<Event> readAll(final UserIndex userIndex, final int from) {
+    final List<Event> result = new ArrayList<>(Math.max(userIndex.size - from, 0));
+    for (int i = from; i < userIndex.size; i++) {
+      result.add(read(userIndex.ids[i]));
+    }
+    return result;
+  }
+
+  private Event read(final long id) {
+    final MappedByteBuffer segment = segmentOf(id);
+    final int offset = offsetOf(id);
+    return Event.builder()
+        .eventId(id)
+        .timestamp(segment.getLong(offset + TIMESTAMP_OFFSET))
+        .userId(segment.getLong(offset + USER_ID_OFFSET))
+        .entityId(segment.getLong(offset + ENTITY_ID_OFFSET))
+        .eventType(EVENT_TYPES[segment.get(offset + TYPE_OFFSET) - 1])
+        .operation(OPERATIONS[segment.get(offset + OPERATION_OFFSET) - 1])
+        .build();
+  }
+
+  /**
+   * When the written records are forced from the page cache to disk. The page cache survives a
+   * crash of the application, but not of the operating system.
+   */
+  public enum ForcePolicy {
+
+    /**
+     * Every record is forced right after it is written.
+     */
+    WRITE,
+
+    /**
+     * Written segments are forced every {@code filmorate.event.storage.mmap.force-interval}.
+     */
+    INTERVAL,
+
+    /**
+     * Segments are forced only on shutdown, and otherwise left to the operating system.
+     */
+    SHUTDOWN
+  }
+
+  /**
+   * Ascending IDs of the live events of a single user.
+   */
+  private static final class UserIndex {
+
+    private long[] ids = new long[8];
+    private int size;
+
+    void add(final long id) {
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      ids[size++] = id;
+    }
+
+    int search(final long id) {
+      return Arrays.binarySearch(ids, 0, size, id);
+    }
+
+    void remove(final long id) {
+      final int position = search(id);
+      if (position >= 0) {
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+      }
+    }
+  }
+}
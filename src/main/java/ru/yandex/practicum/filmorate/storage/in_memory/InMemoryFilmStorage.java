@@ -7,18 +7,20 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import lombok.extern.slf4j.Slf4j;
+import lombok.CustomLog;
 import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
 import ru.yandex.practicum.filmorate.exception.DuplicatedDataException;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.SearchCriteria;
 import ru.yandex.practicum.filmorate.storage.FilmStorage;
 
 @Component
-@Slf4j
+@CustomLog
 public class InMemoryFilmStorage implements FilmStorage {
 
   private final Map<Long, Film> films = new HashMap<>();
+  private final Map<Long, Long> versions = new HashMap<>();
   private Long lastId = 0L;
 
 
@@ -27,6 +29,8 @@ public class InMemoryFilmStorage implements FilmStorage {
     checkDataDuplication(film);
     film.setId(getNextId());
     films.put(film.getId(), film);
+    versions.put(film.getId(), 0L);
+    film.setVersion(0L);
     return film;
   }
 
@@ -48,14 +52,28 @@ public class InMemoryFilmStorage implements FilmStorage {
 
   @Override
   public Film update(final Film film) {
+    checkVersion(film);
     checkDataDuplication(film);
     films.put(film.getId(), film);
+    film.setVersion(versions.merge(film.getId(), 1L, Long::sum));
     return film;
   }
 
   @Override
   public void delete(final Long id) {
     films.remove(id);
+    versions.remove(id);
+  }
+
+  @Override
+  public Optional<Long> findVersion(final Long id) {
+    return Optional.ofNullable(versions.get(id));
+  }
+
+  @Override
+  public String getVersionStamp() {
+    return films.size() + "-" + lastId + "-"
+        + versions.values().stream().mapToLong(Long::longValue).sum();
   }
 
   @Override
@@ -73,6 +91,7 @@ public class InMemoryFilmStorage implements FilmStorage {
         filmId);
     final Film film = films.get(filmId);
     film.getLikes().add(userId);
+    film.setVersion(versions.merge(filmId, 1L, Long::sum));
     return film;
   }
 
@@ -81,6 +100,7 @@ public class InMemoryFilmStorage implements FilmStorage {
     log.debug("Inside the removeLike method, user with ID [] ");
     final Film film = films.get(filmId);
     film.getLikes().remove(userId);
+    film.setVersion(versions.merge(filmId, 1L, Long::sum));
     return film;
   }
 
@@ -123,6 +143,19 @@ public class InMemoryFilmStorage implements FilmStorage {
     }
   }
 
+  /**
+   * Checks that the film has not been changed since the version read by the client.
+   *
+   * @param film the film to check
+   * @throws ConflictException if the stored version differs from the expected one
+   */
+  private void checkVersion(final Film film) {
+    if (film.getVersion() != null && !film.getVersion().equals(versions.get(film.getId()))) {
+      throw new ConflictException("Data update failed: the data has been changed since version "
+          + film.getVersion() + ".");
+    }
+  }
+
   /**
    * Generates the next available film ID.
    *
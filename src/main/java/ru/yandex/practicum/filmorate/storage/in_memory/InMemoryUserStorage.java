@@ -5,17 +5,19 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import lombok.extern.slf4j.Slf4j;
+import lombok.CustomLog;
 import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
 import ru.yandex.practicum.filmorate.exception.DuplicatedDataException;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.storage.UserStorage;
 
 @Component("inMemoryUserStorage")
-@Slf4j
+@CustomLog
 public class InMemoryUserStorage implements UserStorage {
 
   private final Map<Long, User> users = new HashMap<>();
+  private final Map<Long, Long> versions = new HashMap<>();
   private Long lastId = 0L;
 
   @Override
@@ -23,6 +25,8 @@ public class InMemoryUserStorage implements UserStorage {
     checkDataDuplication(user);
     user.setId(getNextId());
     users.put(user.getId(), user);
+    versions.put(user.getId(), 0L);
+    user.setVersion(0L);
     return user;
   }
 
@@ -39,26 +43,34 @@ public class InMemoryUserStorage implements UserStorage {
   @Override
   public User update(final User user) {
     final Long id = user.getId();
+    checkVersion(user);
     checkDataDuplication(user);
     users.put(id, user);
+    user.setVersion(versions.merge(id, 1L, Long::sum));
     return user;
   }
 
   @Override
   public void delete(final Long id) {
     users.remove(id);
+    versions.remove(id);
+    users.values().stream()
+        .filter(user -> user.getFriends().contains(id))
+        .forEach(user -> user.setVersion(versions.merge(user.getId(), 1L, Long::sum)));
   }
 
   @Override
   public User addFriend(Long id, Long friendId) {
     final User user = users.get(id);
     user.getFriends().add(friendId);
+    user.setVersion(versions.merge(id, 1L, Long::sum));
     return user;
   }
 
   @Override
   public void removeFriend(Long id, Long friendId) {
     users.get(id).getFriends().remove(friendId);
+    versions.merge(id, 1L, Long::sum);
   }
 
   @Override
@@ -68,11 +80,53 @@ public class InMemoryUserStorage implements UserStorage {
         .toList();
   }
 
+  @Override
+  public List<Long> getFollowerIds(Long id, int limit) {
+    return users.values().stream()
+        .filter(user -> user.getFriends().contains(id))
+        .map(User::getId)
+        .limit(limit)
+        .toList();
+  }
+
+  @Override
+  public List<Long> getPopularUserIds(int followerLimit) {
+    return users.keySet().stream()
+        .filter(userId -> getFollowerIds(userId, followerLimit + 1).size() > followerLimit)
+        .toList();
+  }
+
+  @Override
+  public List<Long> getFriendIdsAmong(Long id, Collection<Long> userIds) {
+    return userIds.stream()
+        .filter(users.get(id).getFriends()::contains)
+        .toList();
+  }
+
   @Override
   public Long getSimilarUser(Long userId) {
     return 0L;
   }
 
+  @Override
+  public Optional<Long> findVersion(final Long id) {
+    return Optional.ofNullable(versions.get(id));
+  }
+
+  @Override
+  public String getVersionStamp() {
+    return users.size() + "-" + lastId + "-"
+        + versions.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  @Override
+  public Optional<String> getFriendsVersionStamp(final Long id) {
+    return findVersion(id).map(version -> version + "-" + users.get(id).getFriends().stream()
+        .map(versions::get)
+        .mapToLong(Long::longValue)
+        .sum());
+  }
+
   @Override
   public boolean isExist(Long id) {
     return users.get(id) != null;
@@ -98,6 +152,19 @@ public class InMemoryUserStorage implements UserStorage {
     }
   }
 
+  /**
+   * Checks that the user has not been changed since the version read by the client.
+   *
+   * @param user the user to check
+   * @throws ConflictException if the stored version differs from the expected one
+   */
+  private void checkVersion(final User user) {
+    if (user.getVersion() != null && !user.getVersion().equals(versions.get(user.getId()))) {
+      throw new ConflictException("Data update failed: the data has been changed since version "
+          + user.getVersion() + ".");
+    }
+  }
+
   /**
    * Generates the next available user ID.
    *
@@ -0,0 +1,32 @@
+package ru.yandex.practicum.filmorate.storage.rowmappers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * A {@link RowMapper}, that resolves the column indexes of a result set once and then reads every
+ * row by index with typed getters, instead of looking each column up by name for every row.
+ * <p>
+ * {@link ru.yandex.practicum.filmorate.storage.BaseRepository} compiles the mapper on the first row
+ * of a result set and maps the remaining rows with the compiled one. Used as a plain
+ * {@link RowMapper}, the mapper is compiled for every row.
+ *
+ * @param <T> the type of the mapped entity
+ */
+public interface CompiledRowMapper<T> extends RowMapper<T> {
+
+  /**
+   * Resolves the column indexes of the result set.
+   *
+   * @param rs the result set positioned on its first row
+   * @return the mapper of the rows of the result set
+   * @throws SQLException if a required column is missing
+   */
+  RowMapper<T> compile(ResultSet rs) throws SQLException;
+
+  @Override
+  default T mapRow(ResultSet rs, int rowNum) throws SQLException {
+    return compile(rs).mapRow(rs, rowNum);
+  }
+}
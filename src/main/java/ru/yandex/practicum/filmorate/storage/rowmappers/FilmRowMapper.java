@@ -1,9 +1,7 @@
 package ru.yandex.practicum.filmorate.storage.rowmappers;
 
-import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.List;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.model.Director;
@@ -13,65 +11,109 @@ import ru.yandex.practicum.filmorate.model.MpaRating;
 
 /**
  * A RowMapper implementation for mapping rows from {@link ResultSet} to {@link Film} instance.
+ * <p> The columns of the film table are required; MPA name, aggregated genres, likes and
+ * directors are mapped when the query selects them.
  */
 
 @Component
-public class FilmRowMapper implements RowMapper<Film> {
+public class FilmRowMapper implements CompiledRowMapper<Film> {
 
   @Override
-  public Film mapRow(ResultSet rs, int rowNum) throws SQLException {
-    final Film film = Film.builder()
-        .id(rs.getLong("id"))
-        .name(rs.getString("name"))
-        .description(rs.getString("description"))
-        .releaseDate(Date.valueOf(rs.getString("release_date")).toLocalDate())
-        .duration(rs.getLong("duration"))
-        .mpa(MpaRating.builder()
-            .id(rs.getLong("mpa_rating_id"))
-            .name(rs.getString("mpa_name"))
-            .build())
-        .build();
+  public RowMapper<Film> compile(ResultSet rs) throws SQLException {
+    return new Columns(rs);
+  }
 
-    mapGenres(rs, film);
-    mapLikes(rs, film);
-    mapDirectors(rs, film);
+  /**
+   * The column indexes of a film result set.
+   */
+  private static final class Columns implements RowMapper<Film> {
 
-    return film;
-  }
+    private final int id;
+    private final int name;
+    private final int description;
+    private final int releaseDate;
+    private final int duration;
+    private final int mpaId;
+    private final int mpaName;
+    private final int version;
+    private final int genreIds;
+    private final int genreNames;
+    private final int likeIds;
+    private final int directorIds;
+    private final int directorNames;
 
-  private void mapLikes(ResultSet rs, Film film) throws SQLException {
-    final List<Long> likeIds = RowMapperHelper.extractListLong(rs, "like_id");
-    likeIds.forEach(i -> film.getLikes().add(i));
-  }
+    private Columns(ResultSet rs) throws SQLException {
+      id = rs.findColumn("id");
+      name = rs.findColumn("name");
+      description = rs.findColumn("description");
+      releaseDate = rs.findColumn("release_date");
+      duration = rs.findColumn("duration");
+      mpaId = rs.findColumn("mpa_rating_id");
+      mpaName = RowMapperHelper.findColumn(rs, "mpa_name");
+      version = rs.findColumn("version");
+      genreIds = RowMapperHelper.findColumn(rs, "genre_id");
+      genreNames = RowMapperHelper.findColumn(rs, "genre_name");
+      likeIds = RowMapperHelper.findColumn(rs, "like_id");
+      directorIds = RowMapperHelper.findColumn(rs, "director_id");
+      directorNames = RowMapperHelper.findColumn(rs, "director_name");
+    }
 
+    @Override
+    public Film mapRow(ResultSet rs, int rowNum) throws SQLException {
+      final Film film = Film.builder()
+          .id(rs.getLong(id))
+          .name(rs.getString(name))
+          .description(rs.getString(description))
+          .releaseDate(rs.getDate(releaseDate).toLocalDate())
+          .duration(rs.getLong(duration))
+          .mpa(MpaRating.builder()
+              .id(rs.getLong(mpaId))
+              .name(mpaName == RowMapperHelper.MISSING ? null : rs.getString(mpaName))
+              .build())
+          .version(rs.getLong(version))
+          .build();
 
-  private void mapGenres(ResultSet rs, Film film) throws SQLException {
-    final List<Long> genreIds = RowMapperHelper.extractListLong(rs, "genre_id");
-    final List<String> genreNames = RowMapperHelper.extractListString(rs, "genre_name");
+      mapGenres(rs, film);
+      RowMapperHelper.addLongs(rs, likeIds, film.getLikes());
+      mapDirectors(rs, film);
 
-    if (genreIds.size() != genreNames.size()) {
-      throw new RuntimeException(
-          "Error occur during FilmRowMapping - the number of genre ids and names differ.");
-    }
-    for (int i = 0; i < genreIds.size(); i++) {
-      film.getGenres().add(Genre.builder().id(genreIds.get(i)).name(genreNames.get(i)).build());
+      return film;
     }
-  }
 
-  private void mapDirectors(ResultSet rs, Film film) throws SQLException {
-    final List<Long> directorIds = RowMapperHelper.extractListLong(rs, "director_id");
-    final List<String> directorNames = RowMapperHelper.extractListString(rs, "director_name");
+    private void mapGenres(ResultSet rs, Film film) throws SQLException {
+      final Object[] ids = RowMapperHelper.getArray(rs, genreIds);
+      final Object[] names = RowMapperHelper.getArray(rs, genreNames);
 
-    if (directorIds.size() != directorNames.size()) {
-      throw new RuntimeException(
-              "Error occur during FilmRowMapping - the number of director ids and names differ.");
+      if (ids.length != names.length) {
+        throw new RuntimeException(
+            "Error occur during FilmRowMapping - the number of genre ids and names differ.");
+      }
+      for (int i = 0; i < ids.length; i++) {
+        if (ids[i] != null) {
+          film.getGenres().add(Genre.builder()
+              .id(RowMapperHelper.toLong(ids[i]))
+              .name((String) names[i])
+              .build());
+        }
+      }
     }
-    for (int i = 0; i < directorIds.size(); i++) {
-      film.getDirectors().add(
-              Director.builder()
-              .id(directorIds.get(i))
-              .name(directorNames.get(i))
+
+    private void mapDirectors(ResultSet rs, Film film) throws SQLException {
+      final Object[] ids = RowMapperHelper.getArray(rs, directorIds);
+      final Object[] names = RowMapperHelper.getArray(rs, directorNames);
+
+      if (ids.length != names.length) {
+        throw new RuntimeException(
+            "Error occur during FilmRowMapping - the number of director ids and names differ.");
+      }
+      for (int i = 0; i < ids.length; i++) {
+        if (ids[i] != null) {
+          film.getDirectors().add(Director.builder()
+              .id(RowMapperHelper.toLong(ids[i]))
+              .name((String) names[i])
               .build());
+        }
+      }
     }
   }
 }
@@ -1,6 +1,6 @@
 package ru.yandex.practicum.filmorate.storage.rowmappers;
 
-import lombok.extern.slf4j.Slf4j;
+import lombok.CustomLog;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.model.Review;
@@ -8,7 +8,7 @@ import ru.yandex.practicum.filmorate.model.Review;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
-@Slf4j
+@CustomLog
 @Component
 public class ReviewRowMapper implements RowMapper<Review> {
 
@@ -21,8 +21,9 @@ public class ReviewRowMapper implements RowMapper<Review> {
                 .userId(rs.getLong("user_id"))
                 .filmId(rs.getLong("film_id"))
                 .useful(rs.getInt("useful"))
+                .version(rs.getLong("version"))
                 .build();
-        log.info("Дессериализованный отзыв из базы: {}", review);
+        log.debug("Дессериализованный отзыв из базы: {}", review);
         return review;
     }
 }
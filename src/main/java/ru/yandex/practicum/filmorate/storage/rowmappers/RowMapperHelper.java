@@ -1,23 +1,96 @@
 package ru.yandex.practicum.filmorate.storage.rowmappers;
 
+import java.sql.Array;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 import lombok.experimental.UtilityClass;
 
 /**
  * Utility class to assist with mapping rows from a {@link ResultSet} to Java objects.
+ * <p>
+ * Columns are addressed by index; {@link #findColumn(ResultSet, String)} resolves an optional
+ * column once per result set, and returns {@link #MISSING} when it does not exist.
  *
  * @see UserRowMapper
  * @see FilmRowMapper
+ * @see CompiledRowMapper
  */
 @UtilityClass
 public class RowMapperHelper {
 
+  /**
+   * The index of a column, which does not exist in the result set.
+   */
+  public static final int MISSING = 0;
+
+  private static final Object[] EMPTY = new Object[0];
+
+  /**
+   * Resolves the index of an optional column by its label.
+   *
+   * @param rs         the {@link ResultSet} data.
+   * @param columnName the label of the column.
+   * @return the index of the column, or {@link #MISSING} when the column does not exist.
+   * @throws SQLException if a database access error occurs.
+   */
+  public int findColumn(ResultSet rs, String columnName) throws SQLException {
+    final ResultSetMetaData rsMetaData = rs.getMetaData();
+    final int columnCount = rsMetaData.getColumnCount();
+    for (int i = 1; i <= columnCount; i++) {
+      if (columnName.equalsIgnoreCase(rsMetaData.getColumnLabel(i))) {
+        return i;
+      }
+    }
+    return MISSING;
+  }
+
+  /**
+   * Reads an array column, skipping the column when it is missing or null.
+   *
+   * @param rs     the {@link ResultSet} data.
+   * @param column the index of the column, or {@link #MISSING}.
+   * @return the array elements, or an empty array.
+   * @throws SQLException if a database access error occurs.
+   */
+  public Object[] getArray(ResultSet rs, int column) throws SQLException {
+    if (column == MISSING) {
+      return EMPTY;
+    }
+    final Array array = rs.getArray(column);
+    return array == null ? EMPTY : (Object[]) array.getArray();
+  }
+
+  /**
+   * Adds the non-null elements of an array column to the collection as Long values.
+   *
+   * @param rs     the {@link ResultSet} data.
+   * @param column the index of the column, or {@link #MISSING}.
+   * @param target the collection to add the values to.
+   * @throws SQLException if a database access error occurs.
+   */
+  public void addLongs(ResultSet rs, int column, Collection<Long> target) throws SQLException {
+    for (final Object element : getArray(rs, column)) {
+      if (element != null) {
+        target.add(toLong(element));
+      }
+    }
+  }
+
+  /**
+   * Converts an array element to a long value.
+   *
+   * @param element a non-null {@link Number} or a string holding a number.
+   * @return the long value.
+   */
+  public long toLong(Object element) {
+    return element instanceof Number number ? number.longValue() : Long.parseLong(element.toString());
+  }
+
   /**
    * Extracts a list of Strings from a specified column in the {@link ResultSet}.
    *
@@ -28,14 +101,17 @@ public class RowMapperHelper {
    * @throws SQLException if a database access error occurs.
    */
   public List<String> extractListString(ResultSet rs, String columnName) throws SQLException {
-    final Object[] arrayObj = getArrayFromResultSet(rs, columnName);
-    if (arrayObj == null) {
+    final Object[] elements = getArray(rs, findColumn(rs, columnName));
+    if (elements.length == 0) {
       return Collections.emptyList();
     }
-    return Arrays.stream(arrayObj)
-        .filter(Objects::nonNull)
-        .map(Object::toString)
-        .toList();
+    final List<String> values = new ArrayList<>(elements.length);
+    for (final Object element : elements) {
+      if (element != null) {
+        values.add(element.toString());
+      }
+    }
+    return values;
   }
 
   /**
@@ -48,31 +124,16 @@ public class RowMapperHelper {
    * @throws SQLException if a database access error occurs.
    */
   public List<Long> extractListLong(ResultSet rs, String columnName) throws SQLException {
-    final Object[] arrayObj = getArrayFromResultSet(rs, columnName);
-    if (arrayObj == null) {
+    final Object[] elements = getArray(rs, findColumn(rs, columnName));
+    if (elements.length == 0) {
       return Collections.emptyList();
     }
-    return Arrays.stream(arrayObj)
-        .filter(Objects::nonNull)
-        .map(m -> Long.parseLong(m.toString()))
-        .toList();
-  }
-
-  private Object[] getArrayFromResultSet(ResultSet rs, String columnName) throws SQLException {
-    if (!hasColumn(rs, columnName)) {
-      return null;
-    }
-    return (Object[]) rs.getArray(columnName).getArray();
-  }
-
-  private boolean hasColumn(ResultSet rs, String columnName) throws SQLException {
-    ResultSetMetaData rsMetaData = rs.getMetaData();
-    int columnCount = rsMetaData.getColumnCount();
-    for (int i = 1; i <= columnCount; i++) {
-      if (columnName.equalsIgnoreCase(rsMetaData.getColumnName(i))) {
-        return true;
+    final List<Long> values = new ArrayList<>(elements.length);
+    for (final Object element : elements) {
+      if (element != null) {
+        values.add(toLong(element));
       }
     }
-    return false;
+    return values;
   }
 }
@@ -1,9 +1,7 @@
 package ru.yandex.practicum.filmorate.storage.rowmappers;
 
-import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.List;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.model.User;
@@ -11,26 +9,52 @@ import ru.yandex.practicum.filmorate.model.User;
 /**
  * A RowMapper implementation for mapping rows of a ResultSet to {@link User} instances.
  * <p> This component is used to convert a row from a SQL query result into a {@link User} object.
- * It maps the columns of the ResultSet to the corresponding fields of the User class.
+ * It maps the columns of the ResultSet to the corresponding fields of the User class; the
+ * aggregated friend IDs are mapped when the query selects them.
  */
 @Component
-public class UserRowMapper implements RowMapper<User> {
+public class UserRowMapper implements CompiledRowMapper<User> {
 
   @Override
-  public User mapRow(ResultSet rs, int rowNum) throws SQLException {
-    final User user = User.builder()
-        .id(rs.getLong("id"))
-        .email(rs.getString("email"))
-        .login(rs.getString("login"))
-        .name(rs.getString("name"))
-        .birthday(Date.valueOf(rs.getString("birthday")).toLocalDate())
-        .build();
-    mapFriends(rs, user);
-    return user;
+  public RowMapper<User> compile(ResultSet rs) throws SQLException {
+    return new Columns(rs);
   }
 
-  private void mapFriends(ResultSet rs, User user) throws SQLException {
-    final List<Long> friendIds = RowMapperHelper.extractListLong(rs, "friend");
-    friendIds.forEach(i -> user.getFriends().add(i));
+  /**
+   * The column indexes of a user result set.
+   */
+  private static final class Columns implements RowMapper<User> {
+
+    private final int id;
+    private final int email;
+    private final int login;
+    private final int name;
+    private final int birthday;
+    private final int version;
+    private final int friendIds;
+
+    private Columns(ResultSet rs) throws SQLException {
+      id = rs.findColumn("id");
+      email = rs.findColumn("email");
+      login = rs.findColumn("login");
+      name = rs.findColumn("name");
+      birthday = rs.findColumn("birthday");
+      version = rs.findColumn("version");
+      friendIds = RowMapperHelper.findColumn(rs, "friend");
+    }
+
+    @Override
+    public User mapRow(ResultSet rs, int rowNum) throws SQLException {
+      final User user = User.builder()
+          .id(rs.getLong(id))
+          .email(rs.getString(email))
+          .login(rs.getString(login))
+          .name(rs.getString(name))
+          .birthday(rs.getDate(birthday).toLocalDate())
+          .version(rs.getLong(version))
+          .build();
+      RowMapperHelper.addLongs(rs, friendIds, user.getFriends());
+      return user;
+    }
   }
 }
@@ -12,6 +12,9 @@ DROP TABLE IF EXISTS event_type CASCADE;
 DROP TABLE IF EXISTS operation CASCADE;
 DROP TABLE IF EXISTS reviews CASCADE;
 DROP TABLE IF EXISTS review_likes CASCADE;
+DROP TABLE IF EXISTS review_useful_delta CASCADE;
+DROP TABLE IF EXISTS timeline CASCADE;
+DROP TABLE IF EXISTS event_archive CASCADE;
 
 CREATE TABLE IF NOT EXISTS mpa_rating
 (
@@ -33,6 +36,7 @@ CREATE TABLE IF NOT EXISTS film
   release_date DATE NOT NULL,
   duration INTEGER NOT NULL CHECK (duration > 0),
   mpa_rating_id BIGINT,
+  version BIGINT NOT NULL DEFAULT 0,
   FOREIGN KEY (mpa_rating_id) REFERENCES mpa_rating (id) ON DELETE SET NULL
 );
 
@@ -51,7 +55,8 @@ CREATE TABLE IF NOT EXISTS "user"
   email VARCHAR(255) NOT NULL UNIQUE,
   login VARCHAR(100) NOT NULL UNIQUE,
   name VARCHAR,
-  birthday DATE NOT NULL
+  birthday DATE NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS user_like
@@ -81,6 +86,7 @@ CREATE TABLE IF NOT EXISTS reviews
   user_id BIGINT,
   film_id BIGINT,
   useful INTEGER DEFAULT 0,
+  version BIGINT NOT NULL DEFAULT 0,
   FOREIGN KEY (user_id) REFERENCES "user" (id) ON DELETE CASCADE,
   FOREIGN KEY (film_id) REFERENCES film (id) ON DELETE CASCADE
 );
@@ -95,7 +101,18 @@ CREATE TABLE IF NOT EXISTS review_likes
   FOREIGN KEY (user_id) REFERENCES "user" (id) ON DELETE CASCADE
 );
 
+CREATE TABLE IF NOT EXISTS review_useful_delta
+(
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  review_id BIGINT NOT NULL,
+  score INTEGER NOT NULL,
+  skip_zero BOOLEAN NOT NULL,
+  FOREIGN KEY (review_id) REFERENCES reviews (review_id) ON DELETE CASCADE
+);
+
 CREATE INDEX IF NOT EXISTS idx_film_name ON film (name);
+CREATE INDEX IF NOT EXISTS idx_reviews_film_useful ON reviews (film_id, useful DESC, review_id);
+CREATE INDEX IF NOT EXISTS idx_reviews_useful ON reviews (useful DESC, review_id);
 
 CREATE TABLE IF NOT EXISTS director
 (
@@ -133,4 +150,39 @@ CREATE TABLE IF NOT EXISTS event
   FOREIGN KEY (event_type_id) REFERENCES event_type(id) ON DELETE RESTRICT ON UPDATE RESTRICT,
   FOREIGN KEY (operation_id) REFERENCES operation(id) ON DELETE RESTRICT ON UPDATE RESTRICT,
   FOREIGN KEY (user_id) REFERENCES "user"(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_event_user ON event (user_id, id);
+CREATE INDEX IF NOT EXISTS idx_friendship_friend ON friendship (friend_id);
+
+CREATE TABLE IF NOT EXISTS timeline
+(
+  user_id BIGINT,
+  event_id BIGINT,
+  author_id BIGINT,
+  event_type VARCHAR(10),
+  operation VARCHAR(10),
+  entity_id BIGINT,
+  timestamp TIMESTAMP,
+  PRIMARY KEY (user_id, event_id),
+  FOREIGN KEY (user_id) REFERENCES "user"(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_timeline_event ON timeline (event_id);
+
+CREATE INDEX IF NOT EXISTS idx_event_timestamp ON event (timestamp);
+
+CREATE TABLE IF NOT EXISTS event_archive
+(
+  id BIGINT PRIMARY KEY,
+  event_type_id BIGINT,
+  operation_id BIGINT,
+  timestamp TIMESTAMP,
+  user_id BIGINT,
+  entity_id BIGINT,
+  FOREIGN KEY (event_type_id) REFERENCES event_type(id) ON DELETE RESTRICT ON UPDATE RESTRICT,
+  FOREIGN KEY (operation_id) REFERENCES operation(id) ON DELETE RESTRICT ON UPDATE RESTRICT,
+  FOREIGN KEY (user_id) REFERENCES "user"(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_event_archive_user ON event_archive (user_id, id);
\ No newline at end of file
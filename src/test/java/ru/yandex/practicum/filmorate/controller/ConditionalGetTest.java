@@ -0,0 +1,90 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.UserService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Transactional
+public class ConditionalGetTest {
+
+  private final MockMvc mockMvc;
+
+  @SpyBean
+  private FilmService filmService;
+
+  @SpyBean
+  private UserService userService;
+
+  @Test
+  @DisplayName("GET /films/{id} - answers a matching tag with 304 and a new tag after a like.")
+  public void filmTagChangesAfterLike() throws Exception {
+    final String etag = etagOf("/films/3");
+    clearInvocations(filmService);
+
+    notModified("/films/3", etag);
+    verify(filmService, never()).getById(anyLong());
+
+    mockMvc.perform(put("/films/3/like/3")).andExpect(status().isOk());
+
+    assertThat(modifiedTag("/films/3", etag)).isNotEqualTo(etag);
+  }
+
+  @Test
+  @DisplayName("GET /users/{id}/friends - answers a matching tag with 304 and a new tag after "
+      + "a new friendship.")
+  public void friendsTagChangesAfterNewFriend() throws Exception {
+    final String etag = etagOf("/users/3/friends");
+    clearInvocations(userService);
+
+    notModified("/users/3/friends", etag);
+    verify(userService, never()).getUserFriends(anyLong());
+
+    mockMvc.perform(put("/users/3/friends/4")).andExpect(status().isOk());
+
+    assertThat(modifiedTag("/users/3/friends", etag)).isNotEqualTo(etag);
+  }
+
+  private String etagOf(final String path) throws Exception {
+    final String etag = mockMvc.perform(get(path))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    assertThat(etag).startsWith("W/\"");
+    return etag;
+  }
+
+  private void notModified(final String path, final String etag) throws Exception {
+    mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+  }
+
+  private String modifiedTag(final String path, final String etag) throws Exception {
+    return mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+  }
+}
@@ -0,0 +1,65 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import ru.yandex.practicum.filmorate.dto.GenreDto;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+
+public class JsonResponseCacheTest {
+
+  private final JsonResponseCache<String> cache = new JsonResponseCache<>(new ObjectMapper());
+
+  @Test
+  @DisplayName("get() - serializes the body once and serves the same bytes with a strong ETag.")
+  public void getSerializesBodyOnce() {
+    final AtomicInteger loads = new AtomicInteger();
+
+    final ResponseEntity<byte[]> first = cache.get("/genres", () -> {
+      loads.incrementAndGet();
+      return List.of(GenreDto.builder().id(1L).name("Комедия").build());
+    });
+    final ResponseEntity<byte[]> second = cache.get("/genres", () -> {
+      loads.incrementAndGet();
+      return List.of();
+    });
+
+    assertThat(loads).hasValue(1);
+    assertThat(new String(second.getBody(), StandardCharsets.UTF_8))
+        .isEqualTo("[{\"id\":1,\"name\":\"Комедия\"}]");
+    assertThat(second.getHeaders().getETag())
+        .isEqualTo(first.getHeaders().getETag())
+        .startsWith("\"")
+        .doesNotStartWith("W/");
+  }
+
+  @Test
+  @DisplayName("get() - does not cache a body that failed to load.")
+  public void getDoesNotCacheFailedLoad() {
+    assertThatThrownBy(() -> cache.get("/genres/100", () -> {
+      throw new NotFoundException("Genre with ID = 100 doesn't exist.");
+    })).isInstanceOf(NotFoundException.class);
+
+    final ResponseEntity<byte[]> response = cache.get("/genres/100", () -> "loaded");
+
+    assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo("\"loaded\"");
+  }
+
+  @Test
+  @DisplayName("clear() - serializes the body again with a new ETag after the data changed.")
+  public void clearRendersBodyAgain() {
+    final String etag = cache.get("/mpa", () -> List.of("G")).getHeaders().getETag();
+
+    cache.clear();
+    final ResponseEntity<byte[]> response = cache.get("/mpa", () -> List.of("G", "PG"));
+
+    assertThat(response.getHeaders().getETag()).isNotEqualTo(etag);
+  }
+}
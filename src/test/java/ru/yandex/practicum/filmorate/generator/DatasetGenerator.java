@@ -0,0 +1,653 @@
+package ru.yandex.practicum.filmorate.generator;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import ru.yandex.practicum.filmorate.builder.TestDataBuilder;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+/**
+ * Generates a synthetic dataset for load and scale testing and bulk-loads it through batched JDBC.
+ * <p>
+ * Users and films are built from the {@link TestDataBuilder} templates with unique names. Likes
+ * follow a power-law distribution over films and friendships over users, so a few films and users
+ * are much more popular than the rest; reviews are written for films chosen the same way. Every
+ * review gets votes of distinct users and a useful score matching them, and events of the
+ * supported types are spread over the 90 days before the events end, the default retention period
+ * of events. The dataset is appended to the existing data and depends on the seed and the events
+ * end only.
+ * <p>
+ * The events end defaults to a fixed instant, {@link #DEFAULT_EVENTS_END}, so the event retention
+ * of an application started against the dataset, when enabled, archives all of the events; pass
+ * the current time with {@code --events-end} to keep them in the feed.
+ * <p>
+ * Rows are generated in primary key order and inserted with multi-row statements, which keeps
+ * the index maintenance of the database cheap.
+ * <p>
+ * Runs from the command line against any JDBC URL; by default it generates about ten million rows,
+ * with sizes overridable one by one:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=ru.yandex.practicum.filmorate.generator.DatasetGenerator
+ *     -Dexec.args="--url=jdbc:h2:file:./db/filmorate;MODE=PostgreSQL --likes=4000000 --seed=42"
+ * </pre>
+ * The application recreates the schema on startup, so it has to be started with
+ * {@code --spring.sql.init.mode=never} to keep the generated data.
+ */
+@Slf4j
+public class DatasetGenerator {
+
+  private static final int BATCH_SIZE = 5000;
+  private static final int ROWS_PER_STATEMENT = 500;
+  private static final double POPULARITY_EXPONENT = 1.0;
+  private static final int GENRES = 6;
+  private static final int MPA_RATINGS = 5;
+  private static final Duration EVENT_PERIOD = Duration.ofDays(90);
+
+  /**
+   * The default instant the generated events end at.
+   */
+  public static final Instant DEFAULT_EVENTS_END = Instant.parse("2025-01-01T00:00:00Z");
+
+  private static final String USER_TABLE = "\"user\" (id, email, login, name, birthday)";
+  private static final String DIRECTOR_TABLE = "director (id, name)";
+  private static final String FILM_TABLE =
+      "film (id, name, description, release_date, duration, mpa_rating_id)";
+  private static final String FILM_GENRE_TABLE = "film_genre (film_id, genre_id)";
+  private static final String DIRECTOR_FILM_TABLE = "director_film (director_id, film_id)";
+  private static final String LIKE_TABLE = "user_like (film_id, user_id)";
+  private static final String FRIENDSHIP_TABLE = "friendship (id, friend_id)";
+  private static final String REVIEW_TABLE =
+      "reviews (review_id, content, is_positive, user_id, film_id, useful)";
+  private static final String VOTE_TABLE = "review_likes (review_id, user_id, is_useful)";
+  private static final String EVENT_TABLE =
+      "event (id, event_type_id, operation_id, timestamp, user_id, entity_id)";
+  private static final String FIND_EVENT_TYPE_ID_QUERY = "SELECT id FROM event_type WHERE type = ?";
+  private static final String FIND_OPERATION_ID_QUERY = "SELECT id FROM operation WHERE name = ?";
+
+  private final JdbcTemplate jdbc;
+  private final long seed;
+  private final Instant eventsEnd;
+
+  public DatasetGenerator(final JdbcTemplate jdbc, final long seed) {
+    this(jdbc, seed, DEFAULT_EVENTS_END);
+  }
+
+  public DatasetGenerator(final JdbcTemplate jdbc, final long seed, final Instant eventsEnd) {
+    this.jdbc = jdbc;
+    this.seed = seed;
+    this.eventsEnd = eventsEnd;
+  }
+
+  /**
+   * The sizes of a dataset.
+   *
+   * @param users       the number of users
+   * @param films       the number of films
+   * @param directors   the number of directors, each film gets one of them
+   * @param likes       the number of likes, limited by the number of films for every user
+   * @param friendships the number of friendships, limited by the number of users for every user
+   * @param reviews     the number of reviews
+   * @param votes       the number of review votes, limited by the number of users for every review
+   * @param events      the number of events
+   */
+  public record Size(int users, int films, int directors, long likes, long friendships,
+                     int reviews, long votes, long events) {
+
+    /**
+     * Derives the sizes of a dataset from the number of likes, the largest table.
+     *
+     * @param likes the number of likes
+     * @return the sizes with ten likes per user and a hundred per film
+     */
+    public static Size ofLikes(final long likes) {
+      final int users = (int) Math.max(1, likes / 10);
+      final int films = (int) Math.max(1, likes / 100);
+      return new Size(users, films, Math.max(1, films / 10), likes, likes / 2,
+          (int) (likes / 20), likes / 5, likes / 2);
+    }
+  }
+
+  /**
+   * Generates the dataset and loads it into the database.
+   *
+   * @param size the sizes of the dataset
+   * @return the number of rows inserted into every table
+   */
+  public Map<String, Long> generate(final Size size) {
+    final long started = System.nanoTime();
+    final Map<String, Long> rows = new LinkedHashMap<>();
+    final Ids ids = new Ids(nextId("\"user\"", "id"), nextId("film", "id"),
+        nextId("director", "id"), nextId("reviews", "review_id"), nextId("event", "id"));
+
+    rows.put("user", generateUsers(new Random(seed), ids, size));
+    rows.put("director", generateDirectors(ids, size));
+    rows.put("film", generateFilms(new Random(seed + 1), ids, size));
+    rows.put("user_like", generateLikes(new Random(seed + 2), ids, size));
+    rows.put("friendship", generateFriendships(new Random(seed + 3), ids, size));
+    generateReviews(new Random(seed + 4), ids, size, rows);
+    rows.put("event", generateEvents(new Random(seed + 5), ids, size));
+
+    restartIdentity("\"user\"", "id", ids.user + size.users());
+    restartIdentity("film", "id", ids.film + size.films());
+    restartIdentity("director", "id", ids.director + size.directors());
+    restartIdentity("reviews", "review_id", ids.review + size.reviews());
+    restartIdentity("event", "id", ids.event + size.events());
+    jdbc.execute("ANALYZE");
+
+    log.info("Generated {} rows with seed {} in {} ms: {}",
+        rows.values().stream().mapToLong(Long::longValue).sum(), seed,
+        Duration.ofNanos(System.nanoTime() - started).toMillis(), rows);
+    return rows;
+  }
+
+  /**
+   * Generates a dataset from the command line. Options: {@code --url}, {@code --username},
+   * {@code --password}, {@code --seed}, {@code --events-end} as an ISO-8601 instant,
+   * {@code --init-schema} to recreate the tables first, and {@code --likes} with optional overrides
+   * of the other {@link Size} components by their names.
+   *
+   * @param args the command line options
+   */
+  public static void main(final String[] args) {
+    final SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+    final SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+        option(options, "url", "jdbc:h2:file:./db/filmorate;MODE=PostgreSQL"),
+        option(options, "username", "sa"), option(options, "password", "password"), true);
+    try {
+      if (Boolean.parseBoolean(option(options, "init-schema", "false"))) {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"),
+            new ClassPathResource("data.sql")).execute(dataSource);
+      }
+      final Size defaults = Size.ofLikes(Long.parseLong(option(options, "likes", "4000000")));
+      final Size size = new Size(
+          Integer.parseInt(option(options, "users", String.valueOf(defaults.users()))),
+          Integer.parseInt(option(options, "films", String.valueOf(defaults.films()))),
+          Integer.parseInt(option(options, "directors", String.valueOf(defaults.directors()))),
+          defaults.likes(),
+          Long.parseLong(option(options, "friendships", String.valueOf(defaults.friendships()))),
+          Integer.parseInt(option(options, "reviews", String.valueOf(defaults.reviews()))),
+          Long.parseLong(option(options, "votes", String.valueOf(defaults.votes()))),
+          Long.parseLong(option(options, "events", String.valueOf(defaults.events()))));
+      new DatasetGenerator(new JdbcTemplate(dataSource),
+          Long.parseLong(option(options, "seed", "42")),
+          Instant.parse(option(options, "events-end", DEFAULT_EVENTS_END.toString())))
+          .generate(size);
+    } finally {
+      dataSource.destroy();
+    }
+  }
+
+  private static String option(final SimpleCommandLinePropertySource options, final String name,
+      final String defaultValue) {
+    final String value = options.getProperty(name);
+    return value == null ? defaultValue : value;
+  }
+
+  private long generateUsers(final Random random, final Ids ids, final Size size) {
+    final User template = TestDataBuilder.buildUser();
+    final String[] email = template.getEmail().split("@", 2);
+    final RowBatch batch = new RowBatch(USER_TABLE, 5);
+    for (long id = ids.user; id < ids.user + size.users(); id++) {
+      batch.add(id, email[0] + "+" + id + "@" + email[1], template.getLogin() + id,
+          template.getName() + " " + id,
+          Date.valueOf(template.getBirthday().plusDays(random.nextInt(20000))));
+    }
+    return batch.flush();
+  }
+
+  private long generateDirectors(final Ids ids, final Size size) {
+    final RowBatch batch = new RowBatch(DIRECTOR_TABLE, 2);
+    for (long id = ids.director; id < ids.director + size.directors(); id++) {
+      batch.add(id, "Director " + id);
+    }
+    return batch.flush();
+  }
+
+  private long generateFilms(final Random random, final Ids ids, final Size size) {
+    final Film template = TestDataBuilder.buildFilm();
+    final RowBatch films = new RowBatch(FILM_TABLE, 6);
+    final LongBatch genres = new LongBatch(FILM_GENRE_TABLE, 2, films);
+    final LongBatch directors = new LongBatch(DIRECTOR_FILM_TABLE, 2, films);
+    for (long id = ids.film; id < ids.film + size.films(); id++) {
+      films.add(id, template.getName() + " " + id, template.getDescription() + " " + id,
+          Date.valueOf(template.getReleaseDate().minusDays(random.nextInt(30000))),
+          template.getDuration() - 40 + random.nextInt(120), 1 + random.nextInt(MPA_RATINGS));
+      final int genre = 1 + random.nextInt(GENRES);
+      genres.add(id, genre);
+      if (random.nextBoolean()) {
+        genres.add(id, genre % GENRES + 1);
+      }
+      directors.add(ids.director + random.nextInt(size.directors()), id);
+    }
+    genres.flush();
+    directors.flush();
+    return films.flush();
+  }
+
+  private long generateLikes(final Random random, final Ids ids, final Size size) {
+    final LongBatch batch = new LongBatch(LIKE_TABLE, 2, null);
+    final int[] counts = new PowerLaw(size.films()).split(size.likes(), size.users());
+    for (int film = 0; film < size.films(); film++) {
+      for (final int user : sample(random, counts[film], size.users(), -1)) {
+        batch.add(ids.film + film, ids.user + user);
+      }
+    }
+    return batch.flush();
+  }
+
+  private long generateFriendships(final Random random, final Ids ids, final Size size) {
+    final PowerLaw users = new PowerLaw(size.users());
+    final LongBatch batch = new LongBatch(FRIENDSHIP_TABLE, 2, null);
+    final long perUser = size.friendships() / size.users();
+    final long remainder = size.friendships() % size.users();
+    for (int user = 0; user < size.users(); user++) {
+      final int count = (int) Math.min(size.users() - 1, perUser + (user < remainder ? 1 : 0));
+      for (final int friend : users.sampleDistinct(random, count, user)) {
+        batch.add(ids.user + user, ids.user + friend);
+      }
+    }
+    return batch.flush();
+  }
+
+  private void generateReviews(final Random random, final Ids ids, final Size size,
+      final Map<String, Long> rows) {
+    final PowerLaw films = new PowerLaw(size.films());
+    final RowBatch reviews = new RowBatch(REVIEW_TABLE, 6);
+    final LongBatch batch = new LongBatch(VOTE_TABLE, 3, reviews) {
+      @Override
+      void set(final PreparedStatement ps, final long[] values, final int offset,
+          final int parameter) throws SQLException {
+        ps.setLong(parameter, values[offset]);
+        ps.setLong(parameter + 1, values[offset + 1]);
+        ps.setBoolean(parameter + 2, values[offset + 2] != 0);
+      }
+    };
+    final long perReview = size.reviews() == 0 ? 0 : size.votes() / size.reviews();
+    final long remainder = size.reviews() == 0 ? 0 : size.votes() % size.reviews();
+    for (int review = 0; review < size.reviews(); review++) {
+      final int count = (int) Math.min(size.users(), perReview + (review < remainder ? 1 : 0));
+      final int[] voters = sample(random, count, size.users(), -1);
+      final boolean[] useful = new boolean[count];
+      int score = 0;
+      for (int i = 0; i < count; i++) {
+        useful[i] = random.nextInt(10) < 7;
+        score += useful[i] ? 1 : -1;
+      }
+      final long id = ids.review + review;
+      final boolean isPositive = random.nextBoolean();
+      reviews.add(id, (isPositive ? "Worth watching, review " : "Can't be worse, review ") + id,
+          isPositive, ids.user + random.nextInt(size.users()), ids.film + films.sample(random),
+          score);
+      for (int i = 0; i < count; i++) {
+        batch.add(id, ids.user + voters[i], useful[i] ? 1 : 0);
+      }
+    }
+    final long votes = batch.flush();
+    rows.put("reviews", reviews.flush());
+    rows.put("review_likes", votes);
+  }
+
+  private long generateEvents(final Random random, final Ids ids, final Size size) {
+    final long like = jdbc.queryForObject(FIND_EVENT_TYPE_ID_QUERY, Long.class, "LIKE");
+    final long review = jdbc.queryForObject(FIND_EVENT_TYPE_ID_QUERY, Long.class, "REVIEW");
+    final long friend = jdbc.queryForObject(FIND_EVENT_TYPE_ID_QUERY, Long.class, "FRIEND");
+    final long add = jdbc.queryForObject(FIND_OPERATION_ID_QUERY, Long.class, "ADD");
+    final long remove = jdbc.queryForObject(FIND_OPERATION_ID_QUERY, Long.class, "REMOVE");
+    final long update = jdbc.queryForObject(FIND_OPERATION_ID_QUERY, Long.class, "UPDATE");
+    final long start = eventsEnd.minus(EVENT_PERIOD).toEpochMilli();
+    final double step = (double) EVENT_PERIOD.toMillis() / Math.max(1, size.events());
+
+    final LongBatch batch = new LongBatch(EVENT_TABLE, 6, null) {
+      @Override
+      void set(final PreparedStatement ps, final long[] values, final int offset,
+          final int parameter) throws SQLException {
+        ps.setLong(parameter, values[offset]);
+        ps.setLong(parameter + 1, values[offset + 1]);
+        ps.setLong(parameter + 2, values[offset + 2]);
+        ps.setTimestamp(parameter + 3, new Timestamp(values[offset + 3]));
+        ps.setLong(parameter + 4, values[offset + 4]);
+        ps.setLong(parameter + 5, values[offset + 5]);
+      }
+    };
+    for (long event = 0; event < size.events(); event++) {
+      final int kind = random.nextInt(10);
+      final long type;
+      final long entity;
+      if (kind < 6 || size.reviews() == 0) {
+        type = like;
+        entity = ids.film + random.nextInt(size.films());
+      } else if (kind < 8) {
+        type = friend;
+        entity = ids.user + random.nextInt(size.users());
+      } else {
+        type = review;
+        entity = ids.review + random.nextInt(size.reviews());
+      }
+      final int action = random.nextInt(10);
+      final long operation = action < 8 ? add : type == review && action == 8 ? update : remove;
+      batch.add(ids.event + event, type, operation, start + (long) (event * step),
+          ids.user + random.nextInt(size.users()), entity);
+    }
+    return batch.flush();
+  }
+
+  /**
+   * Samples distinct indexes uniformly: by selection sampling when most of them are taken, or by
+   * rejecting repeated random indexes otherwise.
+   *
+   * @param random  the source of randomness
+   * @param count   the number of indexes, less than {@code bound} when an index is excluded
+   * @param bound   the upper bound of the indexes, exclusive
+   * @param exclude the index to skip, or {@code -1}
+   * @return the indexes in ascending order
+   */
+  private static int[] sample(final Random random, final int count, final int bound,
+      final int exclude) {
+    if (count * 4L <= bound) {
+      final Set<Integer> sample = new HashSet<>();
+      while (sample.size() < count) {
+        final int index = random.nextInt(bound);
+        if (index != exclude) {
+          sample.add(index);
+        }
+      }
+      return sorted(sample);
+    }
+    final int[] sample = new int[count];
+    int remaining = exclude < 0 ? bound : bound - 1;
+    for (int index = 0, taken = 0; taken < count; index++) {
+      if (index != exclude) {
+        if (random.nextInt(remaining) < count - taken) {
+          sample[taken++] = index;
+        }
+        remaining--;
+      }
+    }
+    return sample;
+  }
+
+  private static int[] sorted(final Set<Integer> indexes) {
+    final int[] sorted = indexes.stream().mapToInt(Integer::intValue).toArray();
+    Arrays.sort(sorted);
+    return sorted;
+  }
+
+  private long nextId(final String table, final String column) {
+    return jdbc.queryForObject("SELECT COALESCE(MAX(" + column + "), 0) + 1 FROM " + table,
+        Long.class);
+  }
+
+  private void restartIdentity(final String table, final String column, final long next) {
+    jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN " + column + " RESTART WITH " + next);
+  }
+
+  /**
+   * The first IDs of the generated entities.
+   */
+  private record Ids(long user, long film, long director, long review, long event) {
+  }
+
+  /**
+   * Samples indexes from {@code 0} to {@code n - 1} with probabilities decreasing as a power of
+   * the index, by a binary search over the cumulative weights.
+   */
+  private static final class PowerLaw {
+
+    private final double[] cumulative;
+
+    private PowerLaw(final int n) {
+      cumulative = new double[n];
+      double sum = 0;
+      for (int i = 0; i < n; i++) {
+        sum += 1 / Math.pow(i + 1, POPULARITY_EXPONENT);
+        cumulative[i] = sum;
+      }
+    }
+
+    private int sample(final Random random) {
+      final int found = Arrays.binarySearch(cumulative,
+          random.nextDouble() * cumulative[cumulative.length - 1]);
+      return Math.min(found < 0 ? -found - 1 : found, cumulative.length - 1);
+    }
+
+    /**
+     * Splits the total between the indexes in proportion to their probabilities. The part of an
+     * index exceeding the cap is carried over to the next index.
+     *
+     * @param total the total to split
+     * @param cap   the maximum part of an index
+     * @return the parts of the indexes
+     */
+    private int[] split(final long total, final int cap) {
+      final int[] parts = new int[cumulative.length];
+      final double sum = cumulative[cumulative.length - 1];
+      long assigned = 0;
+      long carried = 0;
+      for (int i = 0; i < parts.length; i++) {
+        final long upTo = Math.round(total * (cumulative[i] / sum));
+        final long part = upTo - assigned + carried;
+        assigned = upTo;
+        parts[i] = (int) Math.min(part, cap);
+        carried = part - parts[i];
+      }
+      return parts;
+    }
+
+    /**
+     * Samples distinct indexes. When sampling stops finding new indexes, the rest are taken in
+     * order.
+     *
+     * @param random  the source of randomness
+     * @param count   the number of indexes, less than {@code n} when an index is excluded
+     * @param exclude the index to skip, or {@code -1}
+     * @return the indexes in ascending order
+     */
+    private int[] sampleDistinct(final Random random, final int count, final int exclude) {
+      final Set<Integer> target = new HashSet<>();
+      final long attempts = count * 20L;
+      for (long attempt = 0; target.size() < count && attempt < attempts; attempt++) {
+        final int index = sample(random);
+        if (index != exclude) {
+          target.add(index);
+        }
+      }
+      for (int i = 0; target.size() < count; i++) {
+        if (i != exclude) {
+          target.add(i);
+        }
+      }
+      return sorted(target);
+    }
+  }
+
+  /**
+   * A batch of rows inserted with multi-row {@code INSERT} statements, themselves executed in a
+   * JDBC batch. The rows may reference the rows of a parent batch, which is flushed first.
+   */
+  private abstract class Batch {
+
+    private final String target;
+    private final int width;
+    private final Batch parent;
+    private final String statement;
+    private long total;
+
+    /**
+     * @param target the table with the list of columns
+     * @param width  the number of columns
+     * @param parent the batch the rows reference, or {@code null}
+     */
+    Batch(final String target, final int width, final Batch parent) {
+      this.target = target;
+      this.width = width;
+      this.parent = parent;
+      this.statement = insert(ROWS_PER_STATEMENT);
+    }
+
+    abstract int size();
+
+    abstract void set(PreparedStatement ps, int row, int parameter) throws SQLException;
+
+    abstract void clear();
+
+    /**
+     * Flushes the pending rows.
+     *
+     * @return the number of rows inserted by the batch in total
+     */
+    long flush() {
+      final int size = size();
+      if (size == 0) {
+        return total;
+      }
+      if (parent != null) {
+        parent.flush();
+      }
+      final int statements = size / ROWS_PER_STATEMENT;
+      jdbc.batchUpdate(statement, new BatchPreparedStatementSetter() {
+        @Override
+        public void setValues(final PreparedStatement ps, final int i) throws SQLException {
+          setRows(ps, i * ROWS_PER_STATEMENT, ROWS_PER_STATEMENT);
+        }
+
+        @Override
+        public int getBatchSize() {
+          return statements;
+        }
+      });
+      final int remaining = size - statements * ROWS_PER_STATEMENT;
+      if (remaining > 0) {
+        jdbc.update(insert(remaining), ps -> setRows(ps, statements * ROWS_PER_STATEMENT, remaining));
+      }
+      total += size;
+      clear();
+      return total;
+    }
+
+    void flushIfFull() {
+      if (size() == BATCH_SIZE) {
+        flush();
+      }
+    }
+
+    private void setRows(final PreparedStatement ps, final int first, final int count)
+        throws SQLException {
+      for (int row = 0; row < count; row++) {
+        set(ps, first + row, row * width + 1);
+      }
+    }
+
+    private String insert(final int rows) {
+      final String values = "(?" + ", ?".repeat(width - 1) + ")";
+      return "INSERT INTO " + target + " VALUES " + (values + ", ").repeat(rows - 1) + values;
+    }
+  }
+
+  /**
+   * A batch of rows with column values of any type.
+   */
+  private final class RowBatch extends Batch {
+
+    private final List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+
+    private RowBatch(final String target, final int width) {
+      super(target, width, null);
+    }
+
+    private void add(final Object... row) {
+      rows.add(row);
+      flushIfFull();
+    }
+
+    @Override
+    int size() {
+      return rows.size();
+    }
+
+    @Override
+    void set(final PreparedStatement ps, final int row, final int parameter) throws SQLException {
+      final Object[] values = rows.get(row);
+      for (int column = 0; column < values.length; column++) {
+        ps.setObject(parameter + column, values[column]);
+      }
+    }
+
+    @Override
+    void clear() {
+      rows.clear();
+    }
+  }
+
+  /**
+   * A batch of rows with long column values, kept in a single array.
+   */
+  private class LongBatch extends Batch {
+
+    private final int width;
+    private final long[] rows;
+    private int size;
+
+    LongBatch(final String target, final int width, final Batch parent) {
+      super(target, width, parent);
+      this.width = width;
+      this.rows = new long[BATCH_SIZE * width];
+    }
+
+    void add(final long... row) {
+      System.arraycopy(row, 0, rows, size * width, width);
+      size++;
+      flushIfFull();
+    }
+
+    /**
+     * Sets the parameters of a row, as long values unless overridden.
+     *
+     * @param ps        the statement
+     * @param values    the values of the batch
+     * @param offset    the index of the first value of the row
+     * @param parameter the index of the first parameter of the row
+     * @throws SQLException if a parameter cannot be set
+     */
+    void set(final PreparedStatement ps, final long[] values, final int offset, final int parameter)
+        throws SQLException {
+      for (int column = 0; column < width; column++) {
+        ps.setLong(parameter + column, values[offset + column]);
+      }
+    }
+
+    @Override
+    int size() {
+      return size;
+    }
+
+    @Override
+    void set(final PreparedStatement ps, final int row, final int parameter) throws SQLException {
+      set(ps, rows, row * width, parameter);
+    }
+
+    @Override
+    void clear() {
+      size = 0;
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package ru.yandex.practicum.filmorate.generator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@JdbcTest
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Transactional
+public class DatasetGeneratorTest {
+
+  private static final DatasetGenerator.Size SIZE =
+      new DatasetGenerator.Size(50, 20, 3, 200, 100, 30, 90, 100);
+
+  private final JdbcTemplate jdbc;
+
+  @Test
+  @DisplayName("generate() - inserts the requested number of rows into every table.")
+  public void generateInsertsRequestedRows() {
+    final long filmsBefore = count("film");
+    final long firstEvent =
+        jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM event", Long.class);
+
+    final Map<String, Long> rows = new DatasetGenerator(jdbc, 7).generate(SIZE);
+
+    assertThat(rows)
+        .containsEntry("user", 50L)
+        .containsEntry("director", 3L)
+        .containsEntry("film", 20L)
+        .containsEntry("user_like", 200L)
+        .containsEntry("friendship", 100L)
+        .containsEntry("reviews", 30L)
+        .containsEntry("review_likes", 90L)
+        .containsEntry("event", 100L);
+    assertThat(count("film")).isEqualTo(filmsBefore + 20);
+    assertThat(jdbc.queryForObject("""
+        SELECT COUNT(*) FROM reviews r
+        WHERE r.useful <> (SELECT COALESCE(SUM(CASE WHEN rl.is_useful THEN 1 ELSE -1 END), 0)
+                           FROM review_likes rl WHERE rl.review_id = r.review_id)
+        """, Long.class)).isZero();
+    assertThat(jdbc.queryForObject("SELECT MIN(timestamp) FROM event WHERE id >= ?",
+        Timestamp.class, firstEvent).toInstant())
+        .isAfterOrEqualTo(DatasetGenerator.DEFAULT_EVENTS_END.minus(Duration.ofDays(90)));
+    assertThat(jdbc.queryForObject("SELECT MAX(timestamp) FROM event WHERE id >= ?",
+        Timestamp.class, firstEvent).toInstant())
+        .isBefore(DatasetGenerator.DEFAULT_EVENTS_END);
+  }
+
+  @Test
+  @DisplayName("generate() - gives most likes to the most popular films.")
+  public void generateDistributesLikesByPowerLaw() {
+    new DatasetGenerator(jdbc, 7).generate(new DatasetGenerator.Size(200, 100, 10, 2000, 0, 0, 0, 0));
+
+    final List<Long> likes = jdbc.queryForList("""
+        SELECT COUNT(*) FROM user_like GROUP BY film_id ORDER BY COUNT(*) DESC
+        """, Long.class);
+    assertThat(likes.getFirst()).isGreaterThan(10 * likes.getLast());
+    assertThat(likes.subList(0, 10).stream().mapToLong(Long::longValue).sum()).isGreaterThan(600);
+  }
+
+  @Test
+  @DisplayName("generate() - produces the same dataset for the same seed.")
+  public void generateIsDeterministicBySeed() {
+    final String first = generateAndDigest(11);
+
+    assertThat(generateAndDigest(11)).isEqualTo(first);
+    assertThat(generateAndDigest(12)).isNotEqualTo(first);
+  }
+
+  /**
+   * Generates a dataset after the existing data and digests it with IDs relative to its first IDs.
+   */
+  private String generateAndDigest(final long seed) {
+    final long firstFilm = jdbc.queryForObject("SELECT MAX(id) + 1 FROM film", Long.class);
+    final long firstUser = jdbc.queryForObject("SELECT MAX(id) + 1 FROM \"user\"", Long.class);
+    final long firstEvent =
+        jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM event", Long.class);
+    new DatasetGenerator(jdbc, seed).generate(SIZE);
+    return jdbc.queryForObject("""
+        SELECT (SELECT SUM((film_id - ?) * 1000 + user_id - ?) FROM user_like WHERE film_id >= ?)
+            || '-' || (SELECT SUM((id - ?) * 1000 + friend_id - ?) FROM friendship WHERE id >= ?)
+            || '-' || (SELECT SUM(duration * (id - ?)) FROM film WHERE id >= ?)
+            || '-' || (SELECT SUM((id - ?) * (event_type_id * 10 + operation_id) + user_id - ?
+                                  + EXTRACT(EPOCH FROM timestamp))
+                       FROM event WHERE id >= ?)
+        """, String.class, firstFilm, firstUser, firstFilm, firstUser, firstUser, firstUser,
+        firstFilm, firstFilm, firstEvent, firstUser, firstEvent);
+  }
+
+  private long count(final String table) {
+    return jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+  }
+}
@@ -20,8 +20,12 @@ import ru.yandex.practicum.filmorate.model.EventType;
 import ru.yandex.practicum.filmorate.model.Operation;
 import ru.yandex.practicum.filmorate.service.DirectorServiceImpl;
 import ru.yandex.practicum.filmorate.service.EventServiceImpl;
+import ru.yandex.practicum.filmorate.service.FeedStreamServiceImpl;
 import ru.yandex.practicum.filmorate.service.FilmServiceImpl;
+import ru.yandex.practicum.filmorate.service.ReviewCache;
 import ru.yandex.practicum.filmorate.service.ReviewServiceImpl;
+import ru.yandex.practicum.filmorate.service.ReviewUsefulBuffer;
+import ru.yandex.practicum.filmorate.service.TimelineServiceImpl;
 import ru.yandex.practicum.filmorate.service.UserServiceImpl;
 import ru.yandex.practicum.filmorate.storage.dao.DirectorDbStorage;
 import ru.yandex.practicum.filmorate.storage.dao.EventDbStorage;
@@ -29,6 +33,7 @@ import ru.yandex.practicum.filmorate.storage.dao.FilmDbStorage;
 import ru.yandex.practicum.filmorate.storage.dao.GenreDbStorage;
 import ru.yandex.practicum.filmorate.storage.dao.MpaRatingDbStorage;
 import ru.yandex.practicum.filmorate.storage.dao.ReviewDbStorage;
+import ru.yandex.practicum.filmorate.storage.dao.TimelineDbStorage;
 import ru.yandex.practicum.filmorate.storage.dao.UserDbStorage;
 import ru.yandex.practicum.filmorate.storage.rowmappers.DirectorRowMapper;
 import ru.yandex.practicum.filmorate.storage.rowmappers.EventRowMapper;
@@ -45,9 +50,11 @@ import ru.yandex.practicum.filmorate.storage.rowmappers.UserRowMapper;
 @Import({FilmServiceImpl.class, FilmServiceImpl.class, FilmDbStorage.class, FilmRowMapper.class,
     UserServiceImpl.class, UserDbStorage.class, UserRowMapper.class,
     EventServiceImpl.class, EventDbStorage.class, EventRowMapper.class,
+    TimelineServiceImpl.class, TimelineDbStorage.class, FeedStreamServiceImpl.class,
     GenreDbStorage.class, GenreRowMapper.class,
     MpaRatingDbStorage.class, MpaRatingRowMapper.class,
-    ReviewServiceImpl.class, ReviewDbStorage.class, ReviewRowMapper.class,
+    ReviewServiceImpl.class, ReviewUsefulBuffer.class, ReviewCache.class,
+    ReviewDbStorage.class, ReviewRowMapper.class,
     DirectorServiceImpl.class, DirectorDbStorage.class, DirectorRowMapper.class})
 @Transactional
 public class EventServiceItTest {
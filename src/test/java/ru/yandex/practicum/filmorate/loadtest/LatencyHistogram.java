@@ -0,0 +1,96 @@
+package ru.yandex.practicum.filmorate.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of latencies in microseconds with log-linear buckets.
+ * <p>
+ * Every power-of-two range of latencies is split into {@value #SUB_BUCKETS} buckets, so recorded
+ * values are reported with a relative error below two percent, in a fixed amount of memory and
+ * without locking.
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int RANGES = 40;
+
+  private final AtomicLongArray counts = new AtomicLongArray(RANGES * SUB_BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Records a latency.
+   *
+   * @param micros the latency in microseconds
+   */
+  public void record(final long micros) {
+    final long value = Math.max(0, micros);
+    counts.incrementAndGet(Math.min(bucket(value), counts.length() - 1));
+    count.increment();
+    max.accumulate(value);
+  }
+
+  /**
+   * Adds the latencies recorded by another histogram.
+   *
+   * @param other the histogram to add
+   */
+  public void add(final LatencyHistogram other) {
+    for (int bucket = 0; bucket < counts.length(); bucket++) {
+      counts.addAndGet(bucket, other.counts.get(bucket));
+    }
+    count.add(other.count());
+    max.accumulate(other.max());
+  }
+
+  public long count() {
+    return count.sum();
+  }
+
+  public long max() {
+    return max.get();
+  }
+
+  /**
+   * Calculates a percentile of the recorded latencies.
+   *
+   * @param percentile the percentile, from 0 to 100
+   * @return the upper bound of the bucket holding the percentile, in microseconds, or {@code 0}
+   *     when nothing has been recorded
+   */
+  public long percentile(final double percentile) {
+    final long total = count();
+    if (total == 0) {
+      return 0;
+    }
+    final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+    long seen = 0;
+    for (int bucket = 0; bucket < counts.length(); bucket++) {
+      seen += counts.get(bucket);
+      if (seen >= rank) {
+        return Math.min(upperBound(bucket), max());
+      }
+    }
+    return max();
+  }
+
+  private static int bucket(final long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    final int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1;
+    return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+  }
+
+  private static long upperBound(final int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    final int shift = bucket / SUB_BUCKETS - 1;
+    final long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
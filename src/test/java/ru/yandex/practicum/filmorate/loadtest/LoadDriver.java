@@ -0,0 +1,303 @@
+package ru.yandex.practicum.filmorate.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A closed-loop HTTP load driver for a running application.
+ * <p>
+ * Every worker thread sends requests one after another, choosing them at random from the
+ * requests of the Postman collection, or of a JSON-lines shapes file, weighted by the request
+ * mix. Latencies are recorded per endpoint after the warm-up, and throughput with the p50, p95
+ * and p99 latencies is printed at the end, and optionally written to a JSON report.
+ * <p>
+ * Usage: {@code LoadDriver [--base-url=http://localhost:8080] [--collection=postman/sprint.json]
+ * [--shapes=file.jsonl] [--concurrency=16] [--duration=60] [--warmup=10]
+ * [--mix=films=5,users=2,like=1] [--users=1000] [--films=1000] [--directors=50]
+ * [--reviews=500] [--seed=42] [--report=target/load-report.json]}.
+ * Groups missing from the mix get weight {@code 1}, a weight of {@code 0} excludes the group.
+ */
+public class LoadDriver {
+
+  private static final Map<String, String> DEFAULTS = Map.ofEntries(
+      Map.entry("base-url", "http://localhost:8080"),
+      Map.entry("collection", "postman/sprint.json"),
+      Map.entry("shapes", ""),
+      Map.entry("concurrency", "16"),
+      Map.entry("duration", "60"),
+      Map.entry("warmup", "10"),
+      Map.entry("mix", ""),
+      Map.entry("users", "1000"),
+      Map.entry("films", "1000"),
+      Map.entry("directors", "50"),
+      Map.entry("reviews", "500"),
+      Map.entry("seed", "42"),
+      Map.entry("report", ""));
+
+  private final HttpClient client = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(Duration.ofSeconds(5))
+      .build();
+  private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+  private final String baseUrl;
+  private final List<RequestShape> shapes;
+  private final double[] cumulativeWeights;
+  private final RequestShape.Dataset dataset;
+
+  /**
+   * Creates the driver.
+   *
+   * @param baseUrl the URL of the application
+   * @param shapes  the requests to replay
+   * @param mix     the weights of the request groups
+   * @param dataset the numbers of entities to pick IDs from
+   */
+  public LoadDriver(final String baseUrl, final List<RequestShape> shapes,
+      final Map<String, Double> mix, final RequestShape.Dataset dataset) {
+    this.baseUrl = baseUrl.replaceFirst("/+$", "");
+    this.shapes = shapes.stream()
+        .filter(shape -> mix.getOrDefault(shape.group(), 1.0) * shape.weight() > 0)
+        .toList();
+    if (this.shapes.isEmpty()) {
+      throw new IllegalArgumentException("No requests to replay with the mix " + mix);
+    }
+    this.cumulativeWeights = new double[this.shapes.size()];
+    double total = 0;
+    for (int i = 0; i < this.shapes.size(); i++) {
+      final RequestShape shape = this.shapes.get(i);
+      total += mix.getOrDefault(shape.group(), 1.0) * shape.weight();
+      cumulativeWeights[i] = total;
+    }
+    this.dataset = dataset;
+  }
+
+  public static void main(final String[] args) throws Exception {
+    final Map<String, String> options = parseOptions(args);
+    final ObjectMapper mapper = new ObjectMapper();
+    final List<RequestShape> shapes = options.get("shapes").isEmpty()
+        ? RequestShape.fromPostman(Path.of(options.get("collection")), mapper)
+        : RequestShape.fromJsonLines(Path.of(options.get("shapes")), mapper);
+    final LoadDriver driver = new LoadDriver(options.get("base-url"), shapes,
+        parseMix(options.get("mix")),
+        RequestShape.Dataset.of(Integer.parseInt(options.get("users")),
+            Integer.parseInt(options.get("films")), Integer.parseInt(options.get("directors")),
+            Integer.parseInt(options.get("reviews"))));
+
+    final Duration duration = Duration.ofSeconds(Long.parseLong(options.get("duration")));
+    final Report report = driver.run(Integer.parseInt(options.get("concurrency")),
+        Duration.ofSeconds(Long.parseLong(options.get("warmup"))), duration,
+        Long.parseLong(options.get("seed")));
+    System.out.print(report.format());
+    if (!options.get("report").isEmpty()) {
+      mapper.enable(SerializationFeature.INDENT_OUTPUT)
+          .writeValue(Path.of(options.get("report")).toFile(), report);
+    }
+  }
+
+  /**
+   * Sends requests from the given number of threads for the warm-up and the measured duration.
+   *
+   * @param concurrency the number of worker threads
+   * @param warmup      the time to send requests before recording latencies
+   * @param duration    the time to record latencies
+   * @param seed        the seed of the request choice, different for every worker
+   * @return the report on the measured duration
+   * @throws InterruptedException if interrupted while waiting for the workers
+   */
+  public Report run(final int concurrency, final Duration warmup, final Duration duration,
+      final long seed) throws InterruptedException {
+    final long start = System.nanoTime();
+    final long measureFrom = start + warmup.toNanos();
+    final long stopAt = measureFrom + duration.toNanos();
+    final List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < concurrency; i++) {
+      final Random random = new Random(seed + i);
+      workers.add(Thread.ofPlatform().name("load-" + i).start(() -> work(random, measureFrom,
+          stopAt)));
+    }
+    for (final Thread worker : workers) {
+      worker.join();
+    }
+    return report(Duration.ofNanos(System.nanoTime() - measureFrom));
+  }
+
+  private void work(final Random random, final long measureFrom, final long stopAt) {
+    long now = System.nanoTime();
+    while (now < stopAt) {
+      final RequestShape shape = choose(random);
+      final String endpoint = shape.endpoint();
+      final boolean measured = now >= measureFrom;
+      int status;
+      try {
+        status = send(shape, random);
+      } catch (final IOException e) {
+        status = -1;
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      final long end = System.nanoTime();
+      if (measured) {
+        stats.computeIfAbsent(endpoint, key -> new Stats()).record(status, (end - now) / 1_000);
+      }
+      now = end;
+    }
+  }
+
+  private RequestShape choose(final Random random) {
+    final double point = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+    int low = 0;
+    int high = cumulativeWeights.length - 1;
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      if (cumulativeWeights[middle] <= point) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return shapes.get(low);
+  }
+
+  private int send(final RequestShape shape, final Random random)
+      throws IOException, InterruptedException {
+    final String body = shape.resolveBody();
+    final HttpRequest request = HttpRequest.newBuilder()
+        .uri(URI.create(baseUrl + shape.resolvePath(random, dataset)))
+        .timeout(Duration.ofSeconds(30))
+        .header("Content-Type", "application/json")
+        .method(shape.method(), body.isEmpty() ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.ofString(body))
+        .build();
+    return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+  }
+
+  private Report report(final Duration elapsed) {
+    final double seconds = elapsed.toNanos() / 1e9;
+    final Map<String, EndpointReport> endpoints = new TreeMap<>();
+    stats.forEach((endpoint, endpointStats) -> endpoints.put(endpoint,
+        endpointStats.report(seconds)));
+    final Stats total = new Stats();
+    stats.values().forEach(total::add);
+    return new Report(seconds, total.report(seconds), endpoints);
+  }
+
+  static Map<String, String> parseOptions(final String[] args) {
+    final Map<String, String> options = new HashMap<>(DEFAULTS);
+    for (final String arg : args) {
+      final int separator = arg.indexOf('=');
+      final String name = separator < 0 ? arg.substring(2) : arg.substring(2, separator);
+      if (!arg.startsWith("--") || !DEFAULTS.containsKey(name)) {
+        throw new IllegalArgumentException("Unknown option " + arg + ", expected one of "
+            + new TreeMap<>(DEFAULTS).keySet());
+      }
+      options.put(name, separator < 0 ? "true" : arg.substring(separator + 1));
+    }
+    return options;
+  }
+
+  static Map<String, Double> parseMix(final String mix) {
+    final Map<String, Double> weights = new LinkedHashMap<>();
+    for (final String entry : mix.split(",")) {
+      if (entry.isBlank()) {
+        continue;
+      }
+      final String[] parts = entry.split("=", 2);
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Expected group=weight in the mix, got " + entry);
+      }
+      weights.put(parts[0].strip(), Double.parseDouble(parts[1].strip()));
+    }
+    return weights;
+  }
+
+  /**
+   * The report on a load run.
+   *
+   * @param seconds   the measured duration
+   * @param total     the totals over all endpoints
+   * @param endpoints the results by endpoint
+   */
+  public record Report(double seconds, EndpointReport total, Map<String, EndpointReport> endpoints) {
+
+    /**
+     * Formats the report as a table.
+     *
+     * @return the table
+     */
+    public String format() {
+      final StringBuilder table = new StringBuilder(String.format(
+          "%-48s %9s %9s %7s %9s %9s %9s %9s%n", "endpoint", "requests", "req/s", "errors",
+          "p50 ms", "p95 ms", "p99 ms", "max ms"));
+      endpoints.forEach((endpoint, report) -> table.append(report.format(endpoint)));
+      table.append(total.format("TOTAL"));
+      return table.toString();
+    }
+  }
+
+  /**
+   * The results of an endpoint.
+   *
+   * @param requests   the number of responses
+   * @param throughput the number of responses per second
+   * @param errors     the number of failed requests and responses with 5xx statuses
+   * @param statuses   the number of responses by status, {@code -1} for failed requests
+   * @param p50        the median latency in milliseconds
+   * @param p95        the 95th percentile of latency in milliseconds
+   * @param p99        the 99th percentile of latency in milliseconds
+   * @param max        the maximum latency in milliseconds
+   */
+  public record EndpointReport(long requests, double throughput, long errors,
+      Map<Integer, Long> statuses, double p50, double p95, double p99, double max) {
+
+    private String format(final String endpoint) {
+      return String.format("%-48s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f%n", endpoint, requests,
+          throughput, errors, p50, p95, p99, max);
+    }
+  }
+
+  private static final class Stats {
+
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    private void record(final int status, final long micros) {
+      latencies.record(micros);
+      statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    private void add(final Stats other) {
+      latencies.add(other.latencies);
+      other.statuses.forEach((status, count) ->
+          statuses.computeIfAbsent(status, key -> new LongAdder()).add(count.sum()));
+    }
+
+    private EndpointReport report(final double seconds) {
+      final Map<Integer, Long> counts = new TreeMap<>();
+      statuses.forEach((status, count) -> counts.put(status, count.sum()));
+      final long errors = counts.entrySet().stream()
+          .filter(entry -> entry.getKey() < 0 || entry.getKey() >= 500)
+          .mapToLong(Map.Entry::getValue)
+          .sum();
+      return new EndpointReport(latencies.count(), latencies.count() / seconds, errors, counts,
+          latencies.percentile(50) / 1e3, latencies.percentile(95) / 1e3,
+          latencies.percentile(99) / 1e3, latencies.max() / 1e3);
+    }
+  }
+}
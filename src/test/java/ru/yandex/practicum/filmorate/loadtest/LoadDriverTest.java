@@ -0,0 +1,73 @@
+package ru.yandex.practicum.filmorate.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class LoadDriverTest {
+
+  private static final RequestShape.Dataset DATASET = RequestShape.Dataset.of(2, 4, 2, 1);
+
+  @LocalServerPort
+  private int port;
+
+  @Test
+  @DisplayName("percentile() - reports latencies within the bucket precision.")
+  public void histogramReportsPercentiles() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    for (int micros = 1; micros <= 10_000; micros++) {
+      histogram.record(micros);
+    }
+
+    assertThat(histogram.count()).isEqualTo(10_000);
+    assertThat(histogram.percentile(50)).isBetween(5_000L, 5_100L);
+    assertThat(histogram.percentile(99)).isBetween(9_900L, 10_000L);
+    assertThat(histogram.percentile(100)).isEqualTo(10_000);
+  }
+
+  @Test
+  @DisplayName("fromPostman() - reads the collection with path variables resolved by entity.")
+  public void fromPostmanReadsCollection() throws IOException {
+    final List<RequestShape> shapes =
+        RequestShape.fromPostman(Path.of("postman/sprint.json"), new ObjectMapper());
+
+    assertThat(shapes).isNotEmpty()
+        .allSatisfy(shape -> assertThat(shape.path()).startsWith("/").doesNotContain("baseUrl"));
+    final RequestShape like = shapes.stream()
+        .filter(shape -> shape.endpoint().equals("PUT /films/{film_id}/like/{id}"))
+        .findFirst()
+        .orElseThrow();
+    assertThat(like.resolvePath(new Random(1), DATASET)).matches("/films/[1-4]/like/[12]");
+  }
+
+  @Test
+  @DisplayName("run() - replays the collection against the application and reports every endpoint.")
+  public void runReplaysCollection() throws Exception {
+    final LoadDriver driver = new LoadDriver("http://localhost:" + port,
+        RequestShape.fromPostman(Path.of("postman/sprint.json"), new ObjectMapper()),
+        LoadDriver.parseMix("friends=0,like=0"), DATASET);
+
+    final LoadDriver.Report report = driver.run(2, Duration.ZERO, Duration.ofSeconds(2), 1);
+
+    assertThat(report.total().requests()).isPositive();
+    assertThat(report.total().errors()).isZero();
+    assertThat(report.endpoints()).containsKeys("GET /films", "GET /genres/{id}")
+        .doesNotContainKey("PUT /films/{film_id}/like/{id}");
+    assertThat(report.format()).contains("TOTAL");
+    assertThat(LoadDriver.parseMix("films=5, users=0.5"))
+        .isEqualTo(Map.of("films", 5.0, "users", 0.5));
+  }
+}
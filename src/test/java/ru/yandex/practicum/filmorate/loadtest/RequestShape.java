@@ -0,0 +1,186 @@
+package ru.yandex.practicum.filmorate.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The shape of a request replayed by the {@link LoadDriver}: a method, a path template and a body.
+ * <p>
+ * Path variables, written as {@code {{name}}}, are replaced with random IDs of the entities named
+ * by the preceding path segment, e.g. {@code /films/{{id}}/like/{{user}}} gets a film ID and a
+ * user ID. Logins and emails in bodies get a unique suffix, so created users do not collide.
+ *
+ * @param group  the group of the request, used to set the request mix
+ * @param name   the name of the request
+ * @param method the HTTP method
+ * @param path   the path template, with an optional query string
+ * @param body   the JSON body, or an empty string
+ * @param weight the relative frequency of the request within its group
+ */
+public record RequestShape(String group, String name, String method, String path, String body,
+                           double weight) {
+
+  private static final Pattern VARIABLE = Pattern.compile("\\{\\{([^}]+)}}");
+  private static final Pattern POSTMAN_PATH_VARIABLE = Pattern.compile("/:(\\w+)");
+  private static final Pattern UNIQUE_FIELD =
+      Pattern.compile("(\"(?:login|email)\"\\s*:\\s*\")([^\"@]*)");
+  private static final AtomicLong UNIQUE = new AtomicLong();
+
+  /**
+   * The number of entities of every kind, with IDs from {@code 1}.
+   *
+   * @param entities the number of entities by the path segment naming them
+   */
+  public record Dataset(Map<String, Integer> entities) {
+
+    /**
+     * Creates the dataset with the reference data of the application and the given numbers of
+     * users, films, directors and reviews.
+     */
+    public static Dataset of(final int users, final int films, final int directors,
+        final int reviews) {
+      return new Dataset(Map.of("users", users, "friends", users, "common", users, "like", users,
+          "films", films, "directors", directors, "reviews", reviews, "mpa", 5, "genres", 6));
+    }
+
+    private long randomId(final String segment, final Random random) {
+      return 1 + random.nextInt(Math.max(1, entities.getOrDefault(segment, entities.get("users"))));
+    }
+  }
+
+  /**
+   * The endpoint of the request for reports: the method and the path with the variables
+   * replaced by {@code {name}}, without the query string.
+   *
+   * @return the endpoint
+   */
+  public String endpoint() {
+    final int query = path.indexOf('?');
+    return method + " " + VARIABLE.matcher(query < 0 ? path : path.substring(0, query))
+        .replaceAll("{$1}");
+  }
+
+  /**
+   * Resolves the path template with random IDs from the dataset.
+   *
+   * @param random  the source of randomness
+   * @param dataset the numbers of entities
+   * @return the path with a query string
+   */
+  public String resolvePath(final Random random, final Dataset dataset) {
+    final StringBuilder resolved = new StringBuilder();
+    String previous = "";
+    for (final String segment : path.split("/", -1)) {
+      if (!resolved.isEmpty() || !segment.isEmpty()) {
+        resolved.append('/');
+      }
+      if (VARIABLE.matcher(segment).matches()) {
+        resolved.append(dataset.randomId(previous, random));
+      } else {
+        resolved.append(segment);
+      }
+      previous = segment;
+    }
+    return resolved.toString();
+  }
+
+  /**
+   * Makes the logins and emails of the body unique.
+   *
+   * @return the body to send
+   */
+  public String resolveBody() {
+    if (body.isEmpty()) {
+      return body;
+    }
+    final Matcher matcher = UNIQUE_FIELD.matcher(body);
+    return matcher.find() ? matcher.replaceAll("$1$2" + UNIQUE.incrementAndGet()) : body;
+  }
+
+  /**
+   * Reads the requests of a Postman collection, grouped by their top-level folders. Requests
+   * with bodies built by pre-request scripts are skipped, as the scripts cannot be replayed.
+   *
+   * @param file   the collection file
+   * @param mapper the JSON mapper
+   * @return the request shapes
+   * @throws IOException if the file cannot be read
+   */
+  public static List<RequestShape> fromPostman(final Path file, final ObjectMapper mapper)
+      throws IOException {
+    final List<RequestShape> shapes = new ArrayList<>();
+    for (final JsonNode folder : mapper.readTree(file.toFile()).path("item")) {
+      addPostmanItems(folder.path("name").asText(), folder, shapes);
+    }
+    return shapes;
+  }
+
+  /**
+   * Reads request shapes from a file with a JSON object per line, holding the {@code method},
+   * {@code path}, optional {@code group}, {@code name}, {@code body} and {@code weight} fields.
+   * Blank lines are skipped.
+   *
+   * @param file   the shapes file
+   * @param mapper the JSON mapper
+   * @return the request shapes
+   * @throws IOException if the file cannot be read or a line is malformed
+   */
+  public static List<RequestShape> fromJsonLines(final Path file, final ObjectMapper mapper)
+      throws IOException {
+    final List<RequestShape> shapes = new ArrayList<>();
+    for (final String line : Files.readAllLines(file)) {
+      if (line.isBlank()) {
+        continue;
+      }
+      final JsonNode node = mapper.readTree(line);
+      final JsonNode body = node.path("body");
+      final String method = node.path("method").asText("GET");
+      final String path = node.path("path").asText();
+      final String group = node.path("group").asText(path.replaceFirst("^/", "").split("[/?]")[0]);
+      shapes.add(new RequestShape(group, node.path("name").asText(method + " " + path), method, path,
+          body.isMissingNode() || body.isNull() ? "" : body.isTextual() ? body.asText()
+              : mapper.writeValueAsString(body),
+          node.path("weight").asDouble(1)));
+    }
+    return shapes;
+  }
+
+  private static void addPostmanItems(final String group, final JsonNode item,
+      final List<RequestShape> shapes) {
+    if (item.has("item")) {
+      for (final JsonNode child : item.path("item")) {
+        addPostmanItems(group, child, shapes);
+      }
+      return;
+    }
+    final JsonNode request = item.path("request");
+    final String method = request.path("method").asText();
+    final String body = request.path("body").path("raw").asText("").strip();
+    final String path = postmanPath(request.path("url"));
+    if (body.contains("{{") || path.isEmpty()
+        || body.isEmpty() && ("POST".equals(method) || "PUT".equals(method))
+        && !path.contains("{{")) {
+      return;
+    }
+    shapes.add(new RequestShape(group, item.path("name").asText(), method, path, body, 1));
+  }
+
+  private static String postmanPath(final JsonNode url) {
+    String path = (url.isTextual() ? url.asText() : url.path("raw").asText())
+        .replace("{{baseUrl}}", "");
+    for (final JsonNode variable : url.path("variable")) {
+      path = path.replace(":" + variable.path("key").asText(), variable.path("value").asText());
+    }
+    return POSTMAN_PATH_VARIABLE.matcher(path).replaceAll("/{{$1}}");
+  }
+}
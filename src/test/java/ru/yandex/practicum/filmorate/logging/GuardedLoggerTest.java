@@ -0,0 +1,87 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import ru.yandex.practicum.filmorate.model.Film;
+
+public class GuardedLoggerTest {
+
+  private static final Long USER_ID = 1_000L;
+
+  @Test
+  @DisplayName("debug() - builds no arrays and boxes no identifiers when the level is disabled.")
+  public void skipsDisabledLevel() {
+    final Logger delegate = mock(Logger.class);
+    final Film film = mock(Film.class);
+    final GuardedLogger log = new GuardedLogger(delegate);
+
+    log.debug("Film {} liked by {} at {}", film, 2L, 3L);
+    log.debug("Film {} of {} liked by {} at {}", film, film, 2L, 3L);
+    log.debug("Film with ID = {}.", 1L);
+
+    verify(delegate, never()).debug(anyString(), any(Object[].class));
+    verify(delegate, never()).debug(anyString(), any(Object.class));
+  }
+
+  @Test
+  @DisplayName("debug() - delegates all arguments when the level is enabled.")
+  public void delegatesEnabledLevel() {
+    final Logger delegate = mock(Logger.class);
+    when(delegate.isDebugEnabled()).thenReturn(true);
+    final GuardedLogger log = new GuardedLogger(delegate);
+
+    log.debug("Film {} liked by {} at {}", "film", 2L, 3L);
+    log.debug("Film with ID = {}.", 1L);
+
+    verify(delegate).debug("Film {} liked by {} at {}", "film", 2L, 3L);
+    verify(delegate).debug("Film with ID = {}.", (Object) 1L);
+  }
+
+  @Test
+  @DisplayName("debug() - allocates nothing per call at INFO level.")
+  public void allocatesNothingAtInfo() {
+    // a context of its own, as test contexts add a metrics turbo filter each
+    final ch.qos.logback.classic.Logger logger =
+        new LoggerContext().getLogger(GuardedLoggerTest.class);
+    logger.setLevel(Level.INFO);
+    final GuardedLogger log = new GuardedLogger(logger);
+    final Film film = Film.builder().name("Film").build();
+    final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    final long thread = Thread.currentThread().threadId();
+    final int iterations = 100_000;
+
+    // warms up until the logging calls are compiled and their arguments are no longer boxed
+    for (int round = 0; round < 10; round++) {
+      logMany(log, film, iterations);
+    }
+    final long before = threads.getThreadAllocatedBytes(thread);
+    logMany(log, film, iterations);
+    final long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+    // a boxed argument or varargs array per call would take 16 bytes at least, the bound leaves
+    // room for the allocations of deoptimization and compilation on the side
+    assertThat(allocated).isLessThan(iterations);
+  }
+
+  private static void logMany(final GuardedLogger log, final Film film, final int iterations) {
+    for (long id = 1_000; id < 1_000 + iterations; id++) {
+      log.debug("Film with ID = {}.", id);
+      log.debug("Like from user {} for the film {}.", USER_ID, film);
+      log.debug("Film {} liked by {} with {}", film, USER_ID, film);
+      log.debug("Film {} of {} liked by {} with {}", film, film, USER_ID, film);
+    }
+  }
+}
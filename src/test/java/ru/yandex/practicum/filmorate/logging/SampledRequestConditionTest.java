@@ -0,0 +1,56 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.zalando.logbook.HttpRequest;
+
+public class SampledRequestConditionTest {
+
+  @Test
+  @DisplayName("rateOf() - takes the rate of the first matching pattern or the default rate.")
+  public void rateOfTakesFirstMatchingPattern() {
+    final SampledRequestCondition condition =
+        new SampledRequestCondition(0.5, "/films/popular=0.2, /films/**=0.1,/users/*/friends=0");
+
+    assertThat(condition.rateOf("/films/popular")).isEqualTo(0.2);
+    assertThat(condition.rateOf("/films/1/like/2")).isEqualTo(0.1);
+    assertThat(condition.rateOf("/films")).isEqualTo(0.1);
+    assertThat(condition.rateOf("/users/1/friends")).isZero();
+    assertThat(condition.rateOf("/reviews")).isEqualTo(0.5);
+  }
+
+  @Test
+  @DisplayName("test() - logs requests with the rate of their path.")
+  public void testSamplesByRate() {
+    final SampledRequestCondition condition =
+        new SampledRequestCondition(1, "/films/**=0.1,/users/**=0");
+
+    assertThat(condition.test(request("/reviews"))).isTrue();
+    assertThat(condition.test(request("/users/1"))).isFalse();
+    assertThat(IntStream.range(0, 10_000).filter(i -> condition.test(request("/films/1"))).count())
+        .isBetween(700L, 1300L);
+  }
+
+  @Test
+  @DisplayName("new SampledRequestCondition() - rejects malformed and out of range rates.")
+  public void rejectsMalformedRates() {
+    assertThatThrownBy(() -> new SampledRequestCondition(1.5, ""))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new SampledRequestCondition(1, "/films/**"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new SampledRequestCondition(1, "/films/**=-1"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static HttpRequest request(final String path) {
+    final HttpRequest request = mock(HttpRequest.class);
+    when(request.getPath()).thenReturn(path);
+    return request;
+  }
+}
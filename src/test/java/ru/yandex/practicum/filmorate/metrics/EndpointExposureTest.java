@@ -0,0 +1,43 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "prod"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class EndpointExposureTest {
+
+  private final MockMvc mockMvc;
+
+  @Test
+  @DisplayName("prod profile - does not expose the query statistics endpoint.")
+  public void hidesQueryStatisticsInProd() throws Exception {
+    mockMvc.perform(get("/actuator/health"))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/actuator/queries"))
+        .andExpect(status().isNotFound());
+    mockMvc.perform(delete("/actuator/queries"))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @DisplayName("prod profile - does not expose the query plan endpoint.")
+  public void hidesQueryPlansInProd() throws Exception {
+    mockMvc.perform(get("/actuator/queryplans"))
+        .andExpect(status().isNotFound());
+    mockMvc.perform(get("/actuator/queryplans/FilmDbStorage.FIND_ALL_QUERY"))
+        .andExpect(status().isNotFound());
+  }
+}
@@ -0,0 +1,76 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.service.FilmService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class MethodMetricsAspectTest {
+
+  private final FilmService filmService;
+  private final MeterRegistry registry;
+  private final MockMvc mockMvc;
+
+  @Test
+  @DisplayName("timeService() - times service and storage calls by class and method.")
+  public void timesServiceAndStorageCalls() {
+    final long before = count(MethodMetricsAspect.SERVICE_METRIC, "FilmServiceImpl", "getAll");
+
+    filmService.getAll();
+
+    assertThat(count(MethodMetricsAspect.SERVICE_METRIC, "FilmServiceImpl", "getAll"))
+        .isEqualTo(before + 1);
+    assertThat(registry.find(MethodMetricsAspect.STORAGE_METRIC).tag("class", "FilmDbStorage")
+        .timers()).isNotEmpty();
+  }
+
+  @Test
+  @DisplayName("timeService() - counts failed calls by exception.")
+  public void countsFailedCalls() {
+    assertThatThrownBy(() -> filmService.getById(Long.MAX_VALUE))
+        .isInstanceOf(NotFoundException.class);
+
+    assertThat(registry.get(MethodMetricsAspect.SERVICE_METRIC + ".errors")
+        .tag("class", "FilmServiceImpl")
+        .tag("method", "getById")
+        .tag("exception", "NotFoundException")
+        .counter().count()).isPositive();
+  }
+
+  @Test
+  @DisplayName("GET /actuator/prometheus - exports the timers with histogram buckets.")
+  public void exportsPrometheusHistograms() throws Exception {
+    filmService.getAll();
+
+    mockMvc.perform(get("/actuator/prometheus"))
+        .andExpect(status().isOk())
+        .andExpect(content().string(Matchers.containsString(
+            "filmorate_service_seconds_bucket{class=\"FilmServiceImpl\",method=\"getAll\"")));
+  }
+
+  private long count(final String metric, final String type, final String method) {
+    final Timer timer = registry.find(metric).tag("class", type).tag("method", method).timer();
+    return timer == null ? 0 : timer.count();
+  }
+}
@@ -0,0 +1,105 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.generator.DatasetGenerator;
+
+@JdbcTest
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Import(QueryPlans.class)
+@Transactional
+public class QueryPlansTest {
+
+  /**
+   * Tables, which must not be read without an index condition by the named queries.
+   */
+  private static final Set<String> KEYED_TABLES =
+      Set.of("user_like", "friendship", "event", "reviews", "review_likes", "timeline");
+
+  /**
+   * Full scans of the keyed tables, which are expected, with the reason.
+   */
+  private static final Map<String, String> EXPECTED_FULL_SCANS = Map.of(
+      "ReviewDbStorage.FIND_TOP_QUERY",
+      "reads idx_reviews_useful in order and stops after LIMIT rows",
+      "UserDbStorage.GET_POPULAR_USER_IDS_QUERY",
+      "counts followers over idx_friendship_friend once, on startup");
+
+  /**
+   * Constants, which are fragments of queries built at runtime.
+   */
+  private static final Set<String> FRAGMENTS = Set.of(
+      "FilmDbStorage.SEARCH_BY_ONE_CRITERIA_START", "FilmDbStorage.SEARCH_BY_ONE_CRITERIA_END");
+
+  private final QueryPlans queryPlans;
+  private final JdbcTemplate jdbc;
+
+  @BeforeEach
+  public void seed() {
+    new DatasetGenerator(jdbc, 1).generate(DatasetGenerator.Size.ofLikes(5_000));
+  }
+
+  @Test
+  @DisplayName("explainAll() - reads keyed tables by index in all named queries.")
+  public void keyedTablesAreReadByIndex() {
+    final Map<String, Set<String>> fullScans = new TreeMap<>();
+    queryPlans.explainAll().forEach((name, plan) -> plan.fullScans().stream()
+        .filter(KEYED_TABLES::contains)
+        .forEach(table -> fullScans.computeIfAbsent(name, key -> new TreeSet<>())
+            .add(table)));
+
+    assertThat(fullScans.keySet())
+        .as("Named queries reading keyed tables without an index condition: %s", fullScans)
+        .containsExactlyInAnyOrderElementsOf(EXPECTED_FULL_SCANS.keySet());
+  }
+
+  @Test
+  @DisplayName("explainAll() - explains every named query, except query fragments.")
+  public void explainsAllNamedQueries() {
+    final Map<String, QueryPlans.QueryPlan> plans = queryPlans.explainAll();
+
+    assertThat(plans).containsKeys("FilmDbStorage.FIND_BY_ID", "UserDbStorage.GET_FRIENDS_QUERY",
+        "ReviewDbStorage.SAVE_VOTE_QUERY", "EventDbStorage.FIND_LATEST_EVENTS_OF_USERS_QUERY");
+    assertThat(plans.values())
+        .filteredOn(plan -> plan.error() != null)
+        .extracting(QueryPlans.QueryPlan::name)
+        .containsExactlyInAnyOrderElementsOf(FRAGMENTS);
+    assertThat(queryPlans.explain("UserDbStorage.REMOVE_FRIEND_QUERY")).get()
+        .satisfies(plan -> assertThat(plan.plan()).contains("PRIMARY_KEY"));
+    assertThat(queryPlans.explain("UserDbStorage.UNKNOWN")).isEmpty();
+  }
+
+  @Test
+  @DisplayName("fullScans() - finds tables read without an index condition.")
+  public void fullScansFindsUnconditionedReads() {
+    final String plan = """
+        SELECT "E"."ID" FROM "PUBLIC"."EVENT" "E"
+            /* PUBLIC.EVENT.tableScan */
+        LEFT OUTER JOIN "PUBLIC"."user" "U"
+            /* PUBLIC.PRIMARY_KEY_3: ID = E.USER_ID */
+            ON "E"."USER_ID" = "U"."ID"
+        LEFT OUTER JOIN "PUBLIC"."TIMELINE"
+            /* PUBLIC.CONSTRAINT_INDEX_B2 */
+            ON "TIMELINE"."EVENT_ID" = "E"."ID"
+        """;
+
+    assertThat(QueryPlans.fullScans(plan)).containsExactly("event", "timeline");
+  }
+}
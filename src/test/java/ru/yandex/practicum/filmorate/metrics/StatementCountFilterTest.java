@@ -0,0 +1,114 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class StatementCountFilterTest {
+
+  private final MockMvc mockMvc;
+  private final MeterRegistry registry;
+
+  @Test
+  @DisplayName("doFilter() - sends and records the number of statements of a request.")
+  public void countsStatementsOfRequest() throws Exception {
+    final String count = mockMvc.perform(get("/films/1"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(StatementCountFilter.HEADER);
+
+    assertThat(Integer.parseInt(count)).isPositive();
+    assertThat(registry.get(StatementCountFilter.METRIC)
+        .tag("method", "GET")
+        .tag("uri", "/films/{id}")
+        .summary().max()).isPositive();
+  }
+
+  @Test
+  @DisplayName("doFilter() - counts every statement of a review vote.")
+  public void countsStatementsOfVote() throws Exception {
+    // The user check, the vote and the score update returning the review.
+    final String added = mockMvc.perform(put("/reviews/1/like/1"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(StatementCountFilter.HEADER);
+    final String removed = mockMvc.perform(delete("/reviews/1/like/1"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(StatementCountFilter.HEADER);
+
+    assertThat(added).isEqualTo("3");
+    assertThat(removed).isEqualTo("3");
+  }
+
+  @Test
+  @DisplayName("doFilter() - sets the header before the body is written.")
+  public void setsHeaderBeforeBody() throws Exception {
+    final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    new StatementCountFilter(new SimpleMeterRegistry(), 20, true).doFilter(
+        new MockHttpServletRequest("GET", "/"), response,
+        new MockFilterChain(statementIssuingServlet(3)));
+
+    assertThat(response.getHeader(StatementCountFilter.HEADER)).isEqualTo("3");
+    assertThat(response.getContentAsString()).isEqualTo("body");
+  }
+
+  @Test
+  @DisplayName("doFilter() - records the count without the header when the header is disabled.")
+  public void recordsWithoutHeader() throws Exception {
+    final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    new StatementCountFilter(meters, 20, false).doFilter(new MockHttpServletRequest("GET", "/"),
+        response, new MockFilterChain(statementIssuingServlet(2)));
+
+    assertThat(response.containsHeader(StatementCountFilter.HEADER)).isFalse();
+    final DistributionSummary summary = meters.get(StatementCountFilter.METRIC).summary();
+    assertThat(summary.count()).isEqualTo(1);
+    assertThat(summary.totalAmount()).isEqualTo(3);
+    assertThat(StatementCounter.current()).isZero();
+  }
+
+  /**
+   * Issues the statements, writes and commits the body, then issues one more statement.
+   */
+  private static HttpServlet statementIssuingServlet(final int statements) {
+    return new HttpServlet() {
+      @Override
+      protected void service(final HttpServletRequest request, final HttpServletResponse response)
+          throws IOException {
+        for (int i = 0; i < statements; i++) {
+          StatementCounter.increment();
+        }
+        response.getWriter().write("body");
+        response.flushBuffer();
+        StatementCounter.increment();
+      }
+    };
+  }
+}
@@ -0,0 +1,79 @@
+package ru.yandex.practicum.filmorate.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.model.EventType;
+import ru.yandex.practicum.filmorate.model.Operation;
+import ru.yandex.practicum.filmorate.storage.dao.EventDbStorage;
+import ru.yandex.practicum.filmorate.storage.rowmappers.EventRowMapper;
+
+@JdbcTest
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Import({EventDbStorage.class, EventRowMapper.class})
+@Transactional
+public class EventRetentionJobTest {
+
+  private final EventDbStorage eventStorage;
+  private final JdbcTemplate jdbc;
+
+  @Test
+  @DisplayName("archiveExpiredEvents() - collapses ADD/REMOVE pairs split across batches.")
+  public void collapsesPairsAcrossBatches() {
+    final Event addFirst = addEvent(Operation.ADD, 1L, 100);
+    final Event addSecond = addEvent(Operation.ADD, 2L, 100);
+    final Event addThird = addEvent(Operation.ADD, 3L, 100);
+    final Event removeFirst = addEvent(Operation.REMOVE, 1L, 100);
+    final Event recent = addEvent(Operation.REMOVE, 2L, 1);
+
+    new EventRetentionJob(eventStorage, 90, 2, 100).archiveExpiredEvents();
+
+    assertThat(jdbc.queryForList("SELECT id FROM event_archive ORDER BY id", Long.class))
+        .containsExactly(addSecond.getEventId(), addThird.getEventId())
+        .doesNotContain(addFirst.getEventId(), removeFirst.getEventId());
+    assertThat(eventStorage.findUserEvents(1L))
+        .extracting(Event::getEventId)
+        .containsExactly(recent.getEventId());
+  }
+
+  @Test
+  @DisplayName("archiveExpiredEvents() - archives the oldest open ADD beyond the carry limit.")
+  public void archivesOldestOpenSegmentBeyondLimit() {
+    final Event addFirst = addEvent(Operation.ADD, 1L, 100);
+    final Event addSecond = addEvent(Operation.ADD, 2L, 100);
+    final Event removeSecond = addEvent(Operation.REMOVE, 2L, 100);
+    final Event removeFirst = addEvent(Operation.REMOVE, 1L, 100);
+
+    new EventRetentionJob(eventStorage, 90, 1, 1).archiveExpiredEvents();
+
+    assertThat(jdbc.queryForList("SELECT id FROM event_archive ORDER BY id", Long.class))
+        .containsExactly(addFirst.getEventId(), removeFirst.getEventId())
+        .doesNotContain(addSecond.getEventId(), removeSecond.getEventId());
+  }
+
+  private Event addEvent(final Operation operation, final Long filmId, final int daysAgo) {
+    final Event event = Event.builder()
+        .timestamp(Instant.now().minus(Duration.ofDays(daysAgo)).toEpochMilli())
+        .userId(1L)
+        .eventType(EventType.LIKE)
+        .operation(operation)
+        .entityId(filmId)
+        .build();
+    eventStorage.addEvent(event);
+    return event;
+  }
+}
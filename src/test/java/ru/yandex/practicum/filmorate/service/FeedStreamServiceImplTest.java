@@ -0,0 +1,46 @@
+package ru.yandex.practicum.filmorate.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class FeedStreamServiceImplTest {
+
+  private final MockMvc mockMvc;
+  private final FeedStreamServiceImpl feedStreamService;
+
+  @Test
+  @DisplayName("subscribe(...) - forgets the user once the last stream of the user is closed.")
+  public void removesUserWithoutStreams() throws Exception {
+    final int before = feedStreamService.subscribedUsers();
+    final MvcResult first = stream();
+    final MvcResult second = stream();
+    assertThat(feedStreamService.subscribedUsers()).isEqualTo(before + 1);
+
+    first.getRequest().getAsyncContext().complete();
+    assertThat(feedStreamService.subscribedUsers()).isEqualTo(before + 1);
+
+    second.getRequest().getAsyncContext().complete();
+    assertThat(feedStreamService.subscribedUsers()).isEqualTo(before);
+  }
+
+  private MvcResult stream() throws Exception {
+    return mockMvc.perform(get("/users/1/feed/stream"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+  }
+}
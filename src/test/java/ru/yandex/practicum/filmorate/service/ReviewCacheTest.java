@@ -0,0 +1,102 @@
+package ru.yandex.practicum.filmorate.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.dto.ReviewDto;
+
+public class ReviewCacheTest {
+
+  private static final Long FILM_ID = 1L;
+
+  private final AtomicInteger loads = new AtomicInteger();
+  private final List<ReviewDto> stored = new ArrayList<>();
+  private ReviewCache cache;
+
+  @BeforeEach
+  public void setUp() {
+    cache = new ReviewCache(2, 1, Duration.ofMinutes(1));
+    stored.add(buildReview(1L, 5));
+    stored.add(buildReview(2L, 3));
+    stored.add(buildReview(3L, 1));
+  }
+
+  @Test
+  @DisplayName("get(...) - loads the snapshot once and serves the next requests from it.")
+  public void getServesRepeatedRequestsFromSnapshot() {
+    assertThat(get(2)).extracting(ReviewDto::getReviewId).containsExactly(1L, 2L);
+    assertThat(get(1)).extracting(ReviewDto::getReviewId).containsExactly(1L);
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  @DisplayName("get(...) - bypasses the cache for more reviews than a snapshot holds.")
+  public void getBypassesCacheForLargeCount() {
+    assertThat(get(3)).extracting(ReviewDto::getReviewId).containsExactly(1L, 2L, 3L);
+    get(3);
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("invalidate(Long) - drops the snapshot, so the next request reloads it.")
+  public void invalidateReloadsSnapshot() {
+    get(2);
+    cache.invalidate(FILM_ID);
+    get(2);
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("onScoreChanged(ReviewDto) - reorders the snapshot without reloading it.")
+  public void onScoreChangedReordersSnapshot() {
+    get(2);
+    cache.onScoreChanged(buildReview(2L, 6), 3);
+    assertThat(get(2)).extracting(ReviewDto::getReviewId).containsExactly(2L, 1L);
+    cache.onScoreChanged(buildReview(3L, 4), 3);
+    assertThat(get(2)).extracting(ReviewDto::getReviewId).containsExactly(2L, 1L);
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  @DisplayName("onScoreChanged(ReviewDto) - drops the snapshot when its last review may be outrun.")
+  public void onScoreChangedDropsSnapshotWhenLastReviewDecreases() {
+    get(2);
+    stored.set(1, buildReview(2L, 0));
+    cache.onScoreChanged(buildReview(2L, 0), -3);
+    assertThat(get(2)).extracting(ReviewDto::getReviewId).containsExactly(1L, 3L);
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("get(...) - evicts the least recently requested film over the limit.")
+  public void getEvictsColdFilm() {
+    get(2);
+    cache.get(2L, 2, limit -> List.of());
+    get(2);
+    assertThat(loads).hasValue(2);
+  }
+
+  private List<ReviewDto> get(final int count) {
+    return cache.get(FILM_ID, count, limit -> {
+      loads.incrementAndGet();
+      return stored.stream()
+          .sorted((a, b) -> b.getUseful() - a.getUseful())
+          .limit(limit)
+          .toList();
+    });
+  }
+
+  private ReviewDto buildReview(final Long id, final int useful) {
+    return ReviewDto.builder()
+        .reviewId(id)
+        .filmId(FILM_ID)
+        .useful(useful)
+        .build();
+  }
+}
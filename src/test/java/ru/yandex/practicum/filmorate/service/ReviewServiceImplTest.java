@@ -0,0 +1,56 @@
+package ru.yandex.practicum.filmorate.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.yandex.practicum.filmorate.builder.TestDataBuilder;
+import ru.yandex.practicum.filmorate.dto.ReviewDto;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ReviewServiceImplTest {
+
+  private static final Long FILM_ID = 4L;
+
+  private final ReviewService reviewService;
+  private final List<Long> reviewIds = new ArrayList<>();
+
+  @AfterEach
+  public void removeReviews() {
+    reviewIds.forEach(reviewService::removeReview);
+  }
+
+  @Test
+  @DisplayName("getReviewsByFilmId(...) - pages by scores including the latest votes.")
+  public void nextPageSeesLatestVotes() {
+    final Long first = saveReview(1L);
+    final Long second = saveReview(2L);
+    final Long third = saveReview(3L);
+    assertThat(reviewService.getReviewsByFilmId(FILM_ID, 2, null, null))
+        .extracting(ReviewDto::getReviewId)
+        .containsExactly(first, second);
+
+    reviewService.addReviewDislike(first, 4L);
+
+    assertThat(reviewService.getReviewsByFilmId(FILM_ID, 2, 0, second))
+        .extracting(ReviewDto::getReviewId, ReviewDto::getUseful)
+        .containsExactly(tuple(third, 0), tuple(first, -1));
+  }
+
+  private Long saveReview(final Long userId) {
+    final Long reviewId = reviewService.saveReview(TestDataBuilder.buildReview(userId, FILM_ID))
+        .getReviewId();
+    reviewIds.add(reviewId);
+    return reviewId;
+  }
+}
@@ -0,0 +1,100 @@
+package ru.yandex.practicum.filmorate.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.builder.TestDataBuilder;
+import ru.yandex.practicum.filmorate.model.Review;
+import ru.yandex.practicum.filmorate.storage.dao.ReviewDbStorage;
+import ru.yandex.practicum.filmorate.storage.rowmappers.ReviewRowMapper;
+
+@JdbcTest
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Import({ReviewDbStorage.class, ReviewRowMapper.class, ReviewUsefulBuffer.class})
+@Transactional
+public class ReviewUsefulBufferTest {
+
+  private final ReviewDbStorage reviewStorage;
+  private final ReviewUsefulBuffer usefulBuffer;
+  private final JdbcTemplate jdbc;
+
+  @Test
+  @DisplayName("readAll(...) - applies pending votes to the persisted page without flushing.")
+  public void readAllAppliesPendingVotes() {
+    final Long first = saveReview(4);
+    final Long second = saveReview(3);
+    final Long third = saveReview(2);
+    addPending(second, 1, false);
+    addPending(second, 1, false);
+    addPending(third, 1, false);
+
+    assertThat(usefulBuffer.readAll(() -> reviewStorage.findAllByFilmId(2L, 2)))
+        .extracting(Review::getReviewId, Review::getUseful)
+        .containsExactly(tuple(second, 5), tuple(first, 4));
+    assertThat(usefulBuffer.read(() -> reviewStorage.findById(third).orElseThrow()).getUseful())
+        .isEqualTo(3);
+    assertThat(reviewStorage.findById(second).orElseThrow().getUseful()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("read(...) - applies pending votes in order, skipping zero once.")
+  public void readSkipsZeroByPreviousVotes() {
+    final Long review = saveReview(-1);
+    addPending(review, 1, true);
+    addPending(review, 1, true);
+
+    assertThat(usefulBuffer.read(() -> reviewStorage.findById(review).orElseThrow()).getUseful())
+        .isEqualTo(2);
+    usefulBuffer.flush();
+    assertThat(usefulBuffer.read(() -> reviewStorage.findById(review).orElseThrow()).getUseful())
+        .isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("add(...) - skips a vote applied by a flush before it was added.")
+  public void addSkipsFlushedVote() {
+    final Long review = saveReview(1);
+    final Long journalId = reviewStorage.addPendingUseful(review, 1, true);
+
+    usefulBuffer.flush();
+    usefulBuffer.add(review, journalId, 1, true);
+
+    assertThat(usefulBuffer.read(() -> reviewStorage.findById(review).orElseThrow()).getUseful())
+        .isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("recover() - applies the pending votes left by the previous run.")
+  public void recoverAppliesJournal() {
+    final Long review = saveReview(1);
+    reviewStorage.addPendingUseful(review, -1, true);
+
+    usefulBuffer.recover();
+
+    assertThat(reviewStorage.findById(review).orElseThrow().getUseful()).isEqualTo(-1);
+    assertThat(reviewStorage.applyPendingUseful()).isEmpty();
+  }
+
+  private Long saveReview(final int useful) {
+    final Long reviewId = reviewStorage.save(TestDataBuilder.buildReview()).getReviewId();
+    jdbc.update("UPDATE reviews SET useful = ? WHERE review_id = ?", useful, reviewId);
+    return reviewId;
+  }
+
+  private void addPending(final Long reviewId, final int score, final boolean skipZero) {
+    usefulBuffer.add(reviewId, reviewStorage.addPendingUseful(reviewId, score, skipZero), score,
+        skipZero);
+  }
+}
@@ -0,0 +1,205 @@
+package ru.yandex.practicum.filmorate.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.model.EventType;
+import ru.yandex.practicum.filmorate.model.Operation;
+import ru.yandex.practicum.filmorate.storage.EventStorage;
+import ru.yandex.practicum.filmorate.storage.TimelineStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+public class TimelineServiceImplTest {
+
+  private static final Long AUTHOR_ID = 2L;
+  private static final Long FOLLOWER_ID = 1L;
+  private static final Long POPULAR_ID = 5L;
+
+  private final TimelineStorage timelineStorage = mock(TimelineStorage.class);
+  private final EventStorage eventStorage = mock(EventStorage.class);
+  private final UserStorage userStorage = mock(UserStorage.class);
+  private final List<Event> persisted = new CopyOnWriteArrayList<>();
+  private TimelineServiceImpl service;
+
+  @BeforeEach
+  public void setUp() {
+    service = new TimelineServiceImpl(timelineStorage, eventStorage, userStorage,
+        10, 2, 100, 3, Duration.ofMillis(10));
+    when(userStorage.getFollowerIds(eq(AUTHOR_ID), anyInt())).thenReturn(List.of(FOLLOWER_ID));
+    when(timelineStorage.findTimeline(anyLong(), anyInt()))
+        .thenAnswer(invocation -> newestFirst());
+  }
+
+  @AfterEach
+  public void tearDown() {
+    service.shutdown();
+  }
+
+  @Test
+  @DisplayName("getTimeline(...) - keeps an event fanned out while the timeline is being loaded.")
+  public void keepsEventFannedOutDuringLoad() {
+    final Event event = event(1L);
+    when(timelineStorage.findTimeline(eq(FOLLOWER_ID), anyInt())).thenAnswer(invocation -> {
+      final List<Event> loaded = newestFirst();
+      service.fanOut(event);
+      final long deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+      while (persisted.isEmpty() && System.nanoTime() < deadline) {
+        Thread.onSpinWait();
+      }
+      return loaded;
+    });
+    recordPersisted();
+
+    service.getTimeline(FOLLOWER_ID, 10);
+
+    assertThat(awaitTimeline(1)).containsExactly(event);
+    verify(timelineStorage, times(1)).findTimeline(FOLLOWER_ID, 10);
+  }
+
+  @Test
+  @DisplayName("fanOut(...) - retries a failed persist and appends the event once it succeeds.")
+  public void retriesFailedPersist() {
+    recordPersisted();
+    assertThat(service.getTimeline(FOLLOWER_ID, 10)).isEmpty();
+    final Event event = event(1L);
+    doThrow(new DataAccessResourceFailureException("down"))
+        .doAnswer(invocation -> persisted.add(event))
+        .when(timelineStorage).addToTimelines(List.of(FOLLOWER_ID), event);
+
+    service.fanOut(event);
+
+    verify(timelineStorage, timeout(1_000).times(2)).addToTimelines(List.of(FOLLOWER_ID), event);
+    assertThat(awaitTimeline(1)).containsExactly(event);
+  }
+
+  @Test
+  @DisplayName("getTimeline(...) - evicts the least recently read timeline.")
+  public void evictsLeastRecentlyReadTimeline() {
+    service.getTimeline(1L, 10);
+    service.getTimeline(3L, 10);
+    service.getTimeline(1L, 10);
+    service.getTimeline(4L, 10);
+    service.getTimeline(1L, 10);
+    service.getTimeline(3L, 10);
+
+    verify(timelineStorage, times(1)).findTimeline(1L, 10);
+    verify(timelineStorage, times(2)).findTimeline(3L, 10);
+  }
+
+  @Test
+  @DisplayName("getTimeline(...) - merges the events of a friend, who has become popular.")
+  public void mergesEventsOfPopularFriend() {
+    final Event popularEvent = Event.builder()
+        .eventId(7L)
+        .timestamp(7L)
+        .userId(POPULAR_ID)
+        .eventType(EventType.LIKE)
+        .operation(Operation.ADD)
+        .entityId(1L)
+        .build();
+    when(userStorage.getFollowerIds(eq(POPULAR_ID), anyInt()))
+        .thenReturn(LongStream.rangeClosed(1, 101).boxed().toList());
+    when(userStorage.getFriendIdsAmong(FOLLOWER_ID, List.of(POPULAR_ID)))
+        .thenReturn(List.of(POPULAR_ID));
+    when(eventStorage.findLatestEventsOfUsers(List.of(POPULAR_ID), 10))
+        .thenReturn(List.of(popularEvent));
+    assertThat(service.getTimeline(FOLLOWER_ID, 10)).isEmpty();
+
+    service.fanOut(friendEvent(Operation.ADD));
+
+    assertThat(service.getTimeline(FOLLOWER_ID, 10)).containsExactly(popularEvent);
+
+    when(userStorage.getFollowerIds(eq(POPULAR_ID), anyInt())).thenReturn(List.of(FOLLOWER_ID));
+    service.fanOut(friendEvent(Operation.REMOVE));
+
+    assertThat(service.getTimeline(FOLLOWER_ID, 10)).isEmpty();
+    verify(userStorage, times(1)).getFriendIdsAmong(anyLong(), any());
+  }
+
+  @Test
+  @DisplayName("getTimeline(...) - looks up no popular friends while no author is popular.")
+  public void skipsPopularFriendsLookup() {
+    service.getTimeline(FOLLOWER_ID, 10);
+
+    verify(userStorage, never()).getFriendIdsAmong(anyLong(), any());
+  }
+
+  @Test
+  @DisplayName("add(...) - keeps events ordered by ID and adds each of them once.")
+  public void ringBufferOrdersEvents() {
+    final EventRingBuffer buffer = new EventRingBuffer(3);
+    buffer.add(event(2L));
+    buffer.add(event(4L));
+    buffer.add(event(3L));
+    buffer.add(event(4L));
+    buffer.add(event(1L));
+    buffer.load(List.of(event(5L), event(3L)));
+
+    assertThat(buffer.latest(10)).extracting(Event::getEventId).containsExactly(5L, 4L, 3L);
+  }
+
+  private void recordPersisted() {
+    doAnswer(invocation -> persisted.add(invocation.getArgument(1)))
+        .when(timelineStorage).addToTimelines(any(), any());
+  }
+
+  private List<Event> awaitTimeline(final int size) {
+    final long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+    List<Event> timeline = service.getTimeline(FOLLOWER_ID, 10);
+    while (timeline.size() < size && System.nanoTime() < deadline) {
+      Thread.onSpinWait();
+      timeline = service.getTimeline(FOLLOWER_ID, 10);
+    }
+    return timeline;
+  }
+
+  private List<Event> newestFirst() {
+    final List<Event> events = new ArrayList<>(persisted);
+    events.sort((first, second) -> Long.compare(second.getEventId(), first.getEventId()));
+    return events;
+  }
+
+  private static Event friendEvent(final Operation operation) {
+    return Event.builder()
+        .eventId(6L)
+        .timestamp(6L)
+        .userId(FOLLOWER_ID)
+        .eventType(EventType.FRIEND)
+        .operation(operation)
+        .entityId(POPULAR_ID)
+        .build();
+  }
+
+  private static Event event(final Long id) {
+    return Event.builder()
+        .eventId(id)
+        .timestamp(id)
+        .userId(AUTHOR_ID)
+        .eventType(EventType.LIKE)
+        .operation(Operation.ADD)
+        .entityId(id)
+        .build();
+  }
+}
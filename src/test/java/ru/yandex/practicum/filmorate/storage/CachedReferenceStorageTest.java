@@ -0,0 +1,81 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.model.Director;
+import ru.yandex.practicum.filmorate.storage.cache.CachedDirectorStorage;
+import ru.yandex.practicum.filmorate.storage.cache.CachedGenreStorage;
+import ru.yandex.practicum.filmorate.storage.cache.CachedMpaRatingStorage;
+import ru.yandex.practicum.filmorate.storage.dao.DirectorDbStorage;
+import ru.yandex.practicum.filmorate.storage.dao.GenreDbStorage;
+import ru.yandex.practicum.filmorate.storage.dao.MpaRatingDbStorage;
+import ru.yandex.practicum.filmorate.storage.rowmappers.DirectorRowMapper;
+import ru.yandex.practicum.filmorate.storage.rowmappers.GenreRowMapper;
+import ru.yandex.practicum.filmorate.storage.rowmappers.MpaRatingRowMapper;
+
+@JdbcTest
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Import({CachedGenreStorage.class, GenreDbStorage.class, GenreRowMapper.class,
+    CachedMpaRatingStorage.class, MpaRatingDbStorage.class, MpaRatingRowMapper.class,
+    CachedDirectorStorage.class, DirectorDbStorage.class, DirectorRowMapper.class})
+@Transactional
+public class CachedReferenceStorageTest {
+
+  private final CachedGenreStorage genreStorage;
+  private final CachedMpaRatingStorage mpaStorage;
+  private final CachedDirectorStorage directorStorage;
+  private final JdbcTemplate jdbc;
+
+  @Test
+  @DisplayName("countExistedIds(Set) - counts only the genres that exist.")
+  public void countExistedIdsCountsExistingGenres() {
+    assertThat(genreStorage.countExistedIds(Set.of(1L, 6L, 7L, 100L))).isEqualTo(2);
+    assertThat(genreStorage.findAll()).hasSize(6).element(0)
+        .hasFieldOrPropertyWithValue("id", 1L);
+    assertThat(genreStorage.isExist(7L)).isFalse();
+  }
+
+  @Test
+  @DisplayName("findById(Long) - answers MPA ratings from the loaded table.")
+  public void findMpaByIdIsAnsweredFromCache() {
+    assertThat(mpaStorage.findById(1L)).isPresent();
+
+    jdbc.update("UPDATE mpa_rating SET name = 'X' WHERE id = 1");
+
+    assertThat(mpaStorage.findById(1L)).hasValueSatisfying(mpa ->
+        assertThat(mpa.getName()).isNotEqualTo("X"));
+    assertThat(mpaStorage.isExist(100L)).isFalse();
+  }
+
+  @Test
+  @DisplayName("save/update/delete - director writes drop the cached table.")
+  public void directorWritesInvalidateCache() {
+    assertThat(directorStorage.findAll()).hasSize(2);
+
+    final Director saved = directorStorage.save(Director.builder().name("New director").build());
+    assertThat(directorStorage.findAll()).hasSize(3);
+    assertThat(directorStorage.isExist(saved.getId())).isTrue();
+
+    saved.setName("Renamed director");
+    directorStorage.update(saved);
+    assertThat(directorStorage.findById(saved.getId())).hasValueSatisfying(director ->
+        assertThat(director.getName()).isEqualTo("Renamed director"));
+
+    directorStorage.delete(saved.getId());
+    assertThat(directorStorage.isExist(saved.getId())).isFalse();
+    assertThat(directorStorage.findAll()).hasSize(2);
+  }
+}
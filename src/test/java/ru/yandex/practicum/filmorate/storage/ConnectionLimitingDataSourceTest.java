@@ -0,0 +1,68 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"spring.threads.virtual.enabled=true", "filmorate.jdbc.connection-limit=3"})
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ConnectionLimitingDataSourceTest {
+
+  private final DataSource dataSource;
+  private final ServletWebServerApplicationContext context;
+
+  @Test
+  @DisplayName("getConnection() - waits for a permit and fails after the acquire timeout.")
+  public void limitsConnections() throws Exception {
+    final ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(
+        new DriverManagerDataSource("jdbc:h2:mem:limited"), 2, Duration.ofMillis(50));
+
+    final Connection first = limited.getConnection();
+    try (Connection second = limited.getConnection()) {
+      assertThat(limited.availablePermits()).isZero();
+      assertThatThrownBy(limited::getConnection)
+          .isInstanceOf(SQLTransientConnectionException.class);
+    }
+    assertThat(limited.availablePermits()).isOne();
+    first.close();
+    first.close();
+    assertThat(limited.availablePermits()).isEqualTo(2);
+    assertThat(DataSourceUtils.getTargetConnection(first)).isNotSameAs(first);
+  }
+
+  @Test
+  @DisplayName("virtual thread mode - serves requests on virtual threads with limited connections.")
+  public void servesRequestsOnVirtualThreads() throws Exception {
+    final TomcatWebServer server = (TomcatWebServer) context.getWebServer();
+    final HttpResponse<Void> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(
+            URI.create("http://localhost:" + server.getPort() + "/films/1")).build(),
+        HttpResponse.BodyHandlers.discarding());
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(server.getTomcat().getConnector().getProtocolHandler().getExecutor())
+        .isInstanceOf(VirtualThreadExecutor.class);
+    assertThat(dataSource).isInstanceOfSatisfying(ConnectionLimitingDataSource.class,
+        limited -> assertThat(limited.availablePermits()).isEqualTo(3));
+  }
+}
@@ -0,0 +1,145 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.model.EventType;
+import ru.yandex.practicum.filmorate.model.Operation;
+
+/**
+ * Tests shared by all {@link EventStorage} implementations. The tests of database backed storages
+ * are rolled back after each test, since the test methods are declared in this class.
+ */
+@Transactional
+abstract class EventStorageContractTest {
+
+  protected abstract EventStorage storage();
+
+  @Test
+  @DisplayName("addEvent(Event) - saves the event and assigns the generated ID.")
+  public void addEventAssignsId() {
+    final Event event = buildEvent(1L, EventType.LIKE, Operation.ADD, 2L);
+
+    storage().addEvent(event);
+
+    assertThat(event.getEventId()).isNotNull();
+    assertThat(storage().findUserEvents(1L))
+        .singleElement()
+        .usingRecursiveComparison()
+        .isEqualTo(event);
+  }
+
+  @Test
+  @DisplayName("findUserEvents(Long) - returns only events of the specified user.")
+  public void findUserEventsReturnsUserEvents() {
+    storage().addEvent(buildEvent(1L, EventType.FRIEND, Operation.ADD, 2L));
+    storage().addEvent(buildEvent(2L, EventType.LIKE, Operation.ADD, 1L));
+    storage().addEvent(buildEvent(1L, EventType.FRIEND, Operation.REMOVE, 2L));
+
+    assertThat(storage().findUserEvents(1L))
+        .extracting(Event::getOperation)
+        .containsExactly(Operation.ADD, Operation.REMOVE);
+  }
+
+  @Test
+  @DisplayName("findUserEventsAfter(Long, Long) - returns user events added after the given one.")
+  public void findUserEventsAfterReturnsNewerEvents() {
+    final Event first = buildEvent(1L, EventType.LIKE, Operation.ADD, 1L);
+    final Event second = buildEvent(1L, EventType.LIKE, Operation.REMOVE, 1L);
+    final Event third = buildEvent(1L, EventType.REVIEW, Operation.ADD, 1L);
+    storage().addEvent(first);
+    storage().addEvent(second);
+    storage().addEvent(buildEvent(2L, EventType.LIKE, Operation.ADD, 1L));
+    storage().addEvent(third);
+
+    assertThat(storage().findUserEventsAfter(1L, first.getEventId()))
+        .extracting(Event::getEventId)
+        .containsExactly(second.getEventId(), third.getEventId());
+  }
+
+  @Test
+  @DisplayName("findLatestEventsOfUsers(...) - returns the newest events of given users first.")
+  public void findLatestEventsOfUsersReturnsNewestEventsFirst() {
+    final Event first = buildEvent(1L, EventType.LIKE, Operation.ADD, 1L);
+    final Event second = buildEvent(2L, EventType.LIKE, Operation.ADD, 1L);
+    final Event third = buildEvent(1L, EventType.LIKE, Operation.REMOVE, 1L);
+    storage().addEvent(first);
+    storage().addEvent(second);
+    storage().addEvent(buildEvent(3L, EventType.LIKE, Operation.ADD, 1L));
+    storage().addEvent(third);
+
+    assertThat(storage().findLatestEventsOfUsers(List.of(1L, 2L), 2))
+        .extracting(Event::getEventId)
+        .containsExactly(third.getEventId(), second.getEventId());
+    assertThat(storage().findLatestEventsOfUsers(List.of(2L, 1L), 10))
+        .extracting(Event::getEventId)
+        .containsExactly(third.getEventId(), second.getEventId(), first.getEventId());
+  }
+
+  @Test
+  @DisplayName("archiveEvents(...) - removes archived and dropped events from the feed.")
+  public void archiveEventsRemovesEventsFromFeed() {
+    final long old = Instant.now().minus(Duration.ofDays(100)).toEpochMilli();
+    final Event archived = buildEvent(1L, EventType.LIKE, Operation.ADD, 1L, old);
+    final Event dropped = buildEvent(1L, EventType.FRIEND, Operation.ADD, 2L, old);
+    final Event recent = buildEvent(1L, EventType.LIKE, Operation.ADD, 2L);
+    storage().addEvent(archived);
+    storage().addEvent(dropped);
+    storage().addEvent(recent);
+    final long cutoff = Instant.now().minus(Duration.ofDays(90)).toEpochMilli();
+
+    assertThat(storage().findEventsOlderThan(cutoff, 10))
+        .extracting(Event::getEventId)
+        .containsExactly(archived.getEventId(), dropped.getEventId());
+
+    storage().archiveEvents(List.of(archived.getEventId()), List.of(dropped.getEventId()));
+
+    assertThat(storage().findUserEvents(1L))
+        .extracting(Event::getEventId)
+        .containsExactly(recent.getEventId());
+    assertThat(storage().findEventsOlderThan(cutoff, 10))
+        .isEmpty();
+  }
+
+  @Test
+  @DisplayName("findEventsOlderThan(Long, Long, int) - returns old events after the given one.")
+  public void findEventsOlderThanPagesByLastId() {
+    final long old = Instant.now().minus(Duration.ofDays(100)).toEpochMilli();
+    final Event first = buildEvent(1L, EventType.LIKE, Operation.ADD, 1L, old);
+    final Event second = buildEvent(1L, EventType.LIKE, Operation.ADD, 2L, old);
+    final Event third = buildEvent(1L, EventType.LIKE, Operation.ADD, 3L, old);
+    storage().addEvent(first);
+    storage().addEvent(second);
+    storage().addEvent(third);
+    final long cutoff = Instant.now().minus(Duration.ofDays(90)).toEpochMilli();
+
+    assertThat(storage().findEventsOlderThan(cutoff, first.getEventId(), 1))
+        .extracting(Event::getEventId)
+        .containsExactly(second.getEventId());
+    assertThat(storage().findEventsOlderThan(cutoff, second.getEventId(), 10))
+        .extracting(Event::getEventId)
+        .containsExactly(third.getEventId());
+  }
+
+  protected Event buildEvent(final Long userId, final EventType type, final Operation operation,
+      final Long entityId) {
+    return buildEvent(userId, type, operation, entityId, Instant.now().toEpochMilli());
+  }
+
+  protected Event buildEvent(final Long userId, final EventType type, final Operation operation,
+      final Long entityId, final long timestamp) {
+    return Event.builder()
+        .timestamp(timestamp)
+        .userId(userId)
+        .eventType(type)
+        .operation(operation)
+        .entityId(entityId)
+        .build();
+  }
+}
@@ -0,0 +1,54 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.model.EventType;
+import ru.yandex.practicum.filmorate.model.Operation;
+import ru.yandex.practicum.filmorate.storage.dao.EventDbStorage;
+import ru.yandex.practicum.filmorate.storage.rowmappers.EventRowMapper;
+
+@JdbcTest
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Import({EventDbStorage.class, EventRowMapper.class})
+@Transactional
+public class EventStorageTest extends EventStorageContractTest {
+
+  private final EventDbStorage eventStorage;
+  private final JdbcTemplate jdbc;
+
+  @Override
+  protected EventStorage storage() {
+    return eventStorage;
+  }
+
+  @Test
+  @DisplayName("archiveEvents(...) - copies archived events to the archive table.")
+  public void archiveEventsCopiesArchivedEventsToArchiveTable() {
+    final long old = Instant.now().minus(Duration.ofDays(100)).toEpochMilli();
+    final Event archived = buildEvent(1L, EventType.LIKE, Operation.ADD, 1L, old);
+    final Event dropped = buildEvent(1L, EventType.FRIEND, Operation.ADD, 2L, old);
+    eventStorage.addEvent(archived);
+    eventStorage.addEvent(dropped);
+
+    eventStorage.archiveEvents(List.of(archived.getEventId()), List.of(dropped.getEventId()));
+
+    assertThat(jdbc.queryForList("SELECT id FROM event_archive", Long.class))
+        .containsExactly(archived.getEventId());
+  }
+}
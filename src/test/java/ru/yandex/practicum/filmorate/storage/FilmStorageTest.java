@@ -1,6 +1,7 @@
 package ru.yandex.practicum.filmorate.storage;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.util.Collection;
 import java.util.List;
@@ -21,7 +22,10 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.builder.TestDataBuilder;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.model.Director;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
 import ru.yandex.practicum.filmorate.model.SearchCriteria;
 import ru.yandex.practicum.filmorate.storage.dao.FilmDbStorage;
 import ru.yandex.practicum.filmorate.storage.dao.GenreDbStorage;
@@ -97,6 +101,23 @@ public class FilmStorageTest {
         });
   }
 
+  @Test
+  @DisplayName("update(Film) - applies only the difference of genres and directors.")
+  public void updateAppliesGenresAndDirectorsDifference() {
+    final Film dataToUpdate = TestDataBuilder.buildFilmWithGenre();
+    dataToUpdate.setId(1L);
+    dataToUpdate.getGenres().add(Genre.builder().id(2).name("Драма").build());
+    dataToUpdate.getDirectors().add(Director.builder().id(2L).name("Director").build());
+
+    filmStorage.update(dataToUpdate);
+
+    assertThat(jdbc.queryForList("SELECT genre_id FROM film_genre WHERE film_id = 1", Long.class))
+        .containsExactlyInAnyOrder(1L, 2L);
+    assertThat(jdbc.queryForList("SELECT director_id FROM director_film WHERE film_id = 1",
+        Long.class))
+        .containsExactly(2L);
+  }
+
   @Test
   @DisplayName("findAll() - returns a collection of films from db.")
   public void findAllReturnsCollectionOfUsers() {
@@ -175,6 +196,60 @@ public class FilmStorageTest {
         .isEmpty();
   }
 
+  @Test
+  @DisplayName("findVersion(Long) - increments film version on update and like changes.")
+  public void findVersionIncrementsOnUpdateAndLikes() {
+    final Long filmId = 1L;
+    final Film dataToUpdate = TestDataBuilder.buildFilmWithGenre();
+    dataToUpdate.setId(filmId);
+    final String stamp = filmStorage.getVersionStamp();
+
+    filmStorage.update(dataToUpdate);
+    filmStorage.addLike(filmId, 1L);
+    filmStorage.removeLike(filmId, 1L);
+    filmStorage.removeLike(filmId, 1L);
+
+    assertThat(filmStorage.findVersion(filmId)).contains(3L);
+    assertThat(filmStorage.findVersion(100L)).isEmpty();
+    assertThat(filmStorage.getVersionStamp()).isNotEqualTo(stamp);
+  }
+
+  @Test
+  @DisplayName("update(Film) - rejects an update of an outdated film version.")
+  public void updateRejectsOutdatedVersion() {
+    final Film dataToUpdate = TestDataBuilder.buildFilmWithGenre();
+    dataToUpdate.setId(1L);
+    dataToUpdate.setVersion(0L);
+    filmStorage.update(dataToUpdate);
+    final Film outdated = TestDataBuilder.buildFilm();
+    outdated.setId(1L);
+    outdated.setVersion(0L);
+
+    assertThat(dataToUpdate.getVersion()).isEqualTo(1L);
+    assertThatThrownBy(() -> filmStorage.update(outdated))
+        .isInstanceOf(ConflictException.class);
+    assertThat(filmStorage.findById(1L)).hasValueSatisfying(film ->
+        assertThat(film)
+            .hasFieldOrPropertyWithValue("name", dataToUpdate.getName())
+            .hasFieldOrPropertyWithValue("version", 1L));
+  }
+
+  @Test
+  @DisplayName("getVersionStamp() - changes when a film is added or deleted.")
+  public void getVersionStampChangesOnSaveAndDelete() {
+    final String initial = filmStorage.getVersionStamp();
+
+    final Film saved = filmStorage.save(TestDataBuilder.buildFilm());
+    final String afterSave = filmStorage.getVersionStamp();
+    filmStorage.delete(saved.getId());
+
+    assertThat(afterSave).isNotEqualTo(initial);
+    assertThat(filmStorage.getVersionStamp()).isEqualTo(initial);
+    filmStorage.delete(1L);
+    filmStorage.save(TestDataBuilder.buildFilm());
+    assertThat(filmStorage.getVersionStamp()).isNotEqualTo(initial);
+  }
+
   /**
    * <li>Film(id=1) - has 0 like </li>
    * <li>Film(id=2) - has 3 likes [1,3,4] </li>
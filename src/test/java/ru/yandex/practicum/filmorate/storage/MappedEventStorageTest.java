@@ -0,0 +1,98 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.model.EventType;
+import ru.yandex.practicum.filmorate.model.Operation;
+import ru.yandex.practicum.filmorate.storage.file.MappedEventStorage;
+import ru.yandex.practicum.filmorate.storage.file.MappedEventStorage.ForcePolicy;
+
+public class MappedEventStorageTest extends EventStorageContractTest {
+
+  /**
+   * Four records per segment, so the tests cross segment boundaries.
+   */
+  private static final int SEGMENT_SIZE = 4 * 48;
+
+  @TempDir
+  private Path directory;
+  private MappedEventStorage eventStorage;
+
+  @BeforeEach
+  public void openStorage() {
+    eventStorage = new MappedEventStorage(directory.toString(), SEGMENT_SIZE,
+        ForcePolicy.WRITE);
+  }
+
+  @AfterEach
+  public void closeStorage() {
+    eventStorage = null;
+  }
+
+  @Override
+  protected EventStorage storage() {
+    return eventStorage;
+  }
+
+  @Test
+  @DisplayName("MappedEventStorage(...) - restores events and archive flags from existing segments.")
+  public void reopenedStorageRestoresEvents() {
+    final long old = Instant.now().minus(Duration.ofDays(100)).toEpochMilli();
+    final Event archived = buildEvent(1L, EventType.LIKE, Operation.ADD, 1L, old);
+    eventStorage.addEvent(archived);
+    for (long entityId = 1; entityId <= 5; entityId++) {
+      eventStorage.addEvent(buildEvent(2L, EventType.LIKE, Operation.ADD, entityId));
+    }
+    final Event last = buildEvent(1L, EventType.REVIEW, Operation.UPDATE, 3L);
+    eventStorage.addEvent(last);
+    eventStorage.archiveEvents(List.of(archived.getEventId()), List.of());
+
+    final MappedEventStorage reopened = new MappedEventStorage(directory.toString(), SEGMENT_SIZE,
+        ForcePolicy.WRITE);
+
+    assertThat(reopened.findUserEvents(1L))
+        .singleElement()
+        .usingRecursiveComparison()
+        .isEqualTo(last);
+    assertThat(reopened.findUserEvents(2L))
+        .hasSize(5);
+    final Event next = buildEvent(3L, EventType.FRIEND, Operation.ADD, 1L);
+    reopened.addEvent(next);
+    assertThat(next.getEventId())
+        .isEqualTo(last.getEventId() + 1);
+  }
+
+  @Test
+  @DisplayName("addEvent(Event) - appends an event added in a transaction after the commit.")
+  public void addEventInTransactionAppendsAfterCommit() {
+    final Event event = buildEvent(1L, EventType.LIKE, Operation.ADD, 1L);
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      eventStorage.addEvent(event);
+
+      assertThat(event.getEventId()).isNull();
+      assertThat(eventStorage.findUserEvents(1L)).isEmpty();
+
+      TransactionSynchronizationUtils.triggerAfterCommit();
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertThat(eventStorage.findUserEvents(1L))
+        .singleElement()
+        .usingRecursiveComparison()
+        .isEqualTo(event);
+  }
+}
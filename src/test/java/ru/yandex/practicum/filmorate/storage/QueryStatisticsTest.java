@@ -0,0 +1,68 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.metrics.QueryStatistics;
+import ru.yandex.practicum.filmorate.storage.dao.GenreDbStorage;
+import ru.yandex.practicum.filmorate.storage.rowmappers.GenreRowMapper;
+
+@JdbcTest
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Import({GenreDbStorage.class, GenreRowMapper.class, QueryStatistics.class})
+@Transactional
+public class QueryStatisticsTest {
+
+  private final GenreDbStorage genreStorage;
+  private final QueryStatistics statistics;
+
+  @Test
+  @DisplayName("findOne() - records executions and rows by statement shape.")
+  public void recordsStatementsByShape() {
+    statistics.reset();
+
+    genreStorage.findById(1L);
+    genreStorage.findById(2L);
+    genreStorage.findById(100L);
+    genreStorage.findAll();
+
+    assertThat(statistics.snapshot())
+        .hasSize(2)
+        .anySatisfy(shape -> {
+          assertThat(shape.shape()).isEqualTo("SELECT * FROM genre WHERE id = ?");
+          assertThat(shape.count()).isEqualTo(3);
+          assertThat(shape.rows()).isEqualTo(2);
+          assertThat(shape.maxMillis()).isPositive().isLessThanOrEqualTo(shape.totalMillis());
+        })
+        .anySatisfy(shape -> {
+          assertThat(shape.shape()).startsWith("SELECT * FROM genre ORDER BY");
+          assertThat(shape.rows()).isEqualTo(6);
+        });
+  }
+
+  @Test
+  @DisplayName("record() - groups queries differing in the number of listed values.")
+  public void groupsValueLists() {
+    statistics.reset();
+
+    statistics.record("SELECT * FROM genre\n WHERE id IN (?, ?)", new Object[] {1, 2}, 1_000, 2);
+    statistics.record("SELECT * FROM genre WHERE id IN (1,2,3)", new Object[0], 3_000, 3);
+
+    assertThat(statistics.snapshot()).singleElement().satisfies(shape -> {
+      assertThat(shape.shape()).isEqualTo("SELECT * FROM genre WHERE id IN (...)");
+      assertThat(shape.count()).isEqualTo(2);
+      assertThat(shape.rows()).isEqualTo(5);
+      assertThat(shape.maxMillis()).isEqualTo(0.003);
+    });
+  }
+}
@@ -12,11 +12,14 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.builder.TestDataBuilder;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
 import ru.yandex.practicum.filmorate.model.Review;
 import ru.yandex.practicum.filmorate.storage.dao.ReviewDbStorage;
 import ru.yandex.practicum.filmorate.storage.rowmappers.ReviewRowMapper;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @JdbcTest
 @AutoConfigureTestDatabase
@@ -81,6 +84,25 @@ public class ReviewStorageTest {
                 "После обновления отзыва данных о лайках и кто их поставил быть не должно");
     }
 
+    @Test
+    public void whenUpdateReviewWithOutdatedVersionThenConflict() {
+        Review reviewToUpdate = TestDataBuilder.buildUpdateReview();
+        reviewToUpdate.setVersion(0L);
+        reviewDbStorage.update(reviewToUpdate);
+
+        Assertions.assertEquals(1L, reviewToUpdate.getVersion(), "Версия должна увеличиться");
+        Assertions.assertEquals(1L, reviewDbStorage.findVersion(1L).orElseThrow(), "Некорректная версия");
+
+        Review outdated = TestDataBuilder.buildUpdateReview();
+        outdated.setVersion(0L);
+        Assertions.assertThrows(ConflictException.class, () -> reviewDbStorage.update(outdated),
+                "Изменение устаревшей версии отзыва должно быть отклонено");
+        reviewDbStorage.addPendingUseful(1L, 1, true);
+        reviewDbStorage.applyPendingUseful();
+        Assertions.assertEquals(1L, reviewDbStorage.findVersion(1L).orElseThrow(),
+                "Изменение рейтинга не должно менять версию");
+    }
+
     @Test
     public void whenDeleteReviewWithId1ThenReturnNull() {
         Assertions.assertTrue(reviewDbStorage.isExist(1L), "В таблице должен быть отзыв");
@@ -98,14 +120,78 @@ public class ReviewStorageTest {
         Assertions.assertEquals(2, reviews.size(), "Некорректное количество отзывов в массиве");
     }
 
+    @Test
+    public void whenFindReviewsAfterLastOfPageThenReturnNextPage() {
+        Review second = reviewDbStorage.save(TestDataBuilder.buildReview());
+        Review third = reviewDbStorage.save(TestDataBuilder.buildReview());
+        jdbc.update("UPDATE reviews SET film_id = 1, useful = 1 WHERE review_id IN (?, ?)",
+                second.getReviewId(), third.getReviewId());
+
+        Collection<Review> firstPage = reviewDbStorage.findAllByFilmId(1L, 2, null, null);
+        Collection<Review> secondPage = reviewDbStorage.findAllByFilmId(1L, 2, 1, second.getReviewId());
+
+        Assertions.assertEquals(List.of(1L, second.getReviewId()),
+                firstPage.stream().map(Review::getReviewId).toList(), "Некорректная первая страница");
+        Assertions.assertEquals(List.of(third.getReviewId()),
+                secondPage.stream().map(Review::getReviewId).toList(), "Некорректная вторая страница");
+    }
+
+    @Test
+    public void whenFindTopReviewsThenReturnOrderedByUseful() {
+        Review worse = reviewDbStorage.save(TestDataBuilder.buildReview());
+        Review better = reviewDbStorage.save(TestDataBuilder.buildReview());
+        jdbc.update("UPDATE reviews SET useful = 5 WHERE review_id = ?", better.getReviewId());
+
+        Collection<Review> firstPage = reviewDbStorage.findAllByFilmId(null, 2, null, null);
+        Collection<Review> secondPage = reviewDbStorage.findAllByFilmId(null, 2, 1, 1L);
+
+        Assertions.assertEquals(List.of(better.getReviewId(), 1L),
+                firstPage.stream().map(Review::getReviewId).toList(), "Некорректная первая страница");
+        Assertions.assertEquals(List.of(worse.getReviewId()),
+                secondPage.stream().map(Review::getReviewId).toList(), "Некорректная вторая страница");
+    }
+
     @Test
     public void whenReviewWithId1LikeThenUsefulReturn2() {
-        reviewDbStorage.addLike(1L, 1L);
+        Assertions.assertEquals(2, reviewDbStorage.addLike(1L, 1L).orElseThrow().getUseful(),
+                "Лайк должен вернуть отзыв с новой оценкой");
         Review review = reviewDbStorage.findById(1L).orElse(null);
         Assertions.assertNotNull(review, "Отзыв не должен быть пустым");
         Assertions.assertEquals(2, review.getUseful(), "После лайка отзыв должен иметь оценку 2");
     }
 
+    @Test
+    public void whenSaveVoteThenUsefulNotChanged() {
+        Assertions.assertTrue(reviewDbStorage.saveVote(1L, 1L, true), "Лайк должен быть учтен");
+        Review review = reviewDbStorage.findById(1L).orElse(null);
+        Assertions.assertNotNull(review, "Отзыв не должен быть пустым");
+        Assertions.assertEquals(1, review.getUseful(), "Оценка в БД меняется только при сбросе буфера");
+        Assertions.assertTrue(reviewDbStorage.isLikeExist(1L, 1L), "Лайк должен быть сохранен");
+    }
+
+    @Test
+    public void whenApplyPendingUsefulThenUsefulChangedOnce() {
+        Long dislike = reviewDbStorage.addPendingUseful(1L, -1, true);
+        Long removedLike = reviewDbStorage.addPendingUseful(1L, -1, false);
+
+        Assertions.assertEquals(Map.of(1L, List.of(dislike, removedLike)), reviewDbStorage.applyPendingUseful(),
+                "Оценки должны быть применены по порядку");
+        Assertions.assertEquals(Map.of(), reviewDbStorage.applyPendingUseful(),
+                "Примененные оценки должны быть удалены из журнала");
+        Assertions.assertEquals(-2, reviewDbStorage.findById(1L).orElseThrow().getUseful(), "Некорректная оценка");
+    }
+
+    @Test
+    public void whenPendingLikesSkipZeroThenEachSeesPreviousUseful() {
+        jdbc.update("UPDATE reviews SET useful = -1 WHERE review_id = 1");
+        reviewDbStorage.addPendingUseful(1L, 1, true);
+        reviewDbStorage.addPendingUseful(1L, 1, true);
+
+        reviewDbStorage.applyPendingUseful();
+        Assertions.assertEquals(2, reviewDbStorage.findById(1L).orElseThrow().getUseful(),
+                "Только первый лайк должен перескочить 0");
+    }
+
     @Test
     public void whenReviewWithId1DislikeThenUsefulReturnMinus1() {
         reviewDbStorage.addDislike(1L, 1L);
@@ -115,13 +201,43 @@ public class ReviewStorageTest {
     }
 
     @Test
-    public void whenReviewWithId1RemoveLikeThenReturnUseful0() {
+    public void whenLikeChangedToDislikeThenVoteSaved() {
+        Assertions.assertTrue(reviewDbStorage.saveVote(1L, 2L, false), "Смена лайка на дизлайк должна быть учтена");
+        Assertions.assertTrue(reviewDbStorage.isLikeExist(1L, 2L), "Оценка пользователя должна сохраниться");
+    }
+
+    @Test
+    public void whenLikeRepeatedThenUsefulNotChanged() {
+        Assertions.assertTrue(reviewDbStorage.addLike(1L, 2L).isEmpty(), "Повторный лайк не должен быть учтен");
+        Assertions.assertFalse(reviewDbStorage.saveVote(1L, 2L, true), "Повторный лайк не должен быть учтен");
+        Assertions.assertFalse(reviewDbStorage.saveVote(99L, 1L, true), "Лайк несуществующему отзыву не должен быть учтен");
+        Assertions.assertFalse(reviewDbStorage.isLikeExist(99L, 1L), "Лайк несуществующему отзыву не должен быть сохранен");
+        Assertions.assertEquals(1, reviewDbStorage.findById(1L).orElseThrow().getUseful(), "Оценка не должна измениться");
+    }
+
+    @Test
+    public void whenRemoveMissingLikeThenUsefulNotChanged() {
         reviewDbStorage.removeLike(1L, 1L);
+        reviewDbStorage.removeDislike(1L, 1L);
+        Assertions.assertEquals(1, reviewDbStorage.findById(1L).orElseThrow().getUseful(), "Оценка не должна измениться");
+    }
+
+    @Test
+    public void whenReviewWithId1RemoveLikeThenReturnUseful0() {
+        reviewDbStorage.removeLike(1L, 2L);
         Review review = reviewDbStorage.findById(1L).orElse(null);
         Assertions.assertNotNull(review, "Отзыв не должен быть пустым");
         Assertions.assertEquals(0, review.getUseful(), "После удаления лайка значение должно быть 0");
     }
 
+    @Test
+    public void whenRemoveMissingVoteThenReturnFalse() {
+        Assertions.assertFalse(reviewDbStorage.deleteVote(1L, 1L), "Удаление отсутствующей оценки не должно быть учтено");
+        Assertions.assertTrue(reviewDbStorage.removeLike(1L, 1L).isEmpty(), "Удаление отсутствующей оценки не должно быть учтено");
+        Assertions.assertTrue(reviewDbStorage.deleteVote(1L, 2L), "Оценка пользователя должна быть удалена");
+        Assertions.assertFalse(reviewDbStorage.isLikeExist(1L, 2L), "Лайк должен быть удален");
+    }
+
     @Test
     public void whenReviewWithId1RemoveDislikeThenReturnUseful0() {
         reviewDbStorage.addDislike(1L, 1L);
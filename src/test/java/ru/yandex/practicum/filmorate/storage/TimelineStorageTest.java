@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.model.EventType;
+import ru.yandex.practicum.filmorate.model.Operation;
+import ru.yandex.practicum.filmorate.storage.dao.EventDbStorage;
+import ru.yandex.practicum.filmorate.storage.dao.TimelineDbStorage;
+import ru.yandex.practicum.filmorate.storage.rowmappers.EventRowMapper;
+
+@JdbcTest
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Import({TimelineDbStorage.class, EventDbStorage.class, EventRowMapper.class})
+@Transactional
+public class TimelineStorageTest {
+
+  private final TimelineDbStorage timelineStorage;
+  private final EventDbStorage eventStorage;
+
+  @Test
+  @DisplayName("findTimeline(Long, int) - returns the newest fanned out events limited by count.")
+  public void findTimelineReturnsNewestEventsFirst() {
+    final Event first = addEvent(2L, 1L);
+    final Event second = addEvent(2L, 2L);
+    final Event third = addEvent(3L, 3L);
+    timelineStorage.addToTimelines(List.of(1L, 4L), first);
+    timelineStorage.addToTimelines(List.of(1L), second);
+    timelineStorage.addToTimelines(List.of(1L), third);
+
+    final List<Event> timeline = timelineStorage.findTimeline(1L, 2);
+
+    assertThat(timeline)
+        .extracting(Event::getEventId)
+        .containsExactly(third.getEventId(), second.getEventId());
+    assertThat(timelineStorage.findTimeline(4L, 10))
+        .singleElement()
+        .usingRecursiveComparison()
+        .isEqualTo(first);
+  }
+
+  private Event addEvent(final Long userId, final Long entityId) {
+    final Event event = Event.builder()
+        .timestamp(Instant.now().toEpochMilli())
+        .userId(userId)
+        .eventType(EventType.LIKE)
+        .operation(Operation.ADD)
+        .entityId(entityId)
+        .build();
+    eventStorage.addEvent(event);
+    return event;
+  }
+}
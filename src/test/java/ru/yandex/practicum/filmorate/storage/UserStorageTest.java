@@ -1,6 +1,7 @@
 package ru.yandex.practicum.filmorate.storage;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.util.Collection;
 import java.util.List;
@@ -17,6 +18,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.builder.TestDataBuilder;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.storage.dao.UserDbStorage;
 import ru.yandex.practicum.filmorate.storage.rowmappers.UserRowMapper;
@@ -181,6 +183,79 @@ public class UserStorageTest {
             assertThat(friend).hasFieldOrPropertyWithValue("id", remainFriend));
   }
 
+  @Test
+  @DisplayName("getPopularUserIds(int) - returns users followed by more users than limit.")
+  public void getPopularUserIdsReturnsOnlyPopularUsers() {
+    prepareFriendsList(1L, 2L, 3L);
+    userStorage.addFriend(3L, 2L);
+    userStorage.addFriend(4L, 2L);
+
+    assertThat(userStorage.getPopularUserIds(2))
+        .containsExactly(2L);
+    assertThat(userStorage.getPopularUserIds(3))
+        .isEmpty();
+  }
+
+  @Test
+  @DisplayName("getFriendIdsAmong(Long, Collection) - returns the given users in the friend list.")
+  public void getFriendIdsAmongReturnsOnlyFriends() {
+    prepareFriendsList(1L, 2L, 3L);
+
+    assertThat(userStorage.getFriendIdsAmong(1L, List.of(2L, 4L)))
+        .containsExactly(2L);
+    assertThat(userStorage.getFriendIdsAmong(1L, List.of()))
+        .isEmpty();
+  }
+
+  @Test
+  @DisplayName("findVersion(Long) - increments user version on update and friend list changes.")
+  public void findVersionIncrementsOnUpdateAndFriendChanges() {
+    final User dataToUpdate = TestDataBuilder.buildUser();
+    dataToUpdate.setId(1L);
+
+    userStorage.update(dataToUpdate);
+    userStorage.addFriend(1L, 2L);
+    userStorage.removeFriend(1L, 2L);
+
+    assertThat(userStorage.findVersion(1L)).contains(3L);
+    assertThat(userStorage.findVersion(2L)).contains(0L);
+    assertThat(userStorage.findVersion(100L)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("update(User) - rejects an update of an outdated user version.")
+  public void updateRejectsOutdatedVersion() {
+    userStorage.addFriend(1L, 2L);
+    final User outdated = TestDataBuilder.buildUser();
+    outdated.setId(1L);
+    outdated.setVersion(0L);
+
+    assertThatThrownBy(() -> userStorage.update(outdated))
+        .isInstanceOf(ConflictException.class);
+    outdated.setVersion(1L);
+    assertThat(userStorage.update(outdated).getVersion()).isEqualTo(2L);
+  }
+
+  @Test
+  @DisplayName("getFriendsVersionStamp(Long) - changes when a friend changes or is deleted.")
+  public void getFriendsVersionStampChangesWithFriends() {
+    prepareFriendsList(1L, 2L, 3L);
+    jdbc.update("INSERT INTO user_like (film_id, user_id) VALUES (1, 3)");
+    final String initial = userStorage.getFriendsVersionStamp(1L).orElseThrow();
+    final User dataToUpdate = TestDataBuilder.buildUser();
+    dataToUpdate.setId(2L);
+
+    userStorage.update(dataToUpdate);
+    final String afterUpdate = userStorage.getFriendsVersionStamp(1L).orElseThrow();
+    userStorage.delete(3L);
+
+    assertThat(afterUpdate).isNotEqualTo(initial);
+    assertThat(userStorage.getFriendsVersionStamp(1L)).get().isNotEqualTo(afterUpdate);
+    assertThat(userStorage.getFriendsVersionStamp(100L)).isEmpty();
+    assertThat(jdbc.queryForObject("SELECT version FROM film WHERE id = 1", Long.class))
+        .isEqualTo(1L);
+  }
+
   private int prepareFriendsList(final Long userHost, final Long... friendIds) {
     for (Long friendId : friendIds) {
       userStorage.addFriend(userHost, friendId);